@@ -0,0 +1,133 @@
+package br.com.ramiralvesmelo.util.core.text;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link CharScanner} contra os laços escalares que ele substituiu, no pior caso (nenhuma
+ * ocorrência: a entrada é percorrida inteira). Execução: ver o profile {@code jmh} do pom
+ * (as iterações e forks são os das anotações, sem sobrescrever na linha de comando).
+ *
+ * Para CharSequence o scanner usa o mesmo laço que {@code stringIndexOfNot_escalar}: a diferença
+ * entre os dois mede o ruído da execução. {@code stringIndexOfNot_desenrolado} é o laço em blocos
+ * de 4 usado antes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+public class CharScannerBenchmark {
+
+    /** Classe dos caracteres não reservados de URI (RFC 3986), como no UriEncoder. */
+    private static final CharClass UNRESERVED = CharClass.ALNUM.with("-._~");
+
+    @Param({"16", "256", "4096"})
+    int length;
+
+    private String text;
+    private ByteBuffer bytes;
+
+    @Setup
+    public void setup() {
+        String alphabet = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789-._~";
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(alphabet.charAt((i * 7) % alphabet.length()));
+        }
+        text = sb.toString();
+        byte[] raw = text.getBytes(StandardCharsets.US_ASCII);
+        bytes = ByteBuffer.allocateDirect(raw.length).put(raw).flip();
+    }
+
+    // ===== CharSequence: classe de caracteres =====
+
+    @Benchmark
+    public int stringIndexOfNot_escalar() {
+        for (int i = 0; i < text.length(); i++) {
+            if (!UNRESERVED.contains(text.charAt(i))) return i;
+        }
+        return -1;
+    }
+
+    @Benchmark
+    public int stringIndexOfNot_desenrolado() {
+        int i = 0;
+        int to = text.length();
+        for (; i + 4 <= to; i += 4) {
+            boolean ok = UNRESERVED.contains(text.charAt(i))
+                    & UNRESERVED.contains(text.charAt(i + 1))
+                    & UNRESERVED.contains(text.charAt(i + 2))
+                    & UNRESERVED.contains(text.charAt(i + 3));
+            if (!ok) break;
+        }
+        for (; i < to; i++) {
+            if (!UNRESERVED.contains(text.charAt(i))) return i;
+        }
+        return -1;
+    }
+
+    @Benchmark
+    public int stringIndexOfNot_scanner() {
+        return CharScanner.indexOfNot(text, UNRESERVED);
+    }
+
+    // ===== ByteBuffer: classe de caracteres =====
+
+    @Benchmark
+    public int bytesIndexOfNot_escalar() {
+        for (int i = 0, n = bytes.limit(); i < n; i++) {
+            if (!UNRESERVED.contains(bytes.get(i))) return i;
+        }
+        return -1;
+    }
+
+    @Benchmark
+    public int bytesIndexOfNot_swar() {
+        return CharScanner.indexOfNot(bytes, 0, bytes.limit(), UNRESERVED);
+    }
+
+    // ===== ByteBuffer: separador de linha =====
+
+    @Benchmark
+    public int bytesIndexOfNewline_escalar() {
+        for (int i = 0, n = bytes.limit(); i < n; i++) {
+            if (bytes.get(i) == '\n') return i;
+        }
+        return -1;
+    }
+
+    @Benchmark
+    public int bytesIndexOfNewline_swar() {
+        return CharScanner.indexOf(bytes, 0, bytes.limit(), (byte) '\n');
+    }
+
+    // ===== ByteBuffer: verificação de ASCII =====
+
+    @Benchmark
+    public int bytesIndexOfNonAscii_escalar() {
+        for (int i = 0, n = bytes.limit(); i < n; i++) {
+            if (bytes.get(i) < 0) return i;
+        }
+        return -1;
+    }
+
+    @Benchmark
+    public int bytesIndexOfNonAscii_swar() {
+        return CharScanner.indexOfNonAscii(bytes, 0, bytes.limit());
+    }
+}
@@ -1,10 +1,13 @@
 package br.com.ramiralvesmelo.util.config;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Stream;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.security.core.GrantedAuthority;
@@ -18,13 +21,33 @@ import org.springframework.security.oauth2.jwt.Jwt;
  * Exp.: admin => ROLE_admin
  * 
  * @PreAuthorize("hasRole('admin')") 
+ * 
+ * Como os usuários compartilham poucas combinações de roles, o resultado é memoizado:
+ * cada combinação (realm roles, resource roles) gera uma única coleção imutável, e cada
+ * role tem uma única instância de GrantedAuthority. Os caches são limitados; acima do
+ * limite a conversão é feita normalmente, sem cache.
  */
 public class KeycloakRoleConverter implements Converter<Jwt, Collection<GrantedAuthority>> {
 
+	public static final int DEFAULT_MAX_COMBINATIONS = 1024;
+	private static final int MAX_AUTHORITIES = 4096;
+
 	private final String clientId;
+	private final int maxCombinations;
+
+	private final Map<RoleKey, List<GrantedAuthority>> combinations = new ConcurrentHashMap<>();
+	private final Map<String, GrantedAuthority> authorities = new ConcurrentHashMap<>();
 
 	public KeycloakRoleConverter(String clientId) {
+		this(clientId, DEFAULT_MAX_COMBINATIONS);
+	}
+
+	public KeycloakRoleConverter(String clientId, int maxCombinations) {
+		if (maxCombinations < 0) {
+			throw new IllegalArgumentException("maxCombinations deve ser >= 0");
+		}
 		this.clientId = clientId;
+		this.maxCombinations = maxCombinations;
 	}
 
 	@Override
@@ -45,13 +68,67 @@ public class KeycloakRoleConverter implements Converter<Jwt, Collection<GrantedA
 				.map(m -> (Collection<String>) m.get("roles")).orElseGet(List::of); // se não houver, retorna lista
 																					// vazia
 
-		// Junta as roles de realm e resource em um único Stream
-		// remove duplicadas (.distinct())
-		// prefixa cada role com "ROLE_" para se adequar ao padrão do Spring Security
-		// converte em SimpleGrantedAuthority (implementação de GrantedAuthority)
-		// e retorna como lista
-		return Stream.concat(realmRoles.stream(), resourceRoles.stream()).distinct()
-				.map(r -> new SimpleGrantedAuthority("ROLE_" + r)).map(GrantedAuthority.class::cast).toList();
+		// Caminho quente: combinação já conhecida -> mesma coleção imutável, sem alocar authorities
+		RoleKey key = new RoleKey(asList(realmRoles), asList(resourceRoles));
+		List<GrantedAuthority> cached = combinations.get(key);
+		if (cached != null) {
+			return cached;
+		}
+
+		List<GrantedAuthority> converted = toAuthorities(realmRoles, resourceRoles);
+		if (combinations.size() < maxCombinations) {
+			// chave com cópia própria: não depende das coleções (mutáveis) do JWT
+			combinations.putIfAbsent(new RoleKey(copy(key.realm()), copy(key.resource())), converted);
+		}
+		return converted;
+	}
+
+	/** Quantidade de combinações de roles memoizadas. */
+	public int cachedCombinations() {
+		return combinations.size();
+	}
+
+	/**
+	 * Junta as roles de realm e resource, remove duplicadas (mantendo a ordem),
+	 * prefixa cada role com "ROLE_" (padrão do Spring Security) e retorna lista imutável.
+	 * Roles nulas ou em branco no claim são ignoradas.
+	 */
+	private List<GrantedAuthority> toAuthorities(Collection<String> realmRoles, Collection<String> resourceRoles) {
+		LinkedHashSet<String> distinct = new LinkedHashSet<>(realmRoles);
+		distinct.addAll(resourceRoles);
+
+		List<GrantedAuthority> out = new ArrayList<>(distinct.size());
+		for (String role : distinct) {
+			if (role != null && !role.isBlank()) {
+				out.add(authority(role));
+			}
+		}
+		return Collections.unmodifiableList(out);
+	}
+
+	/** Instância compartilhada de GrantedAuthority por role (SimpleGrantedAuthority é imutável). */
+	private GrantedAuthority authority(String role) {
+		GrantedAuthority existing = authorities.get(role);
+		if (existing != null) {
+			return existing;
+		}
+		GrantedAuthority created = new SimpleGrantedAuthority("ROLE_" + role);
+		if (authorities.size() < MAX_AUTHORITIES) {
+			GrantedAuthority raced = authorities.putIfAbsent(role, created);
+			return raced != null ? raced : created;
+		}
+		return created;
+	}
+
+	private static List<String> asList(Collection<String> roles) {
+		return roles instanceof List<String> list ? list : new ArrayList<>(roles);
+	}
+
+	private static List<String> copy(List<String> roles) {
+		return Collections.unmodifiableList(new ArrayList<>(roles));
+	}
 
+	/** Chave da combinação (realm roles, resource roles), comparada por conteúdo e ordem. */
+	private record RoleKey(List<String> realm, List<String> resource) {
 	}
 }
\ No newline at end of file
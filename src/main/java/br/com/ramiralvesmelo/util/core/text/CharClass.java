@@ -0,0 +1,135 @@
+package br.com.ramiralvesmelo.util.core.text;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Classe de caracteres ASCII imutável (bitmask de 128 bits), usada pelo {@link CharScanner}.
+ *
+ * <pre>
+ * CharClass safe = CharClass.ALNUM.with("-._~");
+ * CharScanner.indexOfNot(value, safe); // -1 quando todos os caracteres são seguros
+ * </pre>
+ *
+ * Caracteres fora do ASCII nunca pertencem à classe.
+ */
+public final class CharClass {
+
+    public static final CharClass DIGIT = range('0', '9');
+    public static final CharClass ALPHA = range('a', 'z').union(range('A', 'Z'));
+    public static final CharClass ALNUM = ALPHA.union(DIGIT);
+
+    /** Acima disso a varredura SWAR deixa de compensar e o {@link CharScanner} usa o laço escalar. */
+    private static final int MAX_SWAR_RANGES = 8;
+    private static final long ONES = 0x0101010101010101L;
+
+    private final long lo;
+    private final long hi;
+    /** constantes SWAR por faixa [m+1, n-1]: ONES*(127+n) e ONES*(127-m); null se houver faixas demais */
+    final long[] swarUpper;
+    final long[] swarLower;
+
+    private CharClass(long lo, long hi) {
+        this.lo = lo;
+        this.hi = hi;
+
+        List<int[]> ranges = new ArrayList<>();
+        for (int c = 0; c < 128; c++) {
+            if (contains((char) c)) {
+                int start = c;
+                while (c + 1 < 128 && contains((char) (c + 1))) c++;
+                ranges.add(new int[] {start, c});
+            }
+        }
+        if (ranges.size() > MAX_SWAR_RANGES) {
+            this.swarUpper = null;
+            this.swarLower = null;
+        } else {
+            this.swarUpper = new long[ranges.size()];
+            this.swarLower = new long[ranges.size()];
+            for (int i = 0; i < ranges.size(); i++) {
+                int m = ranges.get(i)[0] - 1; // limite exclusivo inferior (pode ser -1)
+                int n = ranges.get(i)[1] + 1; // limite exclusivo superior (até 128)
+                swarUpper[i] = ONES * (127 + n);
+                swarLower[i] = ONES * (127 - m);
+            }
+        }
+    }
+
+    /** Classe com exatamente os caracteres informados (todos ASCII). */
+    public static CharClass of(String chars) {
+        long lo = 0;
+        long hi = 0;
+        for (int i = 0; i < chars.length(); i++) {
+            char c = chars.charAt(i);
+            if (c >= 128) {
+                throw new IllegalArgumentException("CharClass aceita apenas ASCII: '" + c + "'");
+            }
+            if (c < 64) lo |= 1L << c;
+            else hi |= 1L << c;
+        }
+        return new CharClass(lo, hi);
+    }
+
+    /** Faixa inclusiva [from, to] (ASCII). */
+    public static CharClass range(char from, char to) {
+        if (from > to || to >= 128) {
+            throw new IllegalArgumentException("Faixa ASCII inválida: " + (int) from + ".." + (int) to);
+        }
+        long lo = 0;
+        long hi = 0;
+        for (int c = from; c <= to; c++) {
+            if (c < 64) lo |= 1L << c;
+            else hi |= 1L << c;
+        }
+        return new CharClass(lo, hi);
+    }
+
+    public CharClass union(CharClass other) {
+        return new CharClass(lo | other.lo, hi | other.hi);
+    }
+
+    /** Esta classe mais os caracteres informados. */
+    public CharClass with(String chars) {
+        return union(of(chars));
+    }
+
+    /** Esta classe sem os caracteres informados. */
+    public CharClass without(String chars) {
+        CharClass removed = of(chars);
+        return new CharClass(lo & ~removed.lo, hi & ~removed.hi);
+    }
+
+    /** Complemento dentro do ASCII. */
+    public CharClass negate() {
+        return new CharClass(~lo, ~hi);
+    }
+
+    public boolean contains(char c) {
+        return c < 128 && (((c < 64 ? lo : hi) >>> c) & 1L) != 0;
+    }
+
+    /** Para bytes (ASCII); bytes &gt;= 0x80 nunca pertencem à classe. */
+    public boolean contains(byte b) {
+        return b >= 0 && (((b < 64 ? lo : hi) >>> b) & 1L) != 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof CharClass other && lo == other.lo && hi == other.hi;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(lo) * 31 + Long.hashCode(hi);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("CharClass[");
+        for (char c = 32; c < 127; c++) {
+            if (contains(c)) sb.append(c);
+        }
+        return sb.append(']').toString();
+    }
+}
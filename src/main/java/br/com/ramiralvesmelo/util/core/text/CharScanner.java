@@ -0,0 +1,105 @@
+package br.com.ramiralvesmelo.util.core.text;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Núcleo de varredura compartilhado pelos validadores/encoders: encontra o primeiro caractere
+ * fora (ou dentro) de uma {@link CharClass}, para que o caso comum — nada a tratar — devolva
+ * a entrada sem cópia.
+ *
+ * - {@link CharSequence}: laço escalar simples (o desenrolado em blocos de 4 mediu ~1,5x mais
+ *   lento no CharScannerBenchmark, em src/jmh).
+ * - {@link ByteBuffer} (ASCII/UTF-8): SWAR, 8 bytes por {@code getLong}; o byte exato só é
+ *   localizado (escalar) no bloco que contém a ocorrência. Mediu ~1,4-1,6x mais rápido que o
+ *   escalar na busca de um byte, ~1,15x na verificação de ASCII e empate na busca por classe
+ *   (com as várias faixas de um conjunto como o de não reservados de URI).
+ *
+ * Para procurar um único caractere numa {@link String}, prefira {@link String#indexOf(int)},
+ * que já é intrínseco (vetorizado) na JVM.
+ */
+public final class CharScanner {
+
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGH = 0x8080808080808080L;
+    private static final long LOW7 = 0x7F7F7F7F7F7F7F7FL;
+
+    private CharScanner() {}
+
+    // =========================================================
+    // CharSequence
+    // =========================================================
+
+    /** Índice do primeiro caractere fora de {@code allowed}, ou -1 se todos pertencem à classe. */
+    public static int indexOfNot(CharSequence s, CharClass allowed) {
+        return indexOfNot(s, 0, s.length(), allowed);
+    }
+
+    /** Como {@link #indexOfNot(CharSequence, CharClass)}, em {@code s[from, to)}. */
+    public static int indexOfNot(CharSequence s, int from, int to, CharClass allowed) {
+        for (int i = from; i < to; i++) {
+            if (!allowed.contains(s.charAt(i))) return i;
+        }
+        return -1;
+    }
+
+    /** Índice do primeiro caractere pertencente a {@code targets} em {@code s[from, to)}, ou -1. */
+    public static int indexOfAny(CharSequence s, int from, int to, CharClass targets) {
+        for (int i = from; i < to; i++) {
+            if (targets.contains(s.charAt(i))) return i;
+        }
+        return -1;
+    }
+
+    // =========================================================
+    // ByteBuffer (SWAR)
+    // =========================================================
+
+    /** Primeiro byte em {@code buf[from, to)} fora de {@code allowed} (bytes &gt;= 0x80 nunca pertencem), ou -1. */
+    public static int indexOfNot(ByteBuffer buf, int from, int to, CharClass allowed) {
+        long[] upper = allowed.swarUpper;
+        long[] lower = allowed.swarLower;
+        int i = from;
+        if (upper != null) {
+            for (; i + 8 <= to; i += 8) {
+                long w = buf.getLong(i);
+                if ((w & HIGH) != 0) break; // há byte não ASCII no bloco
+                long x = w & LOW7;
+                long in = 0;
+                for (int r = 0; r < upper.length; r++) {
+                    in |= (upper[r] - x) & ~w & (x + lower[r]);
+                }
+                if ((in & HIGH) != HIGH) break;
+            }
+        }
+        for (; i < to; i++) {
+            if (!allowed.contains(buf.get(i))) return i;
+        }
+        return -1;
+    }
+
+    /** Primeiro byte igual a {@code value} em {@code buf[from, to)}, ou -1. */
+    public static int indexOf(ByteBuffer buf, int from, int to, byte value) {
+        long pattern = ONES * (value & 0xFF);
+        int i = from;
+        for (; i + 8 <= to; i += 8) {
+            long v = buf.getLong(i) ^ pattern;
+            if (((v - ONES) & ~v & HIGH) != 0) break; // algum byte zerado = ocorrência
+        }
+        for (; i < to; i++) {
+            if (buf.get(i) == value) return i;
+        }
+        return -1;
+    }
+
+    /** Primeiro byte &gt;= 0x80 (não ASCII) em {@code buf[from, to)}, ou -1. */
+    public static int indexOfNonAscii(ByteBuffer buf, int from, int to) {
+        int i = from;
+        for (; i + 8 <= to; i += 8) {
+            if ((buf.getLong(i) & HIGH) != 0) break;
+        }
+        for (; i < to; i++) {
+            if (buf.get(i) < 0) return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,165 @@
+package br.com.ramiralvesmelo.util.http.file;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Envio não bloqueante de um trecho de arquivo (Servlet 3.1+): a cada {@code onWritePossible}
+ * escreve blocos enquanto {@link ServletOutputStream#isReady()} for true e devolve o thread ao
+ * container quando o socket enche. Um cliente lento não prende mais um thread do pool.
+ *
+ * Usa leituras posicionais ({@link FileChannel#read(ByteBuffer, long)}) e um buffer de
+ * {@value #BUFFER_SIZE} bytes por download em andamento.
+ *
+ * O timeout assíncrono é finito ({@link #timeoutMillis(long)}): um cliente que para de ler sem
+ * erro no socket não prende o AsyncContext e o arquivo aberto para sempre. Timeout, erro ou
+ * encerramento pelo container fecham o arquivo e completam o future com erro.
+ */
+@Slf4j
+final class AsyncChannelWriter implements WriteListener {
+
+    /** Menor que o buffer síncrono: há um por download simultâneo. */
+    static final int BUFFER_SIZE = 16 * 1024;
+    /** Tempo mínimo de qualquer envio assíncrono. */
+    static final long MIN_TIMEOUT_MS = 60_000;
+    /** Vazão abaixo da qual o cliente é considerado parado (define o timeout pelo tamanho). */
+    static final long MIN_BYTES_PER_SECOND = 64 * 1024;
+
+    private final AsyncContext async;
+    private final ServletOutputStream out;
+    private final FileChannel channel;
+    private final String name;
+    private final long start;
+    private final long end;
+    private final ByteBuffer buf = ByteBuffer.allocate(BUFFER_SIZE);
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+    private final AtomicBoolean finished = new AtomicBoolean();
+    private long position;
+
+    private AsyncChannelWriter(AsyncContext async, ServletOutputStream out, FileChannel channel,
+                               long start, long count, String name) {
+        this.async = async;
+        this.out = out;
+        this.channel = channel;
+        this.start = start;
+        this.position = start;
+        this.end = start + count;
+        this.name = name;
+    }
+
+    /**
+     * Inicia o modo assíncrono e registra o listener; os cabeçalhos já devem estar definidos.
+     * O arquivo é aberto aqui e fechado ao final do envio (sucesso ou erro).
+     */
+    static CompletableFuture<Void> start(HttpServletRequest request, HttpServletResponse response,
+                                         Path file, long start, long count, String name) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            ServletOutputStream out = response.getOutputStream();
+            AsyncContext async = request.startAsync();
+            async.setTimeout(timeoutMillis(count));
+            AsyncChannelWriter writer = new AsyncChannelWriter(async, out, channel, start, count, name);
+            async.addListener(writer.new Lifecycle());
+            out.setWriteListener(writer); // o container chama onWritePossible quando puder escrever
+            return writer.done;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** {@value #MIN_TIMEOUT_MS} ms + o tempo de enviar {@code count} bytes a {@value #MIN_BYTES_PER_SECOND} B/s. */
+    static long timeoutMillis(long count) {
+        return MIN_TIMEOUT_MS + count / MIN_BYTES_PER_SECOND * 1000;
+    }
+
+    @Override
+    public void onWritePossible() {
+        if (finished.get()) return;
+        try {
+            while (out.isReady()) {
+                if (position >= end) {
+                    finish(null);
+                    return;
+                }
+                buf.clear().limit((int) Math.min(BUFFER_SIZE, end - position));
+                int n = channel.read(buf, position);
+                if (n < 0) {
+                    throw new IOException("Arquivo truncado durante o envio: faltaram " + (end - position) + " bytes");
+                }
+                out.write(buf.array(), 0, n);
+                position += n;
+            }
+        } catch (IOException | RuntimeException e) {
+            onError(e);
+        }
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        log.warn("Envio assíncrono de '{}' interrompido: {}", name, t.toString());
+        finish(t);
+    }
+
+    private void finish(Throwable error) {
+        finish(error, true);
+    }
+
+    /** Fecha o arquivo e completa o future uma única vez; {@code complete} = encerrar o AsyncContext. */
+    private void finish(Throwable error, boolean complete) {
+        if (!finished.compareAndSet(false, true)) return;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.debug("Falha ao fechar o arquivo de '{}'", name, e);
+        }
+        if (complete) async.complete();
+        if (error == null) {
+            log.info("Arquivo '{}' enviado com sucesso (assíncrono, {} bytes)", name, position - start);
+            done.complete(null);
+        } else {
+            done.completeExceptionally(error);
+        }
+    }
+
+    /** Eventos do AsyncContext: timeout e erros do container também liberam o arquivo. */
+    private final class Lifecycle implements AsyncListener {
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            log.warn("Envio assíncrono de '{}' expirou após {} de {} bytes", name, position - start, end - start);
+            finish(new TimeoutException("Tempo limite do envio assíncrono de '" + name + "'"));
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            AsyncChannelWriter.this.onError(event.getThrowable());
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            // encerrado pelo container antes do fim (nosso complete() já marcou finished)
+            finish(new IOException("Requisição encerrada durante o envio de '" + name + "'"), false);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // não reinicia o modo assíncrono
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package br.com.ramiralvesmelo.util.http.file;
+
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token bucket de bytes por segundo, para limitar a banda de downloads.
+ *
+ * Uma instância compartilhada limita a saída total (ex.: bean singleton usado por todos os
+ * downloads); o {@link FileResponseWriter} também cria uma por resposta quando há limite
+ * individual ({@link DownloadOptions.Builder#maxBytesPerSecond(long)}).
+ *
+ * <pre>
+ * BandwidthLimiter egress = new BandwidthLimiter(50L * 1024 * 1024); // 50 MB/s no total
+ * DownloadOptions opts = DownloadOptions.builder().egressLimiter(egress).build();
+ * </pre>
+ *
+ * Reserva-e-espera: quem pede mais bytes do que há no balde reserva mesmo assim (o saldo fica
+ * negativo) e dorme fora do lock o tempo necessário — a ordem de chegada é respeitada e o lock
+ * só protege uma conta. Thread-safe.
+ */
+public final class BandwidthLimiter {
+
+    private final long bytesPerSecond;
+    private final long burstBytes;
+
+    private double tokens;
+    private long lastRefill;
+
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder throttledNanos = new LongAdder();
+
+    /** Limite com rajada de até 1 segundo de banda. */
+    public BandwidthLimiter(long bytesPerSecond) {
+        this(bytesPerSecond, bytesPerSecond);
+    }
+
+    public BandwidthLimiter(long bytesPerSecond, long burstBytes) {
+        if (bytesPerSecond <= 0) {
+            throw new IllegalArgumentException("bytesPerSecond deve ser > 0");
+        }
+        if (burstBytes <= 0) {
+            throw new IllegalArgumentException("burstBytes deve ser > 0");
+        }
+        this.bytesPerSecond = bytesPerSecond;
+        this.burstBytes = burstBytes;
+        this.tokens = burstBytes;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * Consome {@code bytes} do balde, esperando o necessário.
+     *
+     * @return nanossegundos de espera (0 quando havia saldo)
+     * @throws InterruptedIOException se o thread for interrompido durante a espera
+     */
+    public long acquire(long bytes) throws InterruptedIOException {
+        long wait = reserve(bytes);
+        if (wait > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrompido aguardando banda");
+            }
+            throttledNanos.add(wait);
+        }
+        bytesSent.add(bytes);
+        return wait;
+    }
+
+    /** Contabiliza bytes já enviados sem esperar (o saldo pode ficar negativo). */
+    public void record(long bytes) {
+        reserve(bytes);
+        bytesSent.add(bytes);
+    }
+
+    public long getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+
+    public long getBurstBytes() {
+        return burstBytes;
+    }
+
+    /** Total de bytes que passaram pelo limitador. */
+    public long getBytesSent() {
+        return bytesSent.sum();
+    }
+
+    /** Tempo total em que escritas ficaram esperando banda. */
+    public Duration getThrottledTime() {
+        return Duration.ofNanos(throttledNanos.sum());
+    }
+
+    // ======================== internals ========================
+
+    /** Retira {@code bytes} do balde e retorna quanto esperar até o saldo voltar a zero. */
+    private synchronized long reserve(long bytes) {
+        long now = System.nanoTime();
+        tokens = Math.min(burstBytes, tokens + (now - lastRefill) * (bytesPerSecond / 1e9));
+        lastRefill = now;
+        tokens -= bytes;
+        return tokens >= 0 ? 0 : (long) (-tokens * 1e9 / bytesPerSecond);
+    }
+}
@@ -0,0 +1,82 @@
+package br.com.ramiralvesmelo.util.http.file;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Canal somente leitura sobre um {@link ByteBuffer} (mapeado ou direto), usado para servir
+ * conteúdo do {@link DocumentContentCache} pelos mesmos caminhos de Range do {@link FileResponseWriter}.
+ * O buffer de origem não é alterado; cada canal tem a própria posição.
+ */
+final class ByteBufferChannel implements SeekableByteChannel {
+
+    private final ByteBuffer content;
+    private int position;
+    private boolean open = true;
+
+    ByteBufferChannel(ByteBuffer content) {
+        this.content = content.slice();
+    }
+
+    @Override
+    public int read(ByteBuffer dst) {
+        if (position >= content.limit()) return -1;
+        int n = Math.min(dst.remaining(), content.limit() - position);
+        dst.put(dst.position(), content, position, n).position(dst.position() + n);
+        position += n;
+        return n;
+    }
+
+    /** Escreve o trecho [start, start + count) direto do buffer, sem buffer intermediário próprio. */
+    long writeTo(long start, long count, OutputStream out) throws IOException {
+        ByteBuffer view = content.duplicate();
+        view.limit(Math.toIntExact(start + count)).position(Math.toIntExact(start));
+        WritableByteChannel target = Channels.newChannel(out);
+        while (view.hasRemaining()) {
+            target.write(view);
+        }
+        return count;
+    }
+
+    @Override
+    public int write(ByteBuffer src) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public long position() {
+        return position;
+    }
+
+    @Override
+    public SeekableByteChannel position(long newPosition) {
+        if (newPosition < 0) throw new IllegalArgumentException("Posição negativa: " + newPosition);
+        position = (int) Math.min(newPosition, content.limit());
+        return this;
+    }
+
+    @Override
+    public long size() {
+        return content.limit();
+    }
+
+    @Override
+    public SeekableByteChannel truncate(long size) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public void close() {
+        open = false;
+    }
+}
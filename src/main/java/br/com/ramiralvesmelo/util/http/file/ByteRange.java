@@ -0,0 +1,103 @@
+package br.com.ramiralvesmelo.util.http.file;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Intervalo de bytes inclusivo [start, end] de um cabeçalho HTTP {@code Range} (RFC 9110 §14).
+ *
+ * <pre>
+ * List&lt;ByteRange&gt; ranges = ByteRange.parse("bytes=0-99,-500", size);
+ * // null  → cabeçalho ausente/inválido: responder 200 com o corpo inteiro
+ * // vazia → nenhum intervalo satisfatório: responder 416
+ * </pre>
+ */
+public record ByteRange(long start, long end) {
+
+    /** Acima disso o cabeçalho é ignorado (proteção contra pedidos com milhares de partes). */
+    public static final int MAX_RANGES = 32;
+
+    public ByteRange {
+        if (start < 0 || end < start) {
+            throw new IllegalArgumentException("Intervalo inválido: " + start + "-" + end);
+        }
+    }
+
+    public long length() {
+        return end - start + 1;
+    }
+
+    /** Valor do cabeçalho {@code Content-Range} para um recurso de {@code size} bytes. */
+    public String contentRange(long size) {
+        return "bytes " + start + "-" + end + "/" + size;
+    }
+
+    /**
+     * Interpreta o cabeçalho {@code Range} para um recurso de {@code size} bytes.
+     * Intervalos sobrepostos ou adjacentes são unidos e ordenados.
+     *
+     * @return null se o cabeçalho estiver ausente, mal formado ou tiver mais de {@value #MAX_RANGES}
+     *         intervalos; lista vazia se nenhum intervalo for satisfatório
+     */
+    public static List<ByteRange> parse(String header, long size) {
+        if (header == null) return null;
+        String value = header.trim();
+        if (!value.regionMatches(true, 0, "bytes=", 0, 6)) return null;
+
+        String[] specs = value.substring(6).split(",", -1);
+        if (specs.length > MAX_RANGES) return null;
+
+        List<ByteRange> ranges = new ArrayList<>(specs.length);
+        for (String raw : specs) {
+            String spec = raw.trim();
+            int dash = spec.indexOf('-');
+            if (dash < 0) return null;
+            long first = parseNumber(spec.substring(0, dash));
+            long last = parseNumber(spec.substring(dash + 1));
+
+            if (dash == 0) { // sufixo: últimos N bytes
+                if (last < 0) return null;
+                if (last > 0 && size > 0) ranges.add(new ByteRange(Math.max(0, size - last), size - 1));
+                continue;
+            }
+            if (first < 0 || (dash + 1 < spec.length() && (last < 0 || last < first))) return null;
+            if (first >= size) continue; // não satisfatório
+            long end = dash + 1 == spec.length() ? size - 1 : Math.min(last, size - 1);
+            ranges.add(new ByteRange(first, end));
+        }
+        return coalesce(ranges);
+    }
+
+    // ======================== internals ========================
+
+    /** Número decimal não negativo; -1 se vazio ou inválido. */
+    private static long parseNumber(String s) {
+        if (s.isEmpty() || s.length() > 18) return -1;
+        long n = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            n = n * 10 + (c - '0');
+        }
+        return n;
+    }
+
+    private static List<ByteRange> coalesce(List<ByteRange> ranges) {
+        if (ranges.size() < 2) return ranges;
+        ranges.sort(Comparator.comparingLong(ByteRange::start));
+        List<ByteRange> merged = new ArrayList<>(ranges.size());
+        ByteRange current = ranges.get(0);
+        for (int i = 1; i < ranges.size(); i++) {
+            ByteRange next = ranges.get(i);
+            if (next.start <= current.end + 1) {
+                current = new ByteRange(current.start, Math.max(current.end, next.end));
+            } else {
+                merged.add(current);
+                current = next;
+            }
+        }
+        merged.add(current);
+        return merged;
+    }
+}
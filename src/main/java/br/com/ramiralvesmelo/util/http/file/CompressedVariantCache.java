@@ -0,0 +1,108 @@
+package br.com.ramiralvesmelo.util.http.file;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache LRU, limitado em bytes, das variantes gzip de payloads em memória servidos com frequência.
+ *
+ * A chave é o hash do conteúdo ({@link ETags#fromContent(byte[])}): o mesmo payload, ainda que em
+ * outro array, reaproveita a variante já comprimida — o hash custa bem menos que o gzip.
+ *
+ * <pre>
+ * CompressedVariantCache cache = new CompressedVariantCache(64L * 1024 * 1024);
+ * DownloadOptions opts = DownloadOptions.builder().compress(true).compressionCache(cache).build();
+ * </pre>
+ *
+ * Thread-safe; uma instância pode ser compartilhada entre threads (ex.: bean singleton).
+ */
+public final class CompressedVariantCache {
+
+    public static final long DEFAULT_MAX_BYTES = 32L * 1024 * 1024;
+
+    private final long maxBytes;
+    private final Map<String, byte[]> variants = new LinkedHashMap<>(16, 0.75f, true);
+    private long residentBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public CompressedVariantCache() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    public CompressedVariantCache(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes deve ser > 0");
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    /** Variante gzip de {@code data}, comprimida e guardada na primeira consulta (compartilhada: não modificar). */
+    public byte[] gzip(byte[] data) {
+        Objects.requireNonNull(data, "data");
+        String key = ETags.fromContent(data);
+        synchronized (variants) {
+            byte[] cached = variants.get(key);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+        }
+        misses.increment();
+        byte[] compressed = Compression.gzip(data); // compressão fora do lock
+        if (compressed.length > maxBytes) return compressed;
+        synchronized (variants) {
+            byte[] previous = variants.put(key, compressed);
+            residentBytes += compressed.length - (previous != null ? previous.length : 0);
+            Iterator<byte[]> eldest = variants.values().iterator();
+            while (residentBytes > maxBytes && eldest.hasNext()) {
+                residentBytes -= eldest.next().length;
+                eldest.remove();
+            }
+        }
+        return compressed;
+    }
+
+    public void invalidateAll() {
+        synchronized (variants) {
+            variants.clear();
+            residentBytes = 0;
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /** Proporção de acertos (0 quando ainda não houve consultas). */
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0d : (double) h / total;
+    }
+
+    public int size() {
+        synchronized (variants) {
+            return variants.size();
+        }
+    }
+
+    /** Bytes comprimidos atualmente em cache. */
+    public long getResidentBytes() {
+        synchronized (variants) {
+            return residentBytes;
+        }
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+}
@@ -0,0 +1,86 @@
+package br.com.ramiralvesmelo.util.http.file;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Negociação de {@code Accept-Encoding} e regras de compressão (gzip) para downloads.
+ *
+ * Apenas tipos textuais são comprimidos (text/*, JSON, XML, JavaScript, CSV...): formatos já
+ * comprimidos (imagens, vídeo, PDF, ZIP) ficam de fora automaticamente.
+ */
+public final class Compression {
+
+    /** Abaixo disso o cabeçalho gzip e o custo de CPU não compensam. */
+    public static final int MIN_SIZE = 1024;
+
+    private Compression() {}
+
+    /**
+     * true se o cliente aceita gzip: {@code gzip}/{@code x-gzip} com q &gt; 0, ou {@code *} com
+     * q &gt; 0 sem recusa explícita de gzip.
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        Boolean gzip = null;
+        boolean wildcard = false;
+        for (String part : acceptEncoding.split(",")) {
+            int semi = part.indexOf(';');
+            String coding = (semi < 0 ? part : part.substring(0, semi)).trim().toLowerCase(Locale.ROOT);
+            boolean accepted = semi < 0 || quality(part.substring(semi + 1)) > 0;
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = accepted;
+            } else if (coding.equals("*")) {
+                wildcard = accepted;
+            }
+        }
+        return gzip != null ? gzip : wildcard;
+    }
+
+    /** true para tipos textuais que valem a pena comprimir (null → false). */
+    public static boolean isCompressible(String contentType) {
+        if (contentType == null) return false;
+        int semi = contentType.indexOf(';');
+        String type = (semi < 0 ? contentType : contentType.substring(0, semi)).trim().toLowerCase(Locale.ROOT);
+        return type.startsWith("text/")
+                || type.endsWith("+json")
+                || type.endsWith("+xml")
+                || switch (type) {
+                    case "application/json", "application/x-ndjson", "application/xml",
+                         "application/javascript", "application/x-javascript", "application/ecmascript",
+                         "application/csv", "application/x-yaml", "application/yaml" -> true;
+                    default -> false;
+                };
+    }
+
+    /** Conteúdo comprimido em gzip (em memória: use apenas para payloads já em memória). */
+    public static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (GZIPOutputStream gz = new GZIPOutputStream(bos, FileResponseWriter.BUFFER_SIZE)) {
+            gz.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // ByteArrayOutputStream não lança IOException
+        }
+        return bos.toByteArray();
+    }
+
+    // ======================== internals ========================
+
+    /** Valor de {@code q=} nos parâmetros (1 se ausente, 0 se inválido). */
+    private static double quality(String params) {
+        for (String param : params.split(";")) {
+            String p = param.trim();
+            if (p.length() > 2 && (p.charAt(0) == 'q' || p.charAt(0) == 'Q') && p.charAt(1) == '=') {
+                try {
+                    return Double.parseDouble(p.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,348 @@
+package br.com.ramiralvesmelo.util.http.file;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+import br.com.ramiralvesmelo.util.commons.dto.DocumentDto;
+import br.com.ramiralvesmelo.util.core.exception.IntegrationException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Cache LRU, limitado em bytes, do conteúdo de documentos ({@link DocumentDto}) baixados com
+ * frequência. A chave é o {@code id} do documento (ou a {@code url}, se não houver id).
+ *
+ * - arquivos locais ficam mapeados em memória ({@link FileChannel#map}) e são revalidados por
+ *   tamanho + data de modificação (apenas metadados, sem ler o conteúdo);
+ * - conteúdo do storage ({@link Loader}) é copiado do stream, em blocos, para um buffer direto
+ *   (fora do heap) que cresce conforme os dados chegam, e revalidado por
+ *   {@code sizeBytes}/{@code updatedAt} do DTO; sem nenhum dos dois não há como revalidar e o
+ *   documento não é guardado.
+ *
+ * Acertos são escritos direto do buffer na resposta, com ETag, 304 e Range
+ * ({@link FileResponseWriter}) — e gzip negociado como para arquivos quando
+ * {@link DownloadOptions#isCompress()}; conteúdo maior que o limite do cache é enviado em streaming,
+ * sem ser guardado nem carregado inteiro em memória (com os mesmos validadores e limite de banda).
+ *
+ * <pre>
+ * DocumentContentCache cache = new DocumentContentCache(512L * 1024 * 1024);
+ * cache.writeToResponse(request, response, doc, storage.pathOf(doc), DownloadOptions.DEFAULT);
+ * </pre>
+ *
+ * Buffers mapeados e diretos são liberados pelo GC depois de removidos do cache; os bytes
+ * residentes contam apenas o que o cache referencia. Thread-safe (ex.: bean singleton).
+ */
+public final class DocumentContentCache {
+
+    public static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
+    /** Tamanho inicial do buffer quando o storage não informa {@code sizeBytes}. */
+    static final int INITIAL_BUFFER = 64 * 1024;
+    private static final long MAX_BUFFER = Integer.MAX_VALUE - 8;
+
+    /** Abre o conteúdo de um documento no storage. */
+    @FunctionalInterface
+    public interface Loader {
+        InputStream open(DocumentDto doc) throws IOException;
+    }
+
+    private record Version(long size, long lastModified) {}
+
+    private static final class Entry {
+        final ByteBuffer content; // somente leitura, posição 0
+        final Version version;
+        final long lastModified;
+        volatile String contentEtag; // calculada na primeira requisição com CONTENT_HASH
+
+        Entry(ByteBuffer content, Version version, long lastModified) {
+            this.content = content;
+            this.version = version;
+            this.lastModified = lastModified;
+        }
+    }
+
+    private final long maxBytes;
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long residentBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public DocumentContentCache() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    public DocumentContentCache(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes deve ser > 0");
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Envia o documento a partir do arquivo local, mapeando-o na primeira vez. Nome e tipo
+     * padrão vêm do DTO ({@code filename}/{@code contentType}); 404 se o arquivo não existir.
+     */
+    public void writeToResponse(HttpServletRequest request,
+                                HttpServletResponse response,
+                                DocumentDto doc,
+                                Path file,
+                                DownloadOptions options) {
+        Objects.requireNonNull(file, "Arquivo não pode ser null");
+        DownloadOptions opts = resolve(doc, options, file.getFileName() != null ? file.getFileName().toString() : null);
+        Entry entry;
+        try {
+            entry = mapped(keyOf(doc), file);
+        } catch (NoSuchFileException e) {
+            entry = null; // o FileResponseWriter responde 404
+        } catch (IOException e) {
+            throw new IntegrationException("Falha ao ler o documento: " + file);
+        }
+        if (entry == null) {
+            FileResponseWriter.writeFileToResponse(request, response, file, opts);
+            return;
+        }
+        send(request, response, entry, opts);
+    }
+
+    /**
+     * Envia o documento a partir do storage, lido pelo {@code loader} apenas quando não estiver em
+     * cache. Com {@code sizeBytes} acima do limite (ou conteúdo que o ultrapasse durante a leitura),
+     * o stream é repassado à resposta sem ser guardado.
+     */
+    public void writeToResponse(HttpServletRequest request,
+                                HttpServletResponse response,
+                                DocumentDto doc,
+                                Loader loader,
+                                DownloadOptions options) {
+        Objects.requireNonNull(loader, "Loader não pode ser null");
+        DownloadOptions opts = resolve(doc, options, null);
+        String key = keyOf(doc);
+        long updatedAt = toMillis(doc.getUpdatedAt());
+        long declared = doc.getSizeBytes() != null ? doc.getSizeBytes() : -1;
+        Version version = new Version(declared, updatedAt);
+        boolean cacheable = declared >= 0 || updatedAt >= 0;
+
+        Entry entry = cacheable ? lookup(key, version) : null;
+        if (entry == null) {
+            if (!cacheable) misses.increment();
+            try (InputStream in = loader.open(doc)) {
+                if (declared > cacheLimit()) {
+                    stream(request, response, Channels.newChannel(in), declared, updatedAt, opts);
+                    return;
+                }
+                Read read = readCapped(Channels.newChannel(in), declared);
+                ByteBuffer content = read.content();
+                if (read.overflow() != null) { // passou do limite: o que já foi lido + o restante
+                    InputStream rest = new SequenceInputStream(Collections.enumeration(List.of(
+                            Channels.newInputStream(new ByteBufferChannel(content)),
+                            Channels.newInputStream(new ByteBufferChannel(read.overflow())),
+                            in)));
+                    stream(request, response, Channels.newChannel(rest), -1, updatedAt, opts);
+                    return;
+                }
+                long lastModified = updatedAt >= 0 ? updatedAt : System.currentTimeMillis();
+                entry = new Entry(content.asReadOnlyBuffer(), version, lastModified);
+                if (cacheable && content.limit() > 0) store(key, entry);
+            } catch (IOException e) {
+                throw new IntegrationException("Falha ao ler o documento: " + key);
+            }
+        }
+        send(request, response, entry, opts);
+    }
+
+    /** Remove o documento do cache (ex.: após atualização no storage sem mudança de {@code updatedAt}). */
+    public void invalidate(DocumentDto doc) {
+        String key = keyOf(doc);
+        synchronized (entries) {
+            Entry removed = entries.remove(key);
+            if (removed != null) residentBytes -= removed.content.capacity();
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+            residentBytes = 0;
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /** Proporção de acertos (0 quando ainda não houve consultas). */
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0d : (double) h / total;
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /** Bytes de conteúdo atualmente referenciados pelo cache. */
+    public long getResidentBytes() {
+        synchronized (entries) {
+            return residentBytes;
+        }
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    // ======================== internals ========================
+
+    /** Chave do documento: {@code id:<id>} ou {@code url:<url>}. */
+    static String keyOf(DocumentDto doc) {
+        Objects.requireNonNull(doc, "Documento não pode ser null");
+        if (doc.getId() != null) return "id:" + doc.getId();
+        if (doc.getUrl() != null && !doc.getUrl().isBlank()) return "url:" + doc.getUrl();
+        throw new IllegalArgumentException("Documento sem id nem url");
+    }
+
+    private static DownloadOptions resolve(DocumentDto doc, DownloadOptions options, String fallbackName) {
+        DownloadOptions opts = options != null ? options : DownloadOptions.DEFAULT;
+        String name = opts.getDownloadName() != null ? opts.getDownloadName()
+                : doc != null && doc.getFilename() != null ? doc.getFilename() : fallbackName;
+        String type = opts.getContentType() != null ? opts.getContentType()
+                : doc != null ? doc.getContentType() : null;
+        return opts.toBuilder().downloadName(name).contentType(type).build();
+    }
+
+    private static void send(HttpServletRequest request, HttpServletResponse response, Entry entry,
+                             DownloadOptions opts) {
+        String etag = switch (opts.getEtag()) {
+            case NONE -> null;
+            case ATTRIBUTES -> ETags.fromAttributes(entry.content.remaining(), entry.lastModified);
+            case CONTENT_HASH -> {
+                String cached = entry.contentEtag;
+                if (cached == null) entry.contentEtag = cached = ETags.fromContent(entry.content);
+                yield cached;
+            }
+        };
+        FileResponseWriter.writeBufferToResponse(request, response, entry.content, entry.lastModified, etag, opts);
+    }
+
+    /** Entrada mapeada do arquivo; null se não couber no cache (vazio ou grande demais). */
+    private Entry mapped(String key, Path file) throws IOException {
+        BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+        Version version = new Version(attrs.size(), attrs.lastModifiedTime().toMillis());
+        Entry cached = lookup(key, version);
+        if (cached != null) return cached;
+
+        if (version.size == 0 || version.size > cacheLimit()) return null;
+        ByteBuffer content;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            content = ch.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(version.size, ch.size()));
+        }
+        return store(key, new Entry(content.asReadOnlyBuffer(), version, version.lastModified));
+    }
+
+    /** Maior conteúdo que cabe no cache (e em um único ByteBuffer). */
+    private long cacheLimit() {
+        return Math.min(maxBytes, MAX_BUFFER);
+    }
+
+    /** Conteúdo lido do storage; {@code overflow} != null quando passou do limite do cache. */
+    private record Read(ByteBuffer content, ByteBuffer overflow) {}
+
+    /**
+     * Copia o canal, em blocos, para um buffer direto de até {@value #INITIAL_BUFFER} bytes que
+     * dobra conforme os dados chegam (parando em {@code declared}, se informado), até
+     * {@link #cacheLimit()}: um {@code sizeBytes} errado ou várias leituras simultâneas não
+     * reservam memória que o conteúdo não ocupa. Se houver mais conteúdo, o primeiro byte
+     * excedente vem em {@code overflow} e o restante continua no canal.
+     */
+    private Read readCapped(ReadableByteChannel source, long declared) throws IOException {
+        long limit = cacheLimit();
+        ByteBuffer buf = ByteBuffer.allocateDirect((int) Math.min(declared >= 0 ? declared : INITIAL_BUFFER,
+                Math.min(INITIAL_BUFFER, limit)));
+        ByteBuffer probe = ByteBuffer.allocate(1);
+        while (true) {
+            if (buf.hasRemaining()) {
+                if (source.read(buf) < 0) break;
+                continue;
+            }
+            probe.clear(); // buffer cheio: terminou ou é preciso crescer?
+            if (source.read(probe) < 0) break;
+            if (buf.capacity() >= limit) return new Read(buf.flip(), probe.flip());
+            long target = Math.max(2L * buf.capacity(), INITIAL_BUFFER);
+            if (declared > buf.capacity()) target = Math.min(target, declared);
+            ByteBuffer grown = ByteBuffer.allocateDirect((int) Math.min(limit, target));
+            buf = grown.put(buf.flip()).put(probe.flip());
+        }
+        buf.flip();
+        if (buf.capacity() - buf.limit() > buf.limit() >>> 3) { // sobra do crescimento: ajusta ao conteúdo
+            buf = ByteBuffer.allocateDirect(buf.limit()).put(buf).flip();
+        }
+        return new Read(buf, null);
+    }
+
+    /**
+     * Envia sem guardar: {@code size}/{@code lastModified} -1 quando desconhecidos. A ETag por
+     * atributos só existe com ambos; a por conteúdo exigiria ler tudo antes de enviar.
+     */
+    private static void stream(HttpServletRequest request, HttpServletResponse response, ReadableByteChannel source,
+                               long size, long lastModified, DownloadOptions opts) {
+        String etag = opts.getEtag() == DownloadOptions.ETagStrategy.ATTRIBUTES && size >= 0 && lastModified >= 0
+                ? ETags.fromAttributes(size, lastModified)
+                : null;
+        FileResponseWriter.writeChannelToResponse(request, response, source, size, lastModified, etag, opts);
+    }
+
+    private Entry lookup(String key, Version version) {
+        synchronized (entries) {
+            Entry cached = entries.get(key);
+            if (cached != null && cached.version.equals(version)) {
+                hits.increment();
+                return cached;
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    private Entry store(String key, Entry entry) {
+        synchronized (entries) {
+            Entry previous = entries.put(key, entry);
+            residentBytes += entry.content.capacity() - (previous != null ? previous.content.capacity() : 0);
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (residentBytes > maxBytes && eldest.hasNext()) {
+                residentBytes -= eldest.next().content.capacity();
+                eldest.remove();
+            }
+        }
+        return entry;
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime == null ? -1 : dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,156 @@
+package br.com.ramiralvesmelo.util.http.file;
+
+/**
+ * Opções de envio de arquivos do {@link FileResponseWriter} (imutável).
+ *
+ * <pre>
+ * DownloadOptions opts = DownloadOptions.builder()
+ *         .contentType("application/pdf")
+ *         .etag(DownloadOptions.ETagStrategy.CONTENT_HASH)
+ *         .build();
+ * </pre>
+ */
+public final class DownloadOptions {
+
+    /** Como a ETag do arquivo é obtida. */
+    public enum ETagStrategy {
+        /** Sem ETag (apenas Last-Modified). */
+        NONE,
+        /** Tamanho + data de modificação: custo zero, sem ler o arquivo. */
+        ATTRIBUTES,
+        /** Hash do conteúdo, em cache por arquivo ({@link ETags#fromContent(java.nio.file.Path)}). */
+        CONTENT_HASH
+    }
+
+    /** Armazenável, mas sempre revalidado: visualizações repetidas viram 304. */
+    public static final String DEFAULT_CACHE_CONTROL = "private, no-cache";
+
+    /** Bytes iniciais de cada resposta que nunca esperam pelo limite de banda. */
+    public static final long DEFAULT_UNTHROTTLED_BYTES = 256 * 1024;
+
+    public static final DownloadOptions DEFAULT = builder().build();
+
+    private final String downloadName;
+    private final String contentType;
+    private final String cacheControl;
+    private final ETagStrategy etag;
+    private final boolean compress;
+    private final CompressedVariantCache compressionCache;
+    private final long maxBytesPerSecond;
+    private final BandwidthLimiter egressLimiter;
+    private final long unthrottledBytes;
+
+    private DownloadOptions(Builder b) {
+        this.downloadName = b.downloadName;
+        this.contentType = b.contentType;
+        this.cacheControl = b.cacheControl;
+        this.etag = b.etag;
+        this.compress = b.compress;
+        this.compressionCache = b.compressionCache;
+        this.maxBytesPerSecond = b.maxBytesPerSecond;
+        this.egressLimiter = b.egressLimiter;
+        this.unthrottledBytes = b.unthrottledBytes;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /** Builder pré-preenchido com estas opções. */
+    public Builder toBuilder() {
+        return new Builder()
+                .downloadName(downloadName)
+                .contentType(contentType)
+                .cacheControl(cacheControl)
+                .etag(etag)
+                .compress(compress)
+                .compressionCache(compressionCache)
+                .maxBytesPerSecond(maxBytesPerSecond)
+                .egressLimiter(egressLimiter)
+                .unthrottledBytes(unthrottledBytes);
+    }
+
+    public String getDownloadName() {
+        return downloadName;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getCacheControl() {
+        return cacheControl;
+    }
+
+    public ETagStrategy getEtag() {
+        return etag;
+    }
+
+    public boolean isCompress() {
+        return compress;
+    }
+
+    public CompressedVariantCache getCompressionCache() {
+        return compressionCache;
+    }
+
+    public long getMaxBytesPerSecond() {
+        return maxBytesPerSecond;
+    }
+
+    public BandwidthLimiter getEgressLimiter() {
+        return egressLimiter;
+    }
+
+    public long getUnthrottledBytes() {
+        return unthrottledBytes;
+    }
+
+    /** Há limite de banda por resposta ou global. */
+    public boolean isThrottled() {
+        return maxBytesPerSecond > 0 || egressLimiter != null;
+    }
+
+    public static final class Builder {
+        private String downloadName;
+        private String contentType;
+        private String cacheControl = DEFAULT_CACHE_CONTROL;
+        private ETagStrategy etag = ETagStrategy.ATTRIBUTES;
+        private boolean compress;
+        private CompressedVariantCache compressionCache;
+        private long maxBytesPerSecond;
+        private BandwidthLimiter egressLimiter;
+        private long unthrottledBytes = DEFAULT_UNTHROTTLED_BYTES;
+
+        private Builder() {}
+
+        /** Nome sugerido (padrão: nome do arquivo). */
+        public Builder downloadName(String v) { this.downloadName = v; return this; }
+        /** MIME type (padrão: "application/octet-stream"). */
+        public Builder contentType(String v) { this.contentType = v; return this; }
+        /** Valor de Cache-Control (null = não envia; padrão: {@value DownloadOptions#DEFAULT_CACHE_CONTROL}). */
+        public Builder cacheControl(String v) { this.cacheControl = v; return this; }
+        public Builder etag(ETagStrategy v) { this.etag = v != null ? v : ETagStrategy.NONE; return this; }
+        /**
+         * Negocia gzip com o cliente para tipos textuais ({@link Compression#isCompressible}):
+         * usa o arquivo "{nome}.gz" quando existir e estiver atualizado, senão comprime em streaming
+         * (padrão: false).
+         */
+        public Builder compress(boolean v) { this.compress = v; return this; }
+        /** Cache opcional das variantes gzip de payloads em memória ({@code writeBytesToResponse}). */
+        public Builder compressionCache(CompressedVariantCache v) { this.compressionCache = v; return this; }
+        /** Limite de banda desta resposta em bytes/s (0 = sem limite; padrão). */
+        public Builder maxBytesPerSecond(long v) { this.maxBytesPerSecond = Math.max(0, v); return this; }
+        /** Limitador compartilhado pela saída total de downloads (null = sem limite; padrão). */
+        public Builder egressLimiter(BandwidthLimiter v) { this.egressLimiter = v; return this; }
+        /**
+         * Bytes iniciais enviados sem espera, para respostas pequenas manterem a latência
+         * (padrão: {@value DownloadOptions#DEFAULT_UNTHROTTLED_BYTES}).
+         */
+        public Builder unthrottledBytes(long v) { this.unthrottledBytes = Math.max(0, v); return this; }
+
+        public DownloadOptions build() {
+            return new DownloadOptions(this);
+        }
+    }
+}
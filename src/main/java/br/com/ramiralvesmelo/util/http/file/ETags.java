@@ -0,0 +1,138 @@
+package br.com.ramiralvesmelo.util.http.file;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Geração e comparação de ETags fortes (RFC 9110 §8.8.3).
+ *
+ * - {@link #fromAttributes}: derivada de tamanho + data de modificação (sem ler o arquivo);
+ * - {@link #fromContent(Path)}: hash SHA-256 do conteúdo, em cache por arquivo e recalculada
+ *   apenas quando tamanho ou data de modificação mudam.
+ */
+public final class ETags {
+
+    static final int MAX_CACHED_FILES = 1024;
+    /** Bytes do SHA-256 usados na ETag (128 bits, 22 caracteres em Base64 URL). */
+    private static final int HASH_BYTES = 16;
+    /** Trecho mapeado por vez ao calcular o hash de arquivos grandes. */
+    private static final long MAP_CHUNK = 1L << 30;
+
+    private static final Map<Path, CachedHash> CONTENT_CACHE =
+            new LinkedHashMap<>(64, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Path, CachedHash> eldest) {
+                    return size() > MAX_CACHED_FILES;
+                }
+            };
+
+    private record CachedHash(long size, long lastModified, String etag) {}
+
+    private ETags() {}
+
+    /** ETag a partir de tamanho e data de modificação (ms), ex.: {@code "1f4-18f2c1a3b80"}. */
+    public static String fromAttributes(long size, long lastModified) {
+        return "\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModified) + "\"";
+    }
+
+    /** ETag a partir do hash do conteúdo. */
+    public static String fromContent(byte[] data) {
+        MessageDigest md = sha256();
+        md.update(data);
+        return quote(md.digest());
+    }
+
+    /** ETag a partir do hash dos bytes restantes do buffer (posição e limite não são alterados). */
+    public static String fromContent(ByteBuffer content) {
+        MessageDigest md = sha256();
+        md.update(content.duplicate());
+        return quote(md.digest());
+    }
+
+    /** ETag a partir do hash do conteúdo do arquivo (em cache enquanto tamanho e data não mudarem). */
+    public static String fromContent(Path file) throws IOException {
+        Path key = file.toAbsolutePath().normalize();
+        long size = Files.size(key);
+        long lastModified = Files.getLastModifiedTime(key).toMillis();
+        synchronized (CONTENT_CACHE) {
+            CachedHash cached = CONTENT_CACHE.get(key);
+            if (cached != null && cached.size == size && cached.lastModified == lastModified) {
+                return cached.etag;
+            }
+        }
+        String etag = hash(key);
+        synchronized (CONTENT_CACHE) {
+            CONTENT_CACHE.put(key, new CachedHash(size, lastModified, etag));
+        }
+        return etag;
+    }
+
+    /**
+     * Comparação fraca para {@code If-None-Match}: {@code *} ou alguma ETag da lista igual a
+     * {@code etag}, ignorando o prefixo {@code W/}.
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        if (ifNoneMatch.trim().equals("*")) return true;
+        if (etag == null) return false;
+        String opaque = opaque(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            if (opaque(candidate.trim()).equals(opaque)) return true;
+        }
+        return false;
+    }
+
+    /** Comparação forte (para {@code If-Range}): ETags fracas nunca casam. */
+    public static boolean strongMatches(String value, String etag) {
+        return etag != null && !value.startsWith("W/") && !etag.startsWith("W/") && value.equals(etag);
+    }
+
+    /** Limpa o cache de hashes de conteúdo. */
+    public static void invalidateAll() {
+        synchronized (CONTENT_CACHE) {
+            CONTENT_CACHE.clear();
+        }
+    }
+
+    // ======================== internals ========================
+
+    private static String opaque(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private static String hash(Path file) throws IOException {
+        MessageDigest md = sha256();
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            for (long pos = 0; pos < size; pos += MAP_CHUNK) {
+                md.update(ch.map(FileChannel.MapMode.READ_ONLY, pos, Math.min(MAP_CHUNK, size - pos)));
+            }
+        }
+        return quote(md.digest());
+    }
+
+    private static String quote(byte[] digest) {
+        byte[] head = Arrays.copyOf(digest, HASH_BYTES);
+        return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(head) + "\"";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e); // obrigatório em toda JVM
+        }
+    }
+}
@@ -3,16 +3,66 @@ package br.com.ramiralvesmelo.util.http.file;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.GZIPOutputStream;
 
 import br.com.ramiralvesmelo.util.core.exception.IntegrationException;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Escrita de arquivos para download no HttpServletResponse.
+ *
+ * As variantes com {@link Path} e canal fazem streaming: arquivos via
+ * {@link FileChannel#transferTo}, demais canais por buffers de {@value #BUFFER_SIZE} bytes
+ * reaproveitados de um pool — o arquivo nunca é carregado inteiro no heap.
+ *
+ * Quando recebem o HttpServletRequest, as variantes com fonte posicionável ({@link Path},
+ * {@link SeekableByteChannel}) atendem {@code Range} (206, {@code multipart/byteranges} para
+ * vários intervalos, 416 se nenhum for satisfatório) e {@code If-Range}; os bytes fora dos
+ * intervalos não são lidos.
+ *
+ * Para {@link Path}, a resposta leva ETag, Last-Modified e Cache-Control ({@link DownloadOptions})
+ * e {@code If-None-Match}/{@code If-Modified-Since} são respondidos com 304, sem tocar no corpo.
+ *
+ * Com {@link DownloadOptions.Builder#compress(boolean)}, tipos textuais são enviados em gzip quando
+ * o cliente aceita: do arquivo "{nome}.gz" ao lado do original, se existir e estiver atualizado,
+ * ou comprimidos em streaming.
+ *
+ * {@link #writeFileToResponseAsync} envia o corpo em modo assíncrono (AsyncContext + WriteListener):
+ * o thread do servlet é liberado e os dados só são lidos quando o socket aceita escrita.
+ *
+ * Com {@link DownloadOptions.Builder#maxBytesPerSecond(long)} e/ou
+ * {@link DownloadOptions.Builder#egressLimiter(BandwidthLimiter)}, a escrita do corpo respeita o
+ * limite de banda (por resposta e/ou global); sem limite configurado, o stream não é envolvido.
+ */
 @Slf4j
 public final class FileResponseWriter {
 
+    static final int BUFFER_SIZE = 64 * 1024;
+    private static final int POOL_SIZE = 32;
+    private static final BlockingQueue<ByteBuffer> BUFFER_POOL = new ArrayBlockingQueue<>(POOL_SIZE);
+
     private FileResponseWriter() {
         // utilitário -> não deve ser instanciado
     }
@@ -29,6 +79,22 @@ public final class FileResponseWriter {
                                             byte[] data,
                                             String downloadName,
                                             String contentType) {
+        writeBytesToResponse(null, response, data,
+                DownloadOptions.builder().downloadName(downloadName).contentType(contentType).build());
+    }
+
+    /**
+     * Como {@link #writeBytesToResponse(HttpServletResponse, byte[], String, String)}, negociando
+     * gzip com o request quando {@code options.isCompress()} (variantes comprimidas reaproveitadas
+     * do {@link CompressedVariantCache}, se informado). ETag e Cache-Control não se aplicam aqui.
+     */
+    public static void writeBytesToResponse(HttpServletRequest request,
+                                            HttpServletResponse response,
+                                            byte[] data,
+                                            DownloadOptions options) {
+        DownloadOptions opts = options != null ? options : DownloadOptions.DEFAULT;
+        String downloadName = opts.getDownloadName();
+        String contentType = opts.getContentType();
         try {
             // ===== Validações =====
             Objects.requireNonNull(response, "HttpServletResponse não pode ser null");
@@ -45,29 +111,27 @@ public final class FileResponseWriter {
                 return;
             }
 
-            // Sanitiza nome para evitar CRLF injection (colapsa múltiplos CR/LF em um espaço)
-            String safeName = downloadName.replaceAll("[\\r\\n]+", " ").replace("\"", "'");
-            String encodedName = URLEncoder.encode(safeName, StandardCharsets.UTF_8);
-
             // ===== Configuração da resposta =====
-            response.setContentType(contentType != null ? contentType : "application/octet-stream");
+            String safeName = applyDownloadHeaders(response, downloadName, contentType);
 
-            // Compatibilidade: filename simples + filename* (UTF-8)
-            String cdHeader = String.format("attachment; filename=\"%s\"; filename*=UTF-8''%s",
-                                            safeName, encodedName);
-            response.setHeader("Content-Disposition", cdHeader);
+            byte[] body = data;
+            if (negotiateGzip(request, response, opts, data.length)) {
+                CompressedVariantCache cache = opts.getCompressionCache();
+                body = cache != null ? cache.gzip(data) : Compression.gzip(data);
+                response.setHeader("Content-Encoding", "gzip");
+            }
 
             // Sempre usa a variante "long" (cobre qualquer tamanho)
-            response.setContentLengthLong(data.length);
+            response.setContentLengthLong(body.length);
 
             // ===== Escrita =====
-            try (OutputStream out = response.getOutputStream()) {
-                out.write(data);
+            try (OutputStream out = bodyStream(response, opts)) {
+                out.write(body);
                 out.flush();
             }
 
             log.info("Arquivo '{}' enviado com sucesso ({} bytes, tipo={})",
-                    safeName, data.length, response.getContentType());
+                    safeName, body.length, response.getContentType());
 
         } catch (IOException e) {
             log.error("Erro de I/O ao escrever o arquivo '{}' na resposta HTTP", downloadName, e);
@@ -77,4 +141,593 @@ public final class FileResponseWriter {
             throw new IntegrationException("Erro inesperado ao enviar arquivo: " + downloadName);
         }
     }
+
+    /**
+     * Envia um arquivo do disco para download, em streaming ({@link FileChannel#transferTo}).
+     *
+     * @param response     HttpServletResponse onde o arquivo será escrito (não pode ser null)
+     * @param file         arquivo a enviar (404 se não existir)
+     * @param downloadName nome sugerido (se null, usa o nome do arquivo)
+     * @param contentType  MIME type (pode ser null, será "application/octet-stream" por padrão)
+     */
+    public static void writeFileToResponse(HttpServletResponse response,
+                                           Path file,
+                                           String downloadName,
+                                           String contentType) {
+        writeFileToResponse(null, response, file, downloadName, contentType);
+    }
+
+    /**
+     * Como {@link #writeFileToResponse(HttpServletResponse, Path, String, String)}, atendendo
+     * {@code Range}/{@code If-Range} e requisições condicionais do request (se null, sempre envia
+     * o arquivo inteiro).
+     */
+    public static void writeFileToResponse(HttpServletRequest request,
+                                           HttpServletResponse response,
+                                           Path file,
+                                           String downloadName,
+                                           String contentType) {
+        writeFileToResponse(request, response, file,
+                DownloadOptions.builder().downloadName(downloadName).contentType(contentType).build());
+    }
+
+    /**
+     * Envia um arquivo do disco com as opções informadas (nome, tipo, Cache-Control, ETag).
+     * Responde 304 quando {@code If-None-Match}/{@code If-Modified-Since} indicam que o cliente
+     * já tem a versão atual.
+     */
+    public static void writeFileToResponse(HttpServletRequest request,
+                                           HttpServletResponse response,
+                                           Path file,
+                                           DownloadOptions options) {
+        serveFile(request, response, file, options, false);
+    }
+
+    /**
+     * Como {@link #writeFileToResponse(HttpServletRequest, HttpServletResponse, Path, DownloadOptions)},
+     * mas o corpo (inteiro ou um único intervalo) é enviado sem bloquear o thread do servlet:
+     * o método retorna logo após iniciar o {@link jakarta.servlet.AsyncContext}, e um
+     * {@link jakarta.servlet.WriteListener} envia um bloco a cada vez que o socket aceita escrita.
+     *
+     * 304, 416, multipart/byteranges, gzip em streaming, downloads com limite de banda e
+     * containers sem suporte a async são respondidos de forma síncrona, antes do retorno.
+     *
+     * @return completado quando a resposta termina (com exceção se o envio falhar no meio)
+     */
+    public static CompletableFuture<Void> writeFileToResponseAsync(HttpServletRequest request,
+                                                                   HttpServletResponse response,
+                                                                   Path file,
+                                                                   DownloadOptions options) {
+        boolean async = request != null && request.isAsyncSupported();
+        return serveFile(request, response, file, options, async);
+    }
+
+    private static CompletableFuture<Void> serveFile(HttpServletRequest request,
+                                                     HttpServletResponse response,
+                                                     Path file,
+                                                     DownloadOptions options,
+                                                     boolean async) {
+        DownloadOptions opts = options != null ? options : DownloadOptions.DEFAULT;
+        async &= !opts.isThrottled(); // a espera por banda bloqueia o thread
+        String name = opts.getDownloadName() != null ? opts.getDownloadName()
+                : file != null && file.getFileName() != null ? file.getFileName().toString() : null;
+        try {
+            Objects.requireNonNull(response, "HttpServletResponse não pode ser null");
+            Objects.requireNonNull(file, "Arquivo não pode ser null");
+
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (!checkDownload(response, size, name)) return done();
+
+                long lastModified = Files.getLastModifiedTime(file).toMillis();
+                String etag = switch (opts.getEtag()) {
+                    case NONE -> null;
+                    case ATTRIBUTES -> ETags.fromAttributes(size, lastModified);
+                    case CONTENT_HASH -> ETags.fromContent(file);
+                };
+                if (negotiateGzip(request, response, opts, size)) {
+                    return sendGzip(request, response, file, channel, size, lastModified, etag, name, opts, async);
+                }
+                if (notModified(request, response, etag, lastModified, opts, name)) return done();
+                return sendSeekable(request, response, channel, async ? file : null,
+                        size, lastModified, etag, name, opts.getContentType(), opts);
+            }
+        } catch (NoSuchFileException e) {
+            log.warn("Arquivo não encontrado: '{}'", file);
+            sendErrorQuietly(response, HttpServletResponse.SC_NOT_FOUND, "Arquivo não encontrado");
+            return done();
+        } catch (IOException e) {
+            log.error("Erro de I/O ao escrever o arquivo '{}' na resposta HTTP", name, e);
+            throw new IntegrationException("Falha ao enviar arquivo: " + name);
+        } catch (Exception e) {
+            log.error("Erro inesperado ao preparar a resposta para '{}'", name, e);
+            throw new IntegrationException("Erro inesperado ao enviar arquivo: " + name);
+        }
+    }
+
+    /** Como {@link #writeFileToResponse(HttpServletResponse, Path, String, String)}, com nome e tipo padrão. */
+    public static void writeFileToResponse(HttpServletResponse response, Path file) {
+        writeFileToResponse(response, file, null, null);
+    }
+
+    /**
+     * Envia o conteúdo de um canal para download, em streaming. O canal não é fechado.
+     * Se for um {@link FileChannel}, usa {@link FileChannel#transferTo} a partir da posição atual.
+     *
+     * @param size tamanho em bytes, ou -1 se desconhecido (sem Content-Length; lê até o fim)
+     */
+    public static void writeChannelToResponse(HttpServletResponse response,
+                                              ReadableByteChannel channel,
+                                              long size,
+                                              String downloadName,
+                                              String contentType) {
+        try {
+            Objects.requireNonNull(response, "HttpServletResponse não pode ser null");
+            Objects.requireNonNull(channel, "Canal não pode ser null");
+            if (!checkDownload(response, size, downloadName)) return;
+
+            String safeName = applyDownloadHeaders(response, downloadName, contentType);
+            if (size >= 0) response.setContentLengthLong(size);
+
+            long sent;
+            try (OutputStream out = response.getOutputStream()) {
+                sent = channel instanceof FileChannel fc && size >= 0
+                        ? transfer(fc, fc.position(), size, out)
+                        : copy(channel, size, out);
+                out.flush();
+            }
+            log.info("Arquivo '{}' enviado com sucesso ({} bytes, tipo={})",
+                    safeName, sent, response.getContentType());
+
+        } catch (IOException e) {
+            log.error("Erro de I/O ao escrever o arquivo '{}' na resposta HTTP", downloadName, e);
+            throw new IntegrationException("Falha ao enviar arquivo: " + downloadName);
+        } catch (Exception e) {
+            log.error("Erro inesperado ao preparar a resposta para '{}'", downloadName, e);
+            throw new IntegrationException("Erro inesperado ao enviar arquivo: " + downloadName);
+        }
+    }
+
+    /**
+     * Envia um canal posicionável inteiro (da posição 0 até {@code size()}), atendendo
+     * {@code Range} do request. O canal não é fechado. Sem data de modificação conhecida,
+     * um {@code If-Range} presente faz o corpo inteiro ser enviado.
+     */
+    public static void writeChannelToResponse(HttpServletRequest request,
+                                              HttpServletResponse response,
+                                              SeekableByteChannel channel,
+                                              String downloadName,
+                                              String contentType) {
+        try {
+            Objects.requireNonNull(response, "HttpServletResponse não pode ser null");
+            Objects.requireNonNull(channel, "Canal não pode ser null");
+            long size = channel.size();
+            if (!checkDownload(response, size, downloadName)) return;
+            sendSeekable(request, response, channel, null, size, -1, null, downloadName, contentType, null);
+
+        } catch (IOException e) {
+            log.error("Erro de I/O ao escrever o arquivo '{}' na resposta HTTP", downloadName, e);
+            throw new IntegrationException("Falha ao enviar arquivo: " + downloadName);
+        } catch (Exception e) {
+            log.error("Erro inesperado ao preparar a resposta para '{}'", downloadName, e);
+            throw new IntegrationException("Erro inesperado ao enviar arquivo: " + downloadName);
+        }
+    }
+
+    /**
+     * Envia um canal em streaming (sem Range nem gzip), com validadores, 304, {@code Cache-Control}
+     * e limite de banda de {@code opts}; nome e tipo vêm de {@code opts}. Usado pelo
+     * {@link DocumentContentCache} para conteúdo que não cabe no cache. O canal não é fechado.
+     *
+     * @param size tamanho em bytes, ou -1 se desconhecido
+     * @param lastModified data de modificação, ou -1 se desconhecida (sem Last-Modified nem 304 por data)
+     * @param etag ETag atual, ou null
+     */
+    static void writeChannelToResponse(HttpServletRequest request,
+                                       HttpServletResponse response,
+                                       ReadableByteChannel channel,
+                                       long size,
+                                       long lastModified,
+                                       String etag,
+                                       DownloadOptions opts) {
+        String name = opts.getDownloadName();
+        try {
+            Objects.requireNonNull(response, "HttpServletResponse não pode ser null");
+            Objects.requireNonNull(channel, "Canal não pode ser null");
+            if (!checkDownload(response, size, name)) return;
+            if (lastModified >= 0) {
+                if (notModified(request, response, etag, lastModified, opts, name)) return;
+            } else if (opts.getCacheControl() != null) {
+                response.setHeader("Cache-Control", opts.getCacheControl());
+            }
+
+            String safeName = applyDownloadHeaders(response, name, opts.getContentType());
+            if (size >= 0) response.setContentLengthLong(size);
+            long sent;
+            try (OutputStream out = bodyStream(response, opts)) {
+                sent = copy(channel, size, out);
+                out.flush();
+            }
+            log.info("Arquivo '{}' enviado com sucesso ({} bytes, tipo={})",
+                    safeName, sent, response.getContentType());
+
+        } catch (IOException e) {
+            log.error("Erro de I/O ao escrever o arquivo '{}' na resposta HTTP", name, e);
+            throw new IntegrationException("Falha ao enviar arquivo: " + name);
+        } catch (Exception e) {
+            log.error("Erro inesperado ao preparar a resposta para '{}'", name, e);
+            throw new IntegrationException("Erro inesperado ao enviar arquivo: " + name);
+        }
+    }
+
+    /**
+     * Envia conteúdo já residente em memória (mapeado ou direto, ver {@link DocumentContentCache}),
+     * com validadores, 304 e Range como na variante com {@link Path}. Nome e tipo vêm de
+     * {@code opts}. Com {@code compress}, o gzip é negociado como para arquivos e, se aceito, o
+     * buffer é comprimido em streaming (ETag fraca, sem Range); o modo assíncrono não se aplica.
+     */
+    static void writeBufferToResponse(HttpServletRequest request,
+                                      HttpServletResponse response,
+                                      ByteBuffer content,
+                                      long lastModified,
+                                      String etag,
+                                      DownloadOptions opts) {
+        String name = opts.getDownloadName();
+        try {
+            Objects.requireNonNull(response, "HttpServletResponse não pode ser null");
+            long size = content.remaining();
+            if (!checkDownload(response, size, name)) return;
+            if (negotiateGzip(request, response, opts, size)) {
+                String gzipEtag = gzipEtag(etag, true);
+                if (notModified(request, response, gzipEtag, lastModified, opts, name)) return;
+                response.setHeader("Content-Encoding", "gzip");
+                streamGzip(response, new ByteBufferChannel(content), size, name, opts);
+                return;
+            }
+            if (notModified(request, response, etag, lastModified, opts, name)) return;
+            sendSeekable(request, response, new ByteBufferChannel(content), null,
+                    size, lastModified, etag, name, opts.getContentType(), opts);
+
+        } catch (IOException e) {
+            log.error("Erro de I/O ao escrever o arquivo '{}' na resposta HTTP", name, e);
+            throw new IntegrationException("Falha ao enviar arquivo: " + name);
+        } catch (Exception e) {
+            log.error("Erro inesperado ao preparar a resposta para '{}'", name, e);
+            throw new IntegrationException("Erro inesperado ao enviar arquivo: " + name);
+        }
+    }
+
+    // ======================== internals ========================
+
+    /** true se a resposta deve ir em gzip; define {@code Vary} sempre que a negociação se aplica. */
+    private static boolean negotiateGzip(HttpServletRequest request, HttpServletResponse response,
+                                         DownloadOptions opts, long size) {
+        if (!opts.isCompress() || size < Compression.MIN_SIZE || !Compression.isCompressible(opts.getContentType())) {
+            return false;
+        }
+        response.addHeader("Vary", "Accept-Encoding");
+        return request != null && Compression.acceptsGzip(request.getHeader("Accept-Encoding"));
+    }
+
+    /**
+     * Variante gzip: do arquivo "{nome}.gz" (ETag forte; Range atendido sobre os bytes comprimidos)
+     * ou comprimida em streaming (ETag fraca, sem Content-Length nem Range).
+     */
+    private static CompletableFuture<Void> sendGzip(HttpServletRequest request,
+                                                    HttpServletResponse response,
+                                                    Path file,
+                                                    FileChannel channel,
+                                                    long size,
+                                                    long lastModified,
+                                                    String etag,
+                                                    String name,
+                                                    DownloadOptions opts,
+                                                    boolean async) throws IOException {
+        Path sidecar = sidecarOf(file, lastModified);
+        String gzipEtag = gzipEtag(etag, sidecar == null);
+        if (notModified(request, response, gzipEtag, lastModified, opts, name)) return done();
+        response.setHeader("Content-Encoding", "gzip");
+
+        if (sidecar != null) {
+            try (FileChannel gz = FileChannel.open(sidecar, StandardOpenOption.READ)) {
+                return sendSeekable(request, response, gz, async ? sidecar : null,
+                        gz.size(), lastModified, gzipEtag, name, opts.getContentType(), opts);
+            }
+        }
+
+        streamGzip(response, channel, size, name, opts);
+        return done();
+    }
+
+    /** ETag da variante gzip: forte para bytes fixos (arquivo ".gz"), fraca se comprimida a cada envio. */
+    private static String gzipEtag(String etag, boolean weak) {
+        return etag == null ? null : (weak ? "W/" : "") + etag.substring(0, etag.length() - 1) + "-gzip\"";
+    }
+
+    /** Comprime {@code size} bytes do canal em streaming para a resposta (sem Content-Length). */
+    private static void streamGzip(HttpServletResponse response, SeekableByteChannel channel, long size,
+                                   String name, DownloadOptions opts) throws IOException {
+        String safeName = applyDownloadHeaders(response, name, opts.getContentType());
+        try (OutputStream out = bodyStream(response, opts)) {
+            GZIPOutputStream gz = new GZIPOutputStream(out, BUFFER_SIZE);
+            copyRange(channel, 0, size, gz);
+            gz.finish();
+            out.flush();
+        }
+        log.info("Arquivo '{}' enviado com sucesso ({} bytes antes do gzip, tipo={})",
+                safeName, size, response.getContentType());
+    }
+
+    /** "{arquivo}.gz" se existir, não estiver vazio e não for mais antigo que o original. */
+    private static Path sidecarOf(Path file, long lastModified) throws IOException {
+        Path gz = file.resolveSibling(file.getFileName() + ".gz");
+        if (!Files.isRegularFile(gz)) return null;
+        return Files.getLastModifiedTime(gz).toMillis() >= lastModified && Files.size(gz) > 0 ? gz : null;
+    }
+
+    /** Define os validadores e, se o cliente já tem a versão atual, responde 304. */
+    private static boolean notModified(HttpServletRequest request, HttpServletResponse response, String etag,
+                                       long lastModified, DownloadOptions opts, String name) {
+        applyValidators(response, etag, lastModified, opts.getCacheControl());
+        if (!isNotModified(request, etag, lastModified)) return false;
+        log.debug("Arquivo '{}' não modificado (304)", name);
+        response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        return true;
+    }
+
+    /**
+     * 200 com o corpo inteiro, 206 com um ou vários intervalos, ou 416. Com {@code asyncSource},
+     * o corpo inteiro ou um único intervalo é enviado de forma assíncrona a partir desse arquivo.
+     */
+    private static CompletableFuture<Void> sendSeekable(HttpServletRequest request,
+                                                    HttpServletResponse response,
+                                                    SeekableByteChannel channel,
+                                                    Path asyncSource,
+                                                    long size,
+                                                    long lastModified,
+                                                    String etag,
+                                                    String downloadName,
+                                                    String contentType,
+                                                    DownloadOptions opts) throws IOException {
+        String safeName = applyDownloadHeaders(response, downloadName, contentType);
+        response.setHeader("Accept-Ranges", "bytes");
+
+        List<ByteRange> ranges = requestedRanges(request, size, etag, lastModified);
+        if (ranges != null && ranges.isEmpty()) {
+            log.warn("Range não satisfatório para '{}' ({} bytes): {}", safeName, size, request.getHeader("Range"));
+            response.setHeader("Content-Range", "bytes */" + size);
+            response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE, "Intervalo não satisfatório");
+            return done();
+        }
+
+        if (asyncSource != null && (ranges == null || ranges.size() == 1)) {
+            ByteRange range = ranges == null ? null : ranges.get(0);
+            long start = range == null ? 0 : applySingleRange(response, range, size);
+            long count = range == null ? size : range.length();
+            if (range == null) response.setContentLengthLong(size);
+            return AsyncChannelWriter.start(request, response, asyncSource, start, count, safeName);
+        }
+
+        long sent;
+        try (OutputStream out = bodyStream(response, opts)) {
+            if (ranges == null) {
+                response.setContentLengthLong(size);
+                sent = copyRange(channel, 0, size, out);
+            } else if (ranges.size() == 1) {
+                ByteRange range = ranges.get(0);
+                sent = copyRange(channel, applySingleRange(response, range, size), range.length(), out);
+            } else {
+                String partType = contentType != null ? contentType : "application/octet-stream";
+                sent = writeMultipart(response, channel, size, ranges, partType, out);
+            }
+            out.flush();
+        }
+        log.info("Arquivo '{}' enviado com sucesso ({} bytes, tipo={})",
+                safeName, sent, response.getContentType());
+        return done();
+    }
+
+    /** Cabeçalhos de um 206 com intervalo único; retorna a posição inicial. */
+    private static long applySingleRange(HttpServletResponse response, ByteRange range, long size) {
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        response.setHeader("Content-Range", range.contentRange(size));
+        response.setContentLengthLong(range.length());
+        return range.start();
+    }
+
+    /** Stream do corpo, envolvido por {@link ThrottledOutputStream} quando há limite de banda. */
+    private static OutputStream bodyStream(HttpServletResponse response, DownloadOptions opts) throws IOException {
+        OutputStream out = response.getOutputStream();
+        if (opts == null || !opts.isThrottled()) return out;
+        BandwidthLimiter perResponse = opts.getMaxBytesPerSecond() > 0
+                ? new BandwidthLimiter(opts.getMaxBytesPerSecond(), ThrottledOutputStream.CHUNK)
+                : null;
+        return new ThrottledOutputStream(out, perResponse, opts.getEgressLimiter(), opts.getUnthrottledBytes());
+    }
+
+    private static CompletableFuture<Void> done() {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /** Intervalos a enviar; null = corpo inteiro (sem Range, método não GET ou If-Range divergente). */
+    private static List<ByteRange> requestedRanges(HttpServletRequest request, long size, String etag,
+                                                   long lastModified) {
+        if (request == null || !"GET".equalsIgnoreCase(request.getMethod())) return null;
+        String range = request.getHeader("Range");
+        if (range == null) return null;
+        String ifRange = request.getHeader("If-Range");
+        if (ifRange != null && !ifRangeMatches(ifRange.trim(), etag, lastModified)) return null;
+        return ByteRange.parse(range, size);
+    }
+
+    /** If-Range: ETag forte igual à atual, ou data igual à modificação do arquivo (em segundos). */
+    private static boolean ifRangeMatches(String value, String etag, long lastModified) {
+        if (value.startsWith("\"") || value.startsWith("W/")) {
+            return ETags.strongMatches(value, etag);
+        }
+        long seconds = parseHttpDate(value);
+        return seconds >= 0 && lastModified >= 0 && seconds == lastModified / 1000;
+    }
+
+    private static void applyValidators(HttpServletResponse response, String etag, long lastModified,
+                                        String cacheControl) {
+        if (etag != null) response.setHeader("ETag", etag);
+        response.setDateHeader("Last-Modified", lastModified);
+        if (cacheControl != null) response.setHeader("Cache-Control", cacheControl);
+    }
+
+    /**
+     * RFC 9110 §13.2.2 (GET/HEAD): If-None-Match tem precedência; If-Modified-Since só é
+     * avaliado na sua ausência.
+     */
+    private static boolean isNotModified(HttpServletRequest request, String etag, long lastModified) {
+        if (request == null) return false;
+        String method = request.getMethod();
+        if (!"GET".equalsIgnoreCase(method) && !"HEAD".equalsIgnoreCase(method)) return false;
+
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null) return ETags.matches(ifNoneMatch, etag);
+
+        long since = parseHttpDate(request.getHeader("If-Modified-Since"));
+        return since >= 0 && lastModified / 1000 <= since;
+    }
+
+    /** Data HTTP (RFC 1123) em segundos desde a época, ou -1 se ausente/inválida. */
+    private static long parseHttpDate(String value) {
+        if (value == null) return -1;
+        try {
+            return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toEpochSecond();
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+
+    /** Corpo {@code multipart/byteranges}; o Content-Length é calculado antes de escrever. */
+    private static long writeMultipart(HttpServletResponse response,
+                                       SeekableByteChannel channel,
+                                       long size,
+                                       List<ByteRange> ranges,
+                                       String partType,
+                                       OutputStream out) throws IOException {
+        String boundary = "BYTERANGES_" + Long.toHexString(ThreadLocalRandom.current().nextLong());
+        byte[][] headers = new byte[ranges.size()][];
+        byte[] trailer = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.ISO_8859_1);
+        long length = trailer.length;
+        for (int i = 0; i < ranges.size(); i++) {
+            ByteRange range = ranges.get(i);
+            headers[i] = ((i == 0 ? "" : "\r\n") + "--" + boundary
+                    + "\r\nContent-Type: " + partType
+                    + "\r\nContent-Range: " + range.contentRange(size)
+                    + "\r\n\r\n").getBytes(StandardCharsets.ISO_8859_1);
+            length += headers[i].length + range.length();
+        }
+
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        response.setContentLengthLong(length);
+
+        for (int i = 0; i < ranges.size(); i++) {
+            out.write(headers[i]);
+            copyRange(channel, ranges.get(i).start(), ranges.get(i).length(), out);
+        }
+        out.write(trailer);
+        return length;
+    }
+
+    /** Copia {@code channel[start, start + count)}: transferTo para arquivos, posicionamento nos demais. */
+    private static long copyRange(SeekableByteChannel channel, long start, long count, OutputStream out)
+            throws IOException {
+        if (channel instanceof FileChannel fc) {
+            return transfer(fc, start, count, out);
+        }
+        if (channel instanceof ByteBufferChannel buffer) {
+            return buffer.writeTo(start, count, out);
+        }
+        channel.position(start);
+        return copy(channel, count, out);
+    }
+
+    /** Mesmas validações de {@link #writeBytesToResponse}: 204 se vazio, 400 se nome inválido. */
+    private static boolean checkDownload(HttpServletResponse response, long size, String downloadName)
+            throws IOException {
+        if (size == 0) {
+            log.warn("Tentativa de envio de arquivo vazio: '{}'", downloadName);
+            response.sendError(HttpServletResponse.SC_NO_CONTENT, "Arquivo vazio");
+            return false;
+        }
+        if (downloadName == null || downloadName.isBlank()) {
+            log.error("Nome de download inválido (null ou vazio)");
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Nome do arquivo inválido");
+            return false;
+        }
+        return true;
+    }
+
+    /** Define Content-Type e Content-Disposition; retorna o nome sanitizado. */
+    static String applyDownloadHeaders(HttpServletResponse response, String downloadName, String contentType) {
+        // Sanitiza nome para evitar CRLF injection (colapsa múltiplos CR/LF em um espaço)
+        String safeName = downloadName.replaceAll("[\\r\\n]+", " ").replace("\"", "'");
+        String encodedName = URLEncoder.encode(safeName, StandardCharsets.UTF_8);
+
+        response.setContentType(contentType != null ? contentType : "application/octet-stream");
+
+        // Compatibilidade: filename simples + filename* (UTF-8)
+        String cdHeader = String.format("attachment; filename=\"%s\"; filename*=UTF-8''%s",
+                                        safeName, encodedName);
+        response.setHeader("Content-Disposition", cdHeader);
+        return safeName;
+    }
+
+    /** Copia {@code src[position, position + count)} para {@code out} via transferTo. */
+    static long transfer(FileChannel src, long position, long count, OutputStream out) throws IOException {
+        WritableByteChannel target = Channels.newChannel(out);
+        long done = 0;
+        while (done < count) {
+            long n = src.transferTo(position + done, count - done, target);
+            if (n <= 0) {
+                throw new IOException("Arquivo truncado durante o envio: " + done + " de " + count + " bytes");
+            }
+            done += n;
+        }
+        return done;
+    }
+
+    /** Copia até {@code count} bytes (ou até o fim, se -1) de {@code src} para {@code out}. */
+    static long copy(ReadableByteChannel src, long count, OutputStream out) throws IOException {
+        ByteBuffer buf = acquireBuffer();
+        try {
+            long done = 0;
+            while (count < 0 || done < count) {
+                buf.clear();
+                if (count >= 0 && count - done < buf.capacity()) buf.limit((int) (count - done));
+                int n = src.read(buf);
+                if (n < 0) break;
+                out.write(buf.array(), 0, n);
+                done += n;
+            }
+            if (count >= 0 && done < count) {
+                throw new IOException("Canal terminou antes do esperado: " + done + " de " + count + " bytes");
+            }
+            return done;
+        } finally {
+            BUFFER_POOL.offer(buf);
+        }
+    }
+
+    /**
+     * Buffers de heap: o destino é um OutputStream (byte[]), então um buffer direto só
+     * acrescentaria uma cópia. O pool limita a alocação a {@value #POOL_SIZE} buffers ociosos.
+     */
+    private static ByteBuffer acquireBuffer() {
+        ByteBuffer buf = BUFFER_POOL.poll();
+        return buf != null ? buf : ByteBuffer.allocate(BUFFER_SIZE);
+    }
+
+    private static void sendErrorQuietly(HttpServletResponse response, int status, String message) {
+        try {
+            response.sendError(status, message);
+        } catch (IOException e) {
+            throw new IntegrationException(message);
+        }
+    }
 }
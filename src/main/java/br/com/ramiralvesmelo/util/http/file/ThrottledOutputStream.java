@@ -0,0 +1,77 @@
+package br.com.ramiralvesmelo.util.http.file;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * OutputStream com limite de banda por resposta e/ou global ({@link BandwidthLimiter}).
+ *
+ * Os primeiros {@code freeBytes} passam sem espera (apenas contabilizados no limitador global),
+ * para que respostas pequenas mantenham a latência; o restante é liberado em blocos de
+ * {@value #CHUNK} bytes. Um bloco que cruza o fim da cota é dividido: só o excedente espera.
+ */
+@Slf4j
+final class ThrottledOutputStream extends FilterOutputStream {
+
+    static final int CHUNK = 16 * 1024;
+
+    private final BandwidthLimiter perResponse;
+    private final BandwidthLimiter shared;
+    private final byte[] single = new byte[1];
+    private long freeBytes;
+    private long bytesWritten;
+    private long throttledNanos;
+
+    ThrottledOutputStream(OutputStream out, BandwidthLimiter perResponse, BandwidthLimiter shared, long freeBytes) {
+        super(out);
+        this.perResponse = perResponse;
+        this.shared = shared;
+        this.freeBytes = freeBytes;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        single[0] = (byte) b;
+        write(single, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            int n = Math.min(len, CHUNK);
+            if (freeBytes > 0) {
+                n = (int) Math.min(n, freeBytes);
+                freeBytes -= n;
+                if (shared != null) shared.record(n);
+            } else {
+                if (perResponse != null) throttledNanos += perResponse.acquire(n);
+                if (shared != null) throttledNanos += shared.acquire(n);
+            }
+            out.write(b, off, n);
+            bytesWritten += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        super.close();
+        if (throttledNanos > 0) {
+            log.debug("Download limitado: {} bytes, {} ms aguardando banda",
+                    bytesWritten, getThrottledTime().toMillis());
+        }
+    }
+
+    long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    Duration getThrottledTime() {
+        return Duration.ofNanos(throttledNanos);
+    }
+}
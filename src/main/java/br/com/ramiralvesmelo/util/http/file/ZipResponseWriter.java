@@ -0,0 +1,225 @@
+package br.com.ramiralvesmelo.util.http.file;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import br.com.ramiralvesmelo.util.core.exception.IntegrationException;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Download de vários arquivos como um único ZIP, escrito em streaming direto na resposta.
+ *
+ * Cada entrada é aberta apenas no momento em que é escrita e copiada por um buffer fixo:
+ * a memória não depende do tamanho do arquivo gerado (sem ByteArrayOutputStream nem arquivo
+ * temporário).
+ *
+ * <pre>
+ * ZipResponseWriter.writeZipToResponse(response, List.of(
+ *         ZipResponseWriter.Entry.of("nota.pdf", pathDaNota),
+ *         ZipResponseWriter.Entry.of("itens.csv", () -&gt; storage.open(id))),
+ *     "pedido-123.zip", true);
+ * </pre>
+ *
+ * Com {@code storeCompressed}, formatos já comprimidos (PDF, imagens, ZIP, Office...) não passam
+ * pelo deflate: entradas de {@link Path} vão como STORED; as demais, sem tamanho/CRC conhecidos
+ * de antemão, vão como DEFLATED com nível 0 (sem custo de compressão).
+ */
+@Slf4j
+public final class ZipResponseWriter {
+
+    /** Extensões cujo conteúdo já é comprimido. */
+    private static final Set<String> COMPRESSED_EXTENSIONS = Set.of(
+            "zip", "gz", "tgz", "bz2", "xz", "7z", "rar", "jar",
+            "jpg", "jpeg", "png", "gif", "webp", "heic",
+            "mp3", "m4a", "aac", "ogg", "mp4", "mov", "avi", "mkv", "webm",
+            "pdf", "docx", "xlsx", "pptx", "odt", "ods", "odp");
+
+    /** Abre o conteúdo de uma entrada (chamado uma única vez, no momento da escrita). */
+    @FunctionalInterface
+    public interface ContentSupplier {
+        InputStream open() throws IOException;
+    }
+
+    /** Entrada do ZIP: nome (pode conter pastas com '/') e origem do conteúdo. */
+    public record Entry(String name, Path file, ContentSupplier supplier) {
+
+        public Entry {
+            if (name == null || name.isBlank()) {
+                throw new IllegalArgumentException("Nome da entrada do ZIP não pode ser vazio");
+            }
+            if ((file == null) == (supplier == null)) {
+                throw new IllegalArgumentException("Informe exatamente um entre arquivo e supplier: " + name);
+            }
+        }
+
+        public static Entry of(String name, Path file) {
+            return new Entry(name, Objects.requireNonNull(file, "file"), null);
+        }
+
+        public static Entry of(String name, ContentSupplier supplier) {
+            return new Entry(name, null, Objects.requireNonNull(supplier, "supplier"));
+        }
+    }
+
+    private ZipResponseWriter() {
+        // utilitário -> não deve ser instanciado
+    }
+
+    /** Como {@link #writeZipToResponse(HttpServletResponse, List, String, boolean)}, comprimindo tudo. */
+    public static void writeZipToResponse(HttpServletResponse response, List<Entry> entries, String downloadName) {
+        writeZipToResponse(response, entries, downloadName, false);
+    }
+
+    /**
+     * Escreve o ZIP na resposta ({@code application/zip}, sem Content-Length).
+     *
+     * @param storeCompressed não recomprime formatos já comprimidos
+     */
+    public static void writeZipToResponse(HttpServletResponse response,
+                                          List<Entry> entries,
+                                          String downloadName,
+                                          boolean storeCompressed) {
+        try {
+            Objects.requireNonNull(response, "HttpServletResponse não pode ser null");
+            Objects.requireNonNull(entries, "Entradas não podem ser null");
+
+            if (downloadName == null || downloadName.isBlank()) {
+                log.error("Nome de download inválido (null ou vazio)");
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Nome do arquivo inválido");
+                return;
+            }
+
+            String safeName = FileResponseWriter.applyDownloadHeaders(response, downloadName, "application/zip");
+            long written;
+            try (OutputStream out = response.getOutputStream()) {
+                written = writeZip(out, entries, storeCompressed);
+                out.flush();
+            }
+            log.info("ZIP '{}' enviado com sucesso ({} entradas, {} bytes de conteúdo)",
+                    safeName, entries.size(), written);
+
+        } catch (IOException e) {
+            log.error("Erro de I/O ao escrever o ZIP '{}' na resposta HTTP", downloadName, e);
+            throw new IntegrationException("Falha ao enviar arquivo: " + downloadName);
+        } catch (Exception e) {
+            log.error("Erro inesperado ao preparar o ZIP '{}'", downloadName, e);
+            throw new IntegrationException("Erro inesperado ao enviar arquivo: " + downloadName);
+        }
+    }
+
+    /**
+     * Escreve o ZIP em {@code out} (que não é fechado).
+     *
+     * @return total de bytes de conteúdo (não comprimido) escritos
+     */
+    public static long writeZip(OutputStream out, List<Entry> entries, boolean storeCompressed) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(out, FileResponseWriter.BUFFER_SIZE));
+        Set<String> names = new HashSet<>();
+        long total = 0;
+        for (Entry entry : entries) {
+            String name = uniqueName(safeEntryName(entry.name()), names);
+            boolean compressed = storeCompressed && isCompressedFormat(name);
+            total += entry.file() != null
+                    ? writeFile(zip, name, entry.file(), compressed)
+                    : writeStream(zip, name, entry.supplier(), compressed);
+        }
+        zip.finish(); // escreve o diretório central sem fechar o destino
+        zip.flush();
+        return total;
+    }
+
+    // ======================== internals ========================
+
+    private static long writeFile(ZipOutputStream zip, String name, Path file, boolean store) throws IOException {
+        ZipEntry ze = new ZipEntry(name);
+        ze.setLastModifiedTime(Files.getLastModifiedTime(file));
+        if (store) {
+            long size = Files.size(file);
+            ze.setMethod(ZipEntry.STORED);
+            ze.setSize(size);
+            ze.setCompressedSize(size);
+            ze.setCrc(crc(file));
+        } else {
+            ze.setMethod(ZipEntry.DEFLATED);
+            zip.setLevel(Deflater.DEFAULT_COMPRESSION);
+        }
+        zip.putNextEntry(ze);
+        long n;
+        try (InputStream in = Files.newInputStream(file)) {
+            n = in.transferTo(zip);
+        }
+        zip.closeEntry();
+        return n;
+    }
+
+    private static long writeStream(ZipOutputStream zip, String name, ContentSupplier supplier, boolean skipDeflate)
+            throws IOException {
+        zip.setLevel(skipDeflate ? Deflater.NO_COMPRESSION : Deflater.DEFAULT_COMPRESSION);
+        zip.putNextEntry(new ZipEntry(name));
+        long n;
+        try (InputStream in = Objects.requireNonNull(supplier.open(), "Conteúdo da entrada '" + name + "' é null")) {
+            n = in.transferTo(zip);
+        }
+        zip.closeEntry();
+        return n;
+    }
+
+    /** CRC-32 do arquivo (exigido antes de uma entrada STORED), lido por buffer fixo. */
+    private static long crc(Path file) throws IOException {
+        CRC32 crc = new CRC32();
+        ByteBuffer buf = ByteBuffer.allocate(FileResponseWriter.BUFFER_SIZE);
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (ch.read(buf.clear()) > 0) {
+                crc.update(buf.flip());
+            }
+        }
+        return crc.getValue();
+    }
+
+    /** Caminho relativo com '/', sem "..", "." nem barras iniciais (evita "zip slip" ao extrair). */
+    static String safeEntryName(String name) {
+        StringBuilder sb = new StringBuilder(name.length());
+        for (String part : name.replace('\\', '/').split("/")) {
+            String p = part.replaceAll("[\\x00-\\x1F]", "").trim();
+            if (p.isEmpty() || p.equals(".") || p.equals("..")) continue;
+            if (sb.length() > 0) sb.append('/');
+            sb.append(p);
+        }
+        return sb.length() > 0 ? sb.toString() : "arquivo";
+    }
+
+    /** Nomes repetidos recebem sufixo " (2)", " (3)"... antes da extensão. */
+    private static String uniqueName(String name, Set<String> used) {
+        if (used.add(name)) return name;
+        int slash = name.lastIndexOf('/');
+        int dot = name.lastIndexOf('.');
+        String base = dot > slash + 1 ? name.substring(0, dot) : name;
+        String ext = dot > slash + 1 ? name.substring(dot) : "";
+        for (int i = 2; ; i++) {
+            String candidate = base + " (" + i + ")" + ext;
+            if (used.add(candidate)) return candidate;
+        }
+    }
+
+    private static boolean isCompressedFormat(String name) {
+        int dot = name.lastIndexOf('.');
+        return dot >= 0 && COMPRESSED_EXTENSIONS.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+}
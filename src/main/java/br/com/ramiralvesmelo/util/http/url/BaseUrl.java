@@ -0,0 +1,118 @@
+package br.com.ramiralvesmelo.util.http.url;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.List;
+
+import org.apache.hc.core5.http.NameValuePair;
+import org.apache.hc.core5.net.URIBuilder;
+
+import br.com.ramiralvesmelo.util.core.exception.UrlException;
+
+/**
+ * URL base pré-processada e reutilizável (imutável e thread-safe).
+ *
+ * O parse da base acontece uma única vez em {@link #of(String)}; depois disso cada
+ * {@code UrlBuilder.buildAbsolute(BaseUrl, ...)} apenas escreve esquema/autoridade já prontos,
+ * o path normalizado e a query num único {@link StringBuilder}, sem novo {@code URI}/{@code URIBuilder}.
+ *
+ * Bases sem autoridade (ex.: relativas ou opacas) continuam funcionando, mas usam o caminho
+ * legado via {@link URIBuilder}.
+ */
+public final class BaseUrl {
+
+    private final String url;
+    private final URI uri;
+
+    /** "scheme://autoridade" já codificado; null quando a base não tem autoridade. */
+    private final String origin;
+    /** path decodificado da base (nunca null). */
+    private final String path;
+    private final String rawQuery;
+    /** query da base re-codificada como o URIBuilder faz ao receber novos parâmetros. */
+    private final String normalizedQuery;
+    private final String rawFragment;
+    /** http/https sem host: o URIBuilder rejeita no build(), então aqui também. */
+    private final boolean missingHost;
+
+    private BaseUrl(String url, URI uri) {
+        this.url = url;
+        this.uri = uri;
+        this.path = uri.getPath() == null ? "" : uri.getPath();
+        this.rawQuery = uri.getRawQuery();
+        this.rawFragment = uri.getRawFragment();
+
+        URIBuilder ub = new URIBuilder(uri);
+        String scheme = uri.getScheme();
+        this.missingHost = ("http".equalsIgnoreCase(scheme) || "https".equalsIgnoreCase(scheme))
+                && (ub.getHost() == null || ub.getHost().isBlank());
+
+        String authority = uri.getRawAuthority();
+        this.origin = (authority == null || uri.isOpaque())
+                ? null
+                : (scheme != null ? scheme + ":" : "") + "//" + authority;
+
+        this.normalizedQuery = rawQuery == null ? null : formatQuery(ub.getQueryParams());
+    }
+
+    /** Faz o parse da base; lança {@link UrlException} se for inválida. */
+    public static BaseUrl of(String baseUrl) {
+        try {
+            return new BaseUrl(baseUrl, new URI(baseUrl));
+        } catch (URISyntaxException e) {
+            throw new UrlException("URL inválida: " + baseUrl, e);
+        }
+    }
+
+    public URI toUri() {
+        return uri;
+    }
+
+    /** Path (decodificado) da base. */
+    public String getPath() {
+        return path;
+    }
+
+    @Override
+    public String toString() {
+        return url;
+    }
+
+    // ======================== uso interno (UrlBuilder) ========================
+
+    /** true quando a base pode ser escrita diretamente (sem URIBuilder). */
+    boolean isFast() {
+        return origin != null;
+    }
+
+    void checkBuildable() {
+        if (missingHost) {
+            throw new UrlException("URL inválida: " + url,
+                    new URISyntaxException(uri.getScheme(), "http/https URI cannot have an empty host identifier"));
+        }
+    }
+
+    String origin() {
+        return origin;
+    }
+
+    String rawQuery() {
+        return rawQuery;
+    }
+
+    String normalizedQuery() {
+        return normalizedQuery;
+    }
+
+    String rawFragment() {
+        return rawFragment;
+    }
+
+    private static String formatQuery(List<NameValuePair> params) {
+        StringBuilder sb = new StringBuilder();
+        for (NameValuePair p : params) {
+            UrlJoiner.appendQueryParam(sb, p.getName(), p.getValue());
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,245 @@
+package br.com.ramiralvesmelo.util.http.url;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import br.com.ramiralvesmelo.util.core.exception.UrlException;
+
+/**
+ * Parser de query string (contraparte de leitura do {@link UrlBuilder}), imutável e thread-safe.
+ *
+ * <pre>
+ * QueryString q = QueryString.parse("https://host/cb?code=abc&amp;state=x%2Fy&amp;tag=a&amp;tag=b#frag");
+ * q.getFirst("state"); // "x/y"
+ * q.getAll("tag");     // [a, b]
+ * </pre>
+ *
+ * - O parse só registra offsets: nomes e valores são expostos como {@link CharSequence}
+ *   sobre a string original ({@link #rawName}, {@link #rawValue}), sem cópia.
+ * - A decodificação (%XX UTF-8 e '+' como espaço) é feita apenas quando pedida ({@link #value}, {@link #getFirst}).
+ * - Parâmetros repetidos são mantidos na ordem original.
+ * - Há um limite de parâmetros ({@link #DEFAULT_MAX_PARAMS}); acima dele o parse falha com
+ *   {@link UrlException}, evitando DoS por query gigante/hash flooding.
+ */
+public final class QueryString {
+
+    public static final int DEFAULT_MAX_PARAMS = 1000;
+
+    private static final QueryString EMPTY = new QueryString("", new int[0], 0);
+
+    private final CharSequence source;
+    /** por parâmetro: nameStart, nameEnd, valueStart, valueEnd (valueStart = -1 quando não há '=') */
+    private final int[] offsets;
+    private final int size;
+
+    private QueryString(CharSequence source, int[] offsets, int size) {
+        this.source = source;
+        this.offsets = offsets;
+        this.size = size;
+    }
+
+    /**
+     * Faz o parse de uma URL (usa o trecho entre '?' e '#') ou de uma query string pura.
+     * A entrada é referenciada (não copiada): não a altere depois do parse.
+     */
+    public static QueryString parse(CharSequence urlOrQuery) {
+        return parse(urlOrQuery, DEFAULT_MAX_PARAMS);
+    }
+
+    /** Como {@link #parse(CharSequence)}, com limite de parâmetros próprio. */
+    public static QueryString parse(CharSequence urlOrQuery, int maxParams) {
+        if (maxParams <= 0) {
+            throw new IllegalArgumentException("maxParams deve ser > 0");
+        }
+        if (urlOrQuery == null || urlOrQuery.length() == 0) {
+            return EMPTY;
+        }
+        int n = urlOrQuery.length();
+        int start = queryStart(urlOrQuery);
+        if (start < 0) {
+            return EMPTY;
+        }
+        int end = indexOf(urlOrQuery, '#', start, n);
+
+        int[] offsets = new int[Math.min(16, 4 * maxParams)];
+        int size = 0;
+        int p = start;
+        while (p <= end) {
+            int amp = indexOf(urlOrQuery, '&', p, end);
+            if (amp > p) { // ignora pares vazios ("a=1&&b=2")
+                if (size == maxParams) {
+                    throw new UrlException("Query com mais de " + maxParams + " parâmetros");
+                }
+                if (4 * size + 4 > offsets.length) {
+                    offsets = Arrays.copyOf(offsets, Math.min(offsets.length * 2, 4 * maxParams));
+                }
+                int eq = indexOf(urlOrQuery, '=', p, amp);
+                int o = 4 * size++;
+                offsets[o] = p;
+                offsets[o + 1] = eq;
+                offsets[o + 2] = eq < amp ? eq + 1 : -1;
+                offsets[o + 3] = amp;
+            }
+            p = amp + 1;
+        }
+        return size == 0 ? EMPTY : new QueryString(urlOrQuery, offsets, size);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Nome do parâmetro {@code i}, sem decodificar (view sobre a string original). */
+    public CharSequence rawName(int i) {
+        int o = offset(i);
+        return CharBuffer.wrap(source, offsets[o], offsets[o + 1]);
+    }
+
+    /** Valor do parâmetro {@code i}, sem decodificar; null quando não há '=' (ex.: "?flag"). */
+    public CharSequence rawValue(int i) {
+        int o = offset(i);
+        return offsets[o + 2] < 0 ? null : CharBuffer.wrap(source, offsets[o + 2], offsets[o + 3]);
+    }
+
+    /** Nome decodificado do parâmetro {@code i}. */
+    public String name(int i) {
+        int o = offset(i);
+        return decode(offsets[o], offsets[o + 1]);
+    }
+
+    /** Valor decodificado do parâmetro {@code i}; null quando não há '='. */
+    public String value(int i) {
+        int o = offset(i);
+        return offsets[o + 2] < 0 ? null : decode(offsets[o + 2], offsets[o + 3]);
+    }
+
+    /** true se algum parâmetro tiver o nome (decodificado) informado. */
+    public boolean contains(String name) {
+        return indexOf(name, 0) >= 0;
+    }
+
+    /**
+     * Primeiro valor decodificado do parâmetro; null se ausente.
+     * Um parâmetro sem '=' ("?flag") retorna "".
+     */
+    public String getFirst(String name) {
+        int i = indexOf(name, 0);
+        if (i < 0) return null;
+        String v = value(i);
+        return v == null ? "" : v;
+    }
+
+    /** Todos os valores decodificados do parâmetro, na ordem original (lista vazia se ausente). */
+    public List<String> getAll(String name) {
+        List<String> out = null;
+        for (int i = indexOf(name, 0); i >= 0; i = indexOf(name, i + 1)) {
+            if (out == null) out = new ArrayList<>(2);
+            String v = value(i);
+            out.add(v == null ? "" : v);
+        }
+        return out == null ? List.of() : Collections.unmodifiableList(out);
+    }
+
+    /** Cópia decodificada de todos os parâmetros (nome → valores), na ordem original. */
+    public Map<String, List<String>> toMap() {
+        Map<String, List<String>> map = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            String v = value(i);
+            map.computeIfAbsent(name(i), k -> new ArrayList<>(1)).add(v == null ? "" : v);
+        }
+        map.replaceAll((k, v) -> Collections.unmodifiableList(v));
+        return Collections.unmodifiableMap(map);
+    }
+
+    @Override
+    public String toString() {
+        if (size == 0) return "";
+        return source.subSequence(offsets[0], offsets[4 * size - 1]).toString();
+    }
+
+    // ======================== internals ========================
+
+    private int offset(int i) {
+        Objects.checkIndex(i, size);
+        return 4 * i;
+    }
+
+    /** Índice do próximo parâmetro (a partir de {@code from}) cujo nome decodificado é {@code name}. */
+    private int indexOf(String name, int from) {
+        Objects.requireNonNull(name, "name");
+        for (int i = from; i < size; i++) {
+            int s = offsets[4 * i];
+            int e = offsets[4 * i + 1];
+            if (needsDecode(s, e) ? name.equals(decode(s, e)) : regionEquals(s, e, name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean regionEquals(int s, int e, String name) {
+        if (e - s != name.length()) return false;
+        for (int i = s; i < e; i++) {
+            if (source.charAt(i) != name.charAt(i - s)) return false;
+        }
+        return true;
+    }
+
+    private boolean needsDecode(int s, int e) {
+        for (int i = s; i < e; i++) {
+            char c = source.charAt(i);
+            if (c == '%' || c == '+') return true;
+        }
+        return false;
+    }
+
+    private String decode(int s, int e) {
+        String raw = source.subSequence(s, e).toString();
+        try {
+            return UriEncoder.decode(raw, true);
+        } catch (IllegalArgumentException | UrlException ex) {
+            throw new UrlException("Parâmetro de query mal codificado: " + raw, ex);
+        }
+    }
+
+    /** Início da query: após o '?', ou 0 se a entrada já for uma query pura; -1 se a URL não tiver query. */
+    private static int queryStart(CharSequence s) {
+        int n = s.length();
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(i);
+            if (c == '?') return i + 1;
+            if (c == '#') return -1;
+        }
+        // sem '?': é URL (tem esquema/path) ou a própria query
+        char first = s.charAt(0);
+        if (first == '/' || hasScheme(s)) return -1;
+        return 0;
+    }
+
+    private static int indexOf(CharSequence s, char c, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (s.charAt(i) == c) return i;
+        }
+        return to;
+    }
+
+    /** "scheme://" antes de qualquer '=' ou '&amp;'. */
+    private static boolean hasScheme(CharSequence s) {
+        for (int i = 0, n = s.length() - 2; i < n; i++) {
+            char c = s.charAt(i);
+            if (c == '=' || c == '&') return false;
+            if (c == ':' && s.charAt(i + 1) == '/' && s.charAt(i + 2) == '/') return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,285 @@
+package br.com.ramiralvesmelo.util.http.url;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import br.com.ramiralvesmelo.util.core.exception.UrlException;
+
+import br.com.ramiralvesmelo.util.core.text.CharClass;
+import br.com.ramiralvesmelo.util.core.text.CharScanner;
+
+/**
+ * Percent-encoding/decoding RFC 3986 orientado a tabela, por componente da URL.
+ *
+ * Diferente de {@link java.net.URLEncoder} (form encoding, '+' para espaço):
+ * - cada componente tem sua tabela de caracteres seguros ({@link Component});
+ * - quando nada precisa ser escapado, a própria String de entrada é retornada (sem alocar);
+ *   a busca pelo próximo caractere a escapar usa o {@link CharScanner};
+ * - há variantes que escrevem direto num {@link StringBuilder} ou {@link Appendable},
+ *   copiando trechos seguros em bloco;
+ * - caracteres fora do ASCII são codificados em UTF-8 (%XX maiúsculo).
+ */
+public final class UriEncoder {
+
+    /** Componentes da URL e seus caracteres seguros (não escapados). */
+    public enum Component {
+        /** ALPHA / DIGIT / - . _ ~ (o mais restritivo; equivale ao URIBuilder). */
+        UNRESERVED(""),
+        /** Um segmento de path (pchar): '/' , '?' e '#' são escapados. */
+        PATH_SEGMENT("!$&'()*+,;=:@"),
+        /**
+         * Primeiro segmento de uma referência relativa (segment-nz-nc): como PATH_SEGMENT, mas
+         * escapa ':' para que o valor não seja lido como esquema (ex.: "javascript:...").
+         */
+        PATH_SEGMENT_NC("!$&'()*+,;=@"),
+        /** Path completo: como PATH_SEGMENT, mas mantém '/'. */
+        PATH("!$&'()*+,;=:@/"),
+        /** Nome ou valor de parâmetro de query: escapa '&amp;', '=', '+' e '#'. */
+        QUERY_PARAM("!$'()*,;:@/?"),
+        /** Fragmento: pchar + '/' + '?'. */
+        FRAGMENT("!$&'()*+,;=:@/?");
+
+        private final CharClass safe;
+
+        Component(String extra) {
+            this.safe = CharClass.ALNUM.with("-._~" + extra);
+        }
+
+        /** true se o caractere pode aparecer sem escape neste componente. */
+        public boolean isSafe(char c) {
+            return safe.contains(c);
+        }
+    }
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+    private static final byte[] HEX_VALUE = new byte[128];
+
+    static {
+        Arrays.fill(HEX_VALUE, (byte) -1);
+        for (int i = 0; i < 10; i++) HEX_VALUE['0' + i] = (byte) i;
+        for (int i = 0; i < 6; i++) {
+            HEX_VALUE['A' + i] = (byte) (10 + i);
+            HEX_VALUE['a' + i] = (byte) (10 + i);
+        }
+    }
+
+    private UriEncoder() {}
+
+    // =========================================================
+    // Encode
+    // =========================================================
+
+    public static String encodePathSegment(String s) {
+        return encode(s, Component.PATH_SEGMENT);
+    }
+
+    public static String encodePath(String s) {
+        return encode(s, Component.PATH);
+    }
+
+    public static String encodeQueryParam(String s) {
+        return encode(s, Component.QUERY_PARAM);
+    }
+
+    public static String encodeFragment(String s) {
+        return encode(s, Component.FRAGMENT);
+    }
+
+    /** Codifica {@code s}; retorna a mesma instância se nada precisar de escape (null → null). */
+    public static String encode(String s, Component component) {
+        if (s == null) return null;
+        int first = firstUnsafe(s, component);
+        if (first < 0) return s;
+        StringBuilder sb = new StringBuilder(s.length() + 16);
+        sb.append(s, 0, first);
+        return encodeFrom(sb, s, first, s.length(), component).toString();
+    }
+
+    /** Escreve {@code s} codificado em {@code out}. */
+    public static StringBuilder encode(StringBuilder out, CharSequence s, Component component) {
+        return encode(out, s, 0, s.length(), component);
+    }
+
+    /** Escreve {@code s[start, end)} codificado em {@code out}. */
+    public static StringBuilder encode(StringBuilder out, CharSequence s, int start, int end, Component component) {
+        return encodeFrom(out, s, start, end, component);
+    }
+
+    /** Escreve {@code s} codificado num {@link Appendable} (ex.: Writer). */
+    public static <A extends Appendable> A encode(A out, CharSequence s, Component component) throws IOException {
+        if (out instanceof StringBuilder sb) {
+            encodeFrom(sb, s, 0, s.length(), component);
+            return out;
+        }
+        int n = s.length();
+        int run = 0;
+        for (int i; (i = CharScanner.indexOfNot(s, run, n, component.safe)) >= 0; ) {
+            if (run < i) out.append(s, run, i);
+            run = appendEscaped(out, s, i, n) + 1;
+        }
+        if (run < n) out.append(s, run, n);
+        return out;
+    }
+
+    /** Índice do primeiro caractere que precisa de escape, ou -1 se nenhum. */
+    public static int firstUnsafe(CharSequence s, Component component) {
+        return CharScanner.indexOfNot(s, component.safe);
+    }
+
+    // =========================================================
+    // Decode
+    // =========================================================
+
+    /** Decodifica %XX (UTF-8); '+' é mantido. Retorna a mesma instância se não houver escapes. */
+    public static String decode(String s) {
+        return decode(s, false);
+    }
+
+    /**
+     * Decodifica %XX (UTF-8), opcionalmente tratando '+' como espaço (form encoding).
+     * Retorna a mesma instância se não houver nada a decodificar.
+     *
+     * @throws IllegalArgumentException se houver sequência %XX incompleta ou não hexadecimal
+     * @throws UrlException se os bytes %XX não formarem UTF-8 válido (sem substituição por U+FFFD)
+     */
+    public static String decode(String s, boolean plusAsSpace) {
+        if (s == null) return null;
+        int first = firstEscape(s, plusAsSpace);
+        if (first < 0) return s;
+        StringBuilder sb = new StringBuilder(s.length());
+        sb.append(s, 0, first);
+        try {
+            return decodeFrom(sb, s, first, plusAsSpace).toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Escreve {@code s} decodificado em {@code out}. */
+    public static <A extends Appendable> A decode(A out, CharSequence s, boolean plusAsSpace) throws IOException {
+        return decodeFrom(out, s, 0, plusAsSpace);
+    }
+
+    // ======================== internals ========================
+
+    private static StringBuilder encodeFrom(StringBuilder out, CharSequence s, int start, int end, Component component) {
+        int run = start;
+        for (int i; (i = CharScanner.indexOfNot(s, run, end, component.safe)) >= 0; ) {
+            if (run < i) out.append(s, run, i);
+            try {
+                run = appendEscaped(out, s, i, end) + 1;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e); // StringBuilder não lança IOException
+            }
+        }
+        if (run < end) out.append(s, run, end);
+        return out;
+    }
+
+    /** Escapa o caractere em {@code i} (UTF-8); retorna o último índice consumido. */
+    private static int appendEscaped(Appendable out, CharSequence s, int i, int n) throws IOException {
+        char c = s.charAt(i);
+        if (c < 0x80) {
+            pct(out, c);
+        } else if (c < 0x800) {
+            pct(out, 0xC0 | (c >> 6));
+            pct(out, 0x80 | (c & 0x3F));
+        } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(s.charAt(i + 1))) {
+            int cp = Character.toCodePoint(c, s.charAt(i + 1));
+            pct(out, 0xF0 | (cp >> 18));
+            pct(out, 0x80 | ((cp >> 12) & 0x3F));
+            pct(out, 0x80 | ((cp >> 6) & 0x3F));
+            pct(out, 0x80 | (cp & 0x3F));
+            return i + 1;
+        } else if (Character.isSurrogate(c)) {
+            pct(out, '?'); // surrogate isolado: mesmo comportamento do encoder UTF-8 do JDK
+        } else {
+            pct(out, 0xE0 | (c >> 12));
+            pct(out, 0x80 | ((c >> 6) & 0x3F));
+            pct(out, 0x80 | (c & 0x3F));
+        }
+        return i;
+    }
+
+    private static void pct(Appendable out, int b) throws IOException {
+        out.append('%').append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+    }
+
+    private static int firstEscape(CharSequence s, boolean plusAsSpace) {
+        for (int i = 0, n = s.length(); i < n; i++) {
+            char c = s.charAt(i);
+            if (c == '%' || (plusAsSpace && c == '+')) return i;
+        }
+        return -1;
+    }
+
+    private static <A extends Appendable> A decodeFrom(A out, CharSequence s, int start, boolean plusAsSpace)
+            throws IOException {
+        int n = s.length();
+        byte[] bytes = null;
+        CharsetDecoder utf8 = null;
+        int run = start;
+        for (int i = start; i < n; i++) {
+            char c = s.charAt(i);
+            if (c == '+' && plusAsSpace) {
+                if (run < i) out.append(s, run, i);
+                out.append(' ');
+                run = i + 1;
+            } else if (c == '%') {
+                if (run < i) out.append(s, run, i);
+                if (bytes == null) bytes = new byte[(n - i) / 3];
+                int runStart = i;
+                int count = 0;
+                boolean ascii = true;
+                while (i < n && s.charAt(i) == '%') {
+                    int b = hexPair(s, i);
+                    ascii &= b < 0x80;
+                    bytes[count++] = (byte) b;
+                    i += 3;
+                }
+                if (ascii) {
+                    for (int k = 0; k < count; k++) out.append((char) bytes[k]);
+                } else {
+                    if (utf8 == null) {
+                        utf8 = StandardCharsets.UTF_8.newDecoder()
+                                .onMalformedInput(CodingErrorAction.REPORT)
+                                .onUnmappableCharacter(CodingErrorAction.REPORT);
+                    }
+                    out.append(decodeUtf8(utf8, bytes, count, runStart));
+                }
+                run = i;
+                i--; // o for incrementa
+            }
+        }
+        if (run < n) out.append(s, run, n);
+        return out;
+    }
+
+    private static CharSequence decodeUtf8(CharsetDecoder utf8, byte[] bytes, int count, int position) {
+        try {
+            return utf8.decode(ByteBuffer.wrap(bytes, 0, count));
+        } catch (CharacterCodingException e) {
+            throw new UrlException("Sequência UTF-8 inválida na posição " + position, e);
+        }
+    }
+
+    private static int hexPair(CharSequence s, int i) {
+        if (i + 2 >= s.length()) {
+            throw new IllegalArgumentException("Sequência % incompleta na posição " + i);
+        }
+        char h = s.charAt(i + 1);
+        char l = s.charAt(i + 2);
+        int hv = h < 128 ? HEX_VALUE[h] : -1;
+        int lv = l < 128 ? HEX_VALUE[l] : -1;
+        if (hv < 0 || lv < 0) {
+            throw new IllegalArgumentException("Sequência % inválida na posição " + i + ": %" + h + l);
+        }
+        return (hv << 4) | lv;
+    }
+}
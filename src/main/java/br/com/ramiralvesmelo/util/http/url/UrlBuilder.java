@@ -1,14 +1,21 @@
 package br.com.ramiralvesmelo.util.http.url;
 
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Objects;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import org.apache.hc.core5.net.URIBuilder;
 
 import br.com.ramiralvesmelo.util.core.exception.UrlException;
+import br.com.ramiralvesmelo.util.core.text.CharClass;
+import br.com.ramiralvesmelo.util.core.text.CharScanner;
 
 /**
  * Utilitário para construção de URLs seguras e normalizadas.
@@ -17,13 +24,26 @@ import br.com.ramiralvesmelo.util.core.exception.UrlException;
  * - buildAbsolute: monta URLs absolutas a partir de uma base (com ou sem path) e paths adicionais,
  *   normalizando barras duplas e preservando esquema/host/query.
  * - buildAbsolute (com query params): adiciona parâmetros de query apenas quando chave e valor não são nulos.
- * - buidlUrl / buildUrl: versão legada que mantém barras duplas no path final e aplica sanitização.
+ * - buildAbsolute(BaseUrl, ...) / appendAbsolute: caminho rápido com a base pré-processada uma única vez
+ *   e path/query escritos em passada única num StringBuilder (mesmo resultado das versões com String).
+ * - buidlUrl / buildUrl: versão legada que mantém barras duplas no path final e aplica sanitização
+ *   (para URLs com vários placeholders, prefira {@link UrlTemplate}).
  * - buildAbsoluteStrict: versão rigorosa que valida entradas (http/https, espaços crus, percent-encoding),
  *   lançando IllegalArgumentException em casos suspeitos.
+ * - expandAll / writeAll: geração em lote (lazy, direto num Appendable, opcionalmente em paralelo)
+ *   a partir de um {@link UrlTemplate} compilado uma única vez.
  * - escape: codificação segura para query string (URLEncoder UTF-8).
  */
 public final class UrlBuilder {
 
+    /** Tamanho a partir do qual o buffer de {@link #writeAll} é descarregado no destino. */
+    private static final int WRITE_CHUNK = 8192;
+    /** Tuplas expandidas por vez no modo paralelo: limita a memória ao tamanho de um lote. */
+    static final int PARALLEL_BATCH = 4096;
+
+    /** Caracteres mantidos por {@code sanitize}; os demais viram '_'. */
+    private static final CharClass SANITIZE_SAFE = CharClass.ALNUM.with("._-");
+
     private UrlBuilder() {}
 
     // =========================================================
@@ -32,49 +52,160 @@ public final class UrlBuilder {
 
     /** Monta URL absoluta juntando a base (que pode conter path) com um path relativo. */
     public static String buildAbsolute(String baseUrl, String path) {
-        try {
-            URI base = new URI(baseUrl);
-            String basePath = safe(base.getPath());
-            String joined   = joinPaths(basePath, path);
-            String normPath = normalizePath(joined);
-
-            return new URIBuilder(base)
-                    .setPath(normPath)
-                    .build()
-                    .toString();
-        } catch (URISyntaxException e) {
-            throw new UrlException("URL inválida: " + baseUrl, e);
-        }
+        return buildAbsolute(BaseUrl.of(baseUrl), path);
     }
 
     /** Monta URL absoluta juntando múltiplos segmentos de path. */
     public static String buildAbsolute(String baseUrl, String... segments) {
-        try {
-            URI base = new URI(baseUrl);
-            String current = safe(base.getPath());
-            for (String seg : segments) {
-                current = joinPaths(current, seg);
+        return buildAbsolute(BaseUrl.of(baseUrl), segments);
+    }
+
+    /** Monta URL absoluta e adiciona query params. */
+    public static String buildAbsolute(String baseUrl, String path, Map<String, ?> queryParams) {
+        return buildAbsolute(BaseUrl.of(baseUrl), path, queryParams);
+    }
+
+    // =========================================================
+    // Caminho rápido: base pré-processada (BaseUrl)
+    // =========================================================
+
+    /** Igual a {@link #buildAbsolute(String, String)}, reaproveitando a base já processada. */
+    public static String buildAbsolute(BaseUrl base, String path) {
+        return write(new StringBuilder(64), base, new String[] {path}, null).toString();
+    }
+
+    /** Igual a {@link #buildAbsolute(String, String...)}, reaproveitando a base já processada. */
+    public static String buildAbsolute(BaseUrl base, String... segments) {
+        return write(new StringBuilder(64), base, segments, null).toString();
+    }
+
+    /** Igual a {@link #buildAbsolute(String, String, Map)}, reaproveitando a base já processada. */
+    public static String buildAbsolute(BaseUrl base, String path, Map<String, ?> queryParams) {
+        return write(new StringBuilder(96), base, new String[] {path}, queryParams).toString();
+    }
+
+    /**
+     * Escreve a URL absoluta direto em {@code out} (sem String intermediária) e retorna {@code out}.
+     * Útil para gerar muitos links reaproveitando o mesmo buffer.
+     */
+    public static StringBuilder appendAbsolute(StringBuilder out, BaseUrl base, String path, Map<String, ?> queryParams) {
+        return write(out, base, new String[] {path}, queryParams);
+    }
+
+    // =========================================================
+    // Geração em lote
+    // =========================================================
+
+    /**
+     * Expande o template para cada tupla (valores posicionais, na ordem de {@link UrlTemplate#getVariables()}).
+     * O resultado é lazy e respeita o stream de entrada (se ele for paralelo, a expansão também será).
+     */
+    public static Stream<String> expandAll(UrlTemplate template, Stream<Object[]> tuples) {
+        Objects.requireNonNull(template, "template");
+        return tuples.map(template::expand);
+    }
+
+    /**
+     * Escreve um link por linha em {@code out}, reaproveitando um único buffer (sem String por link).
+     * Retorna a quantidade de links escritos. Não faz flush em {@code out}.
+     */
+    public static long writeAll(Appendable out, UrlTemplate template, Iterable<Object[]> tuples) throws IOException {
+        Objects.requireNonNull(out, "out");
+        Objects.requireNonNull(template, "template");
+        StringBuilder buf = new StringBuilder(WRITE_CHUNK + 256);
+        long count = 0;
+        for (Object[] tuple : tuples) {
+            template.expandTo(buf, tuple).append('\n');
+            count++;
+            if (buf.length() >= WRITE_CHUNK) {
+                out.append(buf);
+                buf.setLength(0);
             }
-            String normPath = normalizePath(current);
+        }
+        if (buf.length() > 0) {
+            out.append(buf);
+        }
+        return count;
+    }
 
-            return new URIBuilder(base)
-                    .setPath(normPath)
-                    .build()
-                    .toString();
-        } catch (URISyntaxException e) {
-            throw new UrlException("URL inválida: " + baseUrl, e);
+    /**
+     * Como {@link #writeAll(Appendable, UrlTemplate, Iterable)}, a partir de um stream.
+     * Com {@code parallel}, as tuplas são lidas em lotes de {@value #PARALLEL_BATCH}: cada lote é
+     * expandido no ForkJoinPool comum e escrito na ordem de entrada antes de ler o próximo
+     * (memória limitada mesmo para dezenas de milhões de links).
+     */
+    public static long writeAll(Appendable out, UrlTemplate template, Stream<Object[]> tuples, boolean parallel)
+            throws IOException {
+        Objects.requireNonNull(out, "out");
+        Objects.requireNonNull(template, "template");
+        if (!parallel) {
+            return writeAll(out, template, tuples::iterator);
         }
+        Iterator<Object[]> it = tuples.iterator();
+        Object[][] batch = new Object[PARALLEL_BATCH][];
+        StringBuilder[] lines = new StringBuilder[PARALLEL_BATCH];
+        StringBuilder buf = new StringBuilder(WRITE_CHUNK + 256);
+        long count = 0;
+        while (it.hasNext()) {
+            int n = 0;
+            while (n < PARALLEL_BATCH && it.hasNext()) {
+                batch[n++] = it.next();
+            }
+            IntStream.range(0, n).parallel()
+                    .forEach(i -> lines[i] = template.expandTo(new StringBuilder(64), batch[i]));
+            for (int i = 0; i < n; i++) {
+                buf.append(lines[i]).append('\n');
+                if (buf.length() >= WRITE_CHUNK) {
+                    out.append(buf);
+                    buf.setLength(0);
+                }
+            }
+            count += n;
+        }
+        if (buf.length() > 0) {
+            out.append(buf);
+        }
+        return count;
     }
 
-    /** Monta URL absoluta e adiciona query params. */
-    public static String buildAbsolute(String baseUrl, String path, Map<String, ?> queryParams) {
-        try {
-            URI base = new URI(baseUrl);
-            String basePath = safe(base.getPath());
-            String joined   = joinPaths(basePath, path);
-            String normPath = normalizePath(joined);
+    private static StringBuilder write(StringBuilder sb, BaseUrl base, String[] parts, Map<String, ?> queryParams) {
+        base.checkBuildable();
+        if (!base.isFast()) {
+            return sb.append(legacyBuild(base, parts, queryParams));
+        }
 
-            URIBuilder ub = new URIBuilder(base).setPath(normPath);
+        sb.append(base.origin());
+        UrlJoiner.appendPath(sb, base.getPath(), parts);
+
+        int queryStart = -1;
+        if (queryParams != null) {
+            for (Map.Entry<String, ?> e : queryParams.entrySet()) {
+                if (e.getKey() != null && e.getValue() != null) {
+                    if (queryStart < 0) {
+                        queryStart = sb.length();
+                        sb.append('?').append(base.normalizedQuery() != null ? base.normalizedQuery() : "");
+                    }
+                    UrlJoiner.appendQueryParam(sb, e.getKey(), String.valueOf(e.getValue()));
+                }
+            }
+        }
+        if (queryStart < 0 && base.rawQuery() != null) {
+            sb.append('?').append(base.rawQuery());
+        }
+        if (base.rawFragment() != null) {
+            sb.append('#').append(base.rawFragment());
+        }
+        return sb;
+    }
+
+    /** Bases sem autoridade (relativas/opacas): mantém a montagem via URIBuilder. */
+    private static String legacyBuild(BaseUrl base, String[] parts, Map<String, ?> queryParams) {
+        try {
+            String current = base.getPath();
+            for (String seg : parts) {
+                current = joinPaths(current, seg);
+            }
+            URIBuilder ub = new URIBuilder(base.toUri()).setPath(normalizePath(current));
             if (queryParams != null) {
                 for (Map.Entry<String, ?> e : queryParams.entrySet()) {
                     if (e.getKey() != null && e.getValue() != null) {
@@ -84,7 +215,7 @@ public final class UrlBuilder {
             }
             return ub.build().toString();
         } catch (URISyntaxException e) {
-            throw new UrlException("URL inválida: " + baseUrl, e);
+            throw new UrlException("URL inválida: " + base, e);
         }
     }
 
@@ -159,22 +290,18 @@ public final class UrlBuilder {
     /** Sanitiza identificadores para uso como parte do path (sem regex). */
     private static String sanitize(String value) {
         if (value == null) return "";
+        int first = CharScanner.indexOfNot(value, SANITIZE_SAFE);
+        if (first < 0) return value; // caso comum: nada a substituir
         StringBuilder sb = new StringBuilder(value.length());
-        for (int i = 0; i < value.length(); i++) {
+        sb.append(value, 0, first);
+        for (int i = first; i < value.length(); i++) {
             char c = value.charAt(i);
-            if ((c >= 'A' && c <= 'Z') ||
-                (c >= 'a' && c <= 'z') ||
-                (c >= '0' && c <= '9') ||
-                c == '.' || c == '_' || c == '-') {
-                sb.append(c);
-            } else {
-                sb.append('_');
-            }
+            sb.append(SANITIZE_SAFE.contains(c) ? c : '_');
         }
         return sb.toString();
     }
 
-    /** Escapa para uso em query/form (URLEncoder usa '+' para espaços). */
+    /** Escapa para uso em query/form (URLEncoder usa '+' para espaços); para RFC 3986 por componente, ver {@link UriEncoder}. */
     public static String escape(String s) {
         if (s == null) return null;
         return URLEncoder.encode(s, StandardCharsets.UTF_8);
@@ -182,25 +309,17 @@ public final class UrlBuilder {
 
     /** Verifica se há espaço não escapado. (Linear, sem regex) */
     private static boolean containsUnescapedSpace(String s) {
-        if (s == null) return false;
-        for (int i = 0; i < s.length(); i++) {
-            if (s.charAt(i) == ' ') return true;
-        }
-        return false;
+        return s != null && s.indexOf(' ') >= 0; // String.indexOf é intrínseco (vetorizado)
     }
 
     /** Verifica percent-encoding inválido no path (Linear, sem regex). */
     private static boolean hasInvalidPercentEncoding(String s) {
         if (s == null) return false;
-        for (int i = 0; i < s.length(); i++) {
-            char ch = s.charAt(i);
-            if (ch == '%') {
-                if (i + 2 >= s.length()) return true;
-                char h1 = s.charAt(i + 1);
-                char h2 = s.charAt(i + 2);
-                if (!isHex(h1) || !isHex(h2)) return true;
-                i += 2;
-            }
+        for (int i = s.indexOf('%'); i >= 0; i = s.indexOf('%', i + 3)) {
+            if (i + 2 >= s.length()) return true;
+            char h1 = s.charAt(i + 1);
+            char h2 = s.charAt(i + 2);
+            if (!isHex(h1) || !isHex(h2)) return true;
         }
         return false;
     }
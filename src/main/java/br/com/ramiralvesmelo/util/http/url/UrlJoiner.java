@@ -0,0 +1,72 @@
+package br.com.ramiralvesmelo.util.http.url;
+
+/**
+ * Junção/normalização de path em passada única, escrevendo direto no {@link StringBuilder}.
+ *
+ * Reproduz exatamente o resultado de {@code joinPaths} + {@code normalizePath} + {@code URIBuilder.setPath}:
+ * partes não vazias são unidas por '/', sequências de barras são colapsadas e cada caractere
+ * fora de {@code ALPHA / DIGIT / - . _ ~} é codificado em UTF-8 como %XX (maiúsculo).
+ */
+final class UrlJoiner {
+
+    private UrlJoiner() {}
+
+    /**
+     * Escreve o path resultante de {@code basePath} + {@code parts}, em forma absoluta
+     * (começando por '/'), ou nada se todas as partes forem vazias.
+     */
+    static void appendPath(StringBuilder sb, String basePath, String... parts) {
+        boolean any = appendPart(sb, basePath, false);
+        if (parts != null) {
+            for (String p : parts) {
+                any = appendPart(sb, p, any);
+            }
+        }
+    }
+
+    /** Escreve {@code name[=value]} codificados, precedido de '&' se já houver parâmetro antes. */
+    static void appendQueryParam(StringBuilder sb, String name, String value) {
+        if (sb.length() > 0 && sb.charAt(sb.length() - 1) != '?') {
+            sb.append('&');
+        }
+        appendEncoded(sb, name);
+        if (value != null) {
+            sb.append('=');
+            appendEncoded(sb, value);
+        }
+    }
+
+    /** Codifica todo caractere fora do conjunto "unreserved" (RFC 3986) como %XX UTF-8. */
+    static void appendEncoded(StringBuilder sb, CharSequence s) {
+        UriEncoder.encode(sb, s, UriEncoder.Component.UNRESERVED);
+    }
+
+    // ======================== internals ========================
+
+    private static boolean appendPart(StringBuilder sb, String part, boolean any) {
+        if (part == null || part.isEmpty()) {
+            return any;
+        }
+        // separador virtual entre partes (ou a barra inicial do path absoluto)
+        boolean lastSlash = any && sb.charAt(sb.length() - 1) == '/';
+        if (!lastSlash) {
+            sb.append('/');
+        }
+        lastSlash = true;
+        int n = part.length();
+        int seg = 0;
+        for (int i = 0; i <= n; i++) {
+            if (i < n && part.charAt(i) != '/') continue;
+            if (seg < i) {
+                UriEncoder.encode(sb, part, seg, i, UriEncoder.Component.UNRESERVED);
+                lastSlash = false;
+            }
+            if (i < n && !lastSlash) {
+                sb.append('/');
+                lastSlash = true;
+            }
+            seg = i + 1;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,239 @@
+package br.com.ramiralvesmelo.util.http.url;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import br.com.ramiralvesmelo.util.core.exception.UrlException;
+
+/**
+ * Template de URL compilado uma única vez e expandido muitas vezes (imutável e thread-safe).
+ *
+ * <pre>
+ * UrlTemplate t = UrlTemplate.compile("https://host/api/orders/{orderNumber}/documents/{id}?v={v}");
+ * t.expand(Map.of("orderNumber", "ORD-1", "id", 10, "v", 2)); // https://host/api/orders/ORD-1/documents/10?v=2
+ * </pre>
+ *
+ * - A estrutura é validada na compilação (chaves balanceadas, nomes válidos, URL resultante válida);
+ *   variáveis não são aceitas no esquema/host.
+ * - Cada variável é codificada conforme sua posição: no path o valor vira um único segmento
+ *   ('/', '?' e '#' são codificados); na query '&amp;', '=', '+' e '#' são codificados.
+ *   No primeiro segmento de um template relativo (sem esquema nem autoridade) ':' também é
+ *   codificado, para que um valor como "javascript:..." não vire o esquema da URL.
+ * - A expansão só aloca o {@link StringBuilder} de saída (ou nenhum, com {@link #expandTo}).
+ */
+public final class UrlTemplate {
+
+    /** Onde a variável aparece na URL (define as regras de codificação). */
+    private enum Part { FIRST_SEGMENT, PATH, QUERY, FRAGMENT }
+
+    private final String template;
+    /** literais intercalados com as variáveis: literals.length == names.length + 1 */
+    private final String[] literals;
+    private final String[] names;
+    private final Part[] parts;
+    /** índice de cada ocorrência na lista de variáveis distintas */
+    private final int[] slots;
+    private final List<String> variables;
+    private final int literalLength;
+
+    private UrlTemplate(String template, List<String> literals, List<String> names, List<Part> parts) {
+        this.template = template;
+        this.literals = literals.toArray(String[]::new);
+        this.names = names.toArray(String[]::new);
+        this.parts = parts.toArray(Part[]::new);
+
+        Map<String, Integer> distinct = new LinkedHashMap<>();
+        this.slots = new int[this.names.length];
+        for (int i = 0; i < this.names.length; i++) {
+            slots[i] = distinct.computeIfAbsent(this.names[i], k -> distinct.size());
+        }
+        this.variables = List.copyOf(distinct.keySet());
+
+        int len = 0;
+        for (String l : this.literals) len += l.length();
+        this.literalLength = len;
+    }
+
+    /** Compila o template; lança {@link UrlException} se for inválido. */
+    public static UrlTemplate compile(String template) {
+        Objects.requireNonNull(template, "template");
+        List<String> literals = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        List<Part> parts = new ArrayList<>();
+
+        int pathStart = pathStart(template);
+        // sem esquema/autoridade, até o primeiro '/', '?', '#' ou ':' literal o path pode virar esquema
+        Part part = pathStart == 0 ? Part.FIRST_SEGMENT : Part.PATH;
+        StringBuilder literal = new StringBuilder();
+
+        for (int i = 0; i < template.length(); i++) {
+            char c = template.charAt(i);
+            if (c == '{') {
+                if (i < pathStart) {
+                    throw new UrlException("Variável não permitida no esquema/host: " + template);
+                }
+                int end = template.indexOf('}', i + 1);
+                if (end < 0) {
+                    throw new UrlException("Template com '{' sem fechamento: " + template);
+                }
+                String name = template.substring(i + 1, end);
+                if (!isValidName(name)) {
+                    throw new UrlException("Nome de variável inválido '" + name + "' em: " + template);
+                }
+                literals.add(literal.toString());
+                literal.setLength(0);
+                names.add(name);
+                parts.add(part);
+                i = end;
+            } else if (c == '}') {
+                throw new UrlException("Template com '}' sem abertura: " + template);
+            } else {
+                if (c == '?' && (part == Part.PATH || part == Part.FIRST_SEGMENT)) {
+                    part = Part.QUERY;
+                } else if (c == '#' && part != Part.FRAGMENT) {
+                    part = Part.FRAGMENT;
+                } else if ((c == '/' || c == ':') && part == Part.FIRST_SEGMENT) {
+                    part = Part.PATH;
+                }
+                literal.append(c);
+            }
+        }
+        literals.add(literal.toString());
+
+        UrlTemplate compiled = new UrlTemplate(template, literals, names, parts);
+        compiled.validateStructure();
+        return compiled;
+    }
+
+    /**
+     * Compila um template relativo a uma base já processada (ex.: base "https://host/api" e
+     * template "orders/{orderNumber}"). A base não pode ter query nem fragmento.
+     */
+    public static UrlTemplate compile(BaseUrl base, String relativeTemplate) {
+        Objects.requireNonNull(base, "base");
+        Objects.requireNonNull(relativeTemplate, "relativeTemplate");
+        if (!base.isFast() || base.rawQuery() != null || base.rawFragment() != null) {
+            throw new UrlException("Base não suportada para template (exige autoridade, sem query/fragmento): " + base);
+        }
+        String basePath = base.toUri().getRawPath() == null ? "" : base.toUri().getRawPath();
+        int end = basePath.length();
+        while (end > 0 && basePath.charAt(end - 1) == '/') end--;
+        int start = 0;
+        while (start < relativeTemplate.length() && relativeTemplate.charAt(start) == '/') start++;
+
+        return compile(base.origin() + basePath.substring(0, end) + "/" + relativeTemplate.substring(start));
+    }
+
+    /** Variáveis distintas, na ordem em que aparecem (ordem usada por {@link #expand(Object...)}). */
+    public List<String> getVariables() {
+        return variables;
+    }
+
+    /** Expande usando valores por nome. Todas as variáveis devem estar presentes e não nulas. */
+    public String expand(Map<String, ?> values) {
+        return expandTo(new StringBuilder(literalLength + 16 * names.length), values).toString();
+    }
+
+    /** Expande usando valores posicionais, na ordem de {@link #getVariables()}. */
+    public String expand(Object... values) {
+        return expandTo(new StringBuilder(literalLength + 16 * names.length), values).toString();
+    }
+
+    /** Escreve a expansão em {@code out} e retorna {@code out}. */
+    public StringBuilder expandTo(StringBuilder out, Map<String, ?> values) {
+        Objects.requireNonNull(values, "values");
+        for (int i = 0; i < names.length; i++) {
+            out.append(literals[i]);
+            appendValue(out, i, values.get(names[i]));
+        }
+        return out.append(literals[names.length]);
+    }
+
+    /** Escreve a expansão (valores posicionais) em {@code out} e retorna {@code out}. */
+    public StringBuilder expandTo(StringBuilder out, Object... values) {
+        if (values == null || values.length != variables.size()) {
+            throw new UrlException("Esperados " + variables.size() + " valores para " + variables
+                    + ", recebidos " + (values == null ? 0 : values.length));
+        }
+        for (int i = 0; i < names.length; i++) {
+            out.append(literals[i]);
+            appendValue(out, i, values[slots[i]]);
+        }
+        return out.append(literals[names.length]);
+    }
+
+    @Override
+    public String toString() {
+        return template;
+    }
+
+    // ======================== internals ========================
+
+    private void appendValue(StringBuilder out, int i, Object value) {
+        if (value == null) {
+            throw new UrlException("Variável ausente/nula no template: " + names[i]);
+        }
+        CharSequence text = value instanceof CharSequence cs ? cs : String.valueOf(value);
+        switch (parts[i]) {
+            case FIRST_SEGMENT -> UriEncoder.encode(out, text, UriEncoder.Component.PATH_SEGMENT_NC);
+            case PATH -> UriEncoder.encode(out, text, UriEncoder.Component.PATH_SEGMENT);
+            case QUERY -> UriEncoder.encode(out, text, UriEncoder.Component.QUERY_PARAM);
+            case FRAGMENT -> UriEncoder.encode(out, text, UriEncoder.Component.FRAGMENT);
+        }
+    }
+
+    /** Valida a URL resultante substituindo cada variável por um valor neutro. */
+    private void validateStructure() {
+        StringBuilder probe = new StringBuilder(literalLength + names.length);
+        for (int i = 0; i < names.length; i++) {
+            probe.append(literals[i]).append('x');
+        }
+        probe.append(literals[names.length]);
+        try {
+            new URI(probe.toString());
+        } catch (URISyntaxException e) {
+            throw new UrlException("Template de URL inválido: " + template, e);
+        }
+    }
+
+    /**
+     * Índice onde começa o path (após "scheme://host"), ou 0 se o template não tiver autoridade.
+     * Um "://" antes do primeiro '/', '?' ou '#' marca o esquema, mesmo com variáveis antes dele
+     * (ex.: "{scheme}://host" — rejeitado pelo chamador).
+     */
+    private static int pathStart(String template) {
+        int sep = template.indexOf("://");
+        int auth;
+        if (sep > 0 && sep < firstOf(template, "/?#", 0)) {
+            auth = sep + 3;
+        } else if (template.startsWith("//")) {
+            auth = 2;
+        } else {
+            return 0;
+        }
+        return firstOf(template, "/?#", auth);
+    }
+
+    private static int firstOf(String s, String chars, int from) {
+        for (int i = from; i < s.length(); i++) {
+            if (chars.indexOf(s.charAt(i)) >= 0) return i;
+        }
+        return s.length();
+    }
+
+    private static boolean isValidName(String name) {
+        if (name.isEmpty()) return false;
+        char first = name.charAt(0);
+        if (!(Character.isLetter(first) || first == '_')) return false;
+        for (int i = 1; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!(Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == '.')) return false;
+        }
+        return true;
+    }
+}
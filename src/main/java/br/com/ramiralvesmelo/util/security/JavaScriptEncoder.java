@@ -1,11 +1,44 @@
 package br.com.ramiralvesmelo.util.security;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+import br.com.ramiralvesmelo.util.core.text.CharClass;
+import br.com.ramiralvesmelo.util.core.text.CharScanner;
+
 /**
  * Utilitário para sanitizar strings antes de embutir em JavaScript.
  * Garante que não haja quebras ou caracteres perigosos.
+ *
+ * Passada única orientada a tabela, escrevendo direto num {@link Appendable}
+ * ({@link StringBuilder}, {@link java.io.Writer}...) sem Strings intermediárias:
+ * - '\\', '"', '\n' e '\t' viram escapes JS; '\r' é removido;
+ * - '&lt;', '&gt;', '&amp;' e '\'' viram \\u00XX (seguro dentro de &lt;script&gt;, ex.: "&lt;/script&gt;");
+ * - demais caracteres de controle e U+2028/U+2029 viram \\uXXXX.
  */
 public final class JavaScriptEncoder {
 
+    /** ASCII que passa sem escape: imprimível, exceto os caracteres tratados na tabela. */
+    private static final CharClass SAFE = CharClass.range(' ', '~').without("\\\"<>&'");
+
+    private static final String LINE_SEPARATOR = "\\u2028";
+    private static final String PARAGRAPH_SEPARATOR = "\\u2029";
+
+    /** Substituição por caractere ASCII (null = sem escape). */
+    private static final String[] REPLACEMENT = new String[128];
+
+    static {
+        for (int c = 0; c < 0x20; c++) REPLACEMENT[c] = unicodeEscape((char) c);
+        REPLACEMENT[0x7F] = unicodeEscape((char) 0x7F);
+        REPLACEMENT['\\'] = "\\\\";
+        REPLACEMENT['"'] = "\\\"";
+        REPLACEMENT['\n'] = "\\n";
+        REPLACEMENT['\r'] = "";   // comportamento histórico: CR é removido
+        REPLACEMENT['\t'] = "\\t";
+        for (char c : "<>&'".toCharArray()) REPLACEMENT[c] = unicodeEscape(c);
+    }
+
     private JavaScriptEncoder() {
         // Classe utilitária → não instanciável
     }
@@ -18,14 +51,103 @@ public final class JavaScriptEncoder {
      */
     public static String escape(String value) {
         if (value == null) return "null";
+        int first = nextSpecial(value, 0, value.length());
+        if (first < 0) return "\"" + value + "\""; // caso comum: nada a escapar
+        StringBuilder sb = new StringBuilder(value.length() + 18).append('"').append(value, 0, first);
+        return escapeInto(sb, value, first).append('"').toString();
+    }
+
+    /** Conteúdo escapado, sem aspas; retorna a mesma instância quando nada precisa de escape. */
+    public static String encode(String value) {
+        if (value == null) return null;
+        int first = nextSpecial(value, 0, value.length());
+        if (first < 0) return value;
+        StringBuilder sb = new StringBuilder(value.length() + 16);
+        sb.append(value, 0, first);
+        return escapeInto(sb, value, first).toString();
+    }
+
+    /** Escreve o literal JS (entre aspas, ou {@code null}) em {@code out}. */
+    public static StringBuilder escape(StringBuilder out, CharSequence value) {
+        try {
+            escape((Appendable) out, value);
+            return out;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // StringBuilder não lança IOException
+        }
+    }
+
+    /** Escreve o literal JS (entre aspas, ou {@code null}) em {@code out} (ex.: {@link java.io.Writer}). */
+    public static <A extends Appendable> A escape(A out, CharSequence value) throws IOException {
+        if (value == null) {
+            out.append("null");
+            return out;
+        }
+        out.append('"');
+        escapeFrom(out, value, 0);
+        out.append('"');
+        return out;
+    }
 
-        String sanitized = value
-                .replace("\\", "\\\\")   // escapa barras
-                .replace("\"", "\\\"")   // escapa aspas duplas
-                .replace("\n", "\\n")    // normaliza quebra de linha
-                .replace("\r", "")       // remove CR
-                .replace("\t", "\\t");   // tabulação
+    /** Escreve o conteúdo escapado, sem aspas, em {@code out}. */
+    public static <A extends Appendable> A encode(A out, CharSequence value) throws IOException {
+        escapeFrom(out, value, 0);
+        return out;
+    }
+
+    /** Escreve {@code buf[off, off + len)} escapado, sem aspas (usado pelo {@link JavaScriptJsonWriter}). */
+    static void encode(Writer out, char[] buf, int off, int len) throws IOException {
+        int end = off + len;
+        int run = off;
+        for (int i = off; i < end; i++) {
+            char c = buf[i];
+            if (!needsEscape(c)) continue;
+            if (run < i) out.write(buf, run, i - run);
+            out.write(replacement(c));
+            run = i + 1;
+        }
+        if (run < end) out.write(buf, run, end - run);
+    }
+
+    // ======================== internals ========================
+
+    private static <A extends Appendable> A escapeFrom(A out, CharSequence s, int from) throws IOException {
+        int n = s.length();
+        int run = from;
+        for (int i; (i = nextSpecial(s, run, n)) >= 0; run = i + 1) {
+            if (run < i) out.append(s, run, i);
+            out.append(replacement(s.charAt(i)));
+        }
+        if (run < n) out.append(s, run, n);
+        return out;
+    }
+
+    private static StringBuilder escapeInto(StringBuilder out, String s, int from) {
+        try {
+            escapeFrom((Appendable) out, s, from);
+            return out;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Próximo caractere que precisa de escape em {@code s[from, end)}, ou -1. */
+    private static int nextSpecial(CharSequence s, int from, int end) {
+        for (int i = from; (i = CharScanner.indexOfNot(s, i, end, SAFE)) >= 0; i++) {
+            if (needsEscape(s.charAt(i))) return i;
+        }
+        return -1;
+    }
+
+    private static boolean needsEscape(char c) {
+        return c < 128 ? !SAFE.contains(c) : c == '\u2028' || c == '\u2029';
+    }
+
+    private static String replacement(char c) {
+        return c < 128 ? REPLACEMENT[c] : c == '\u2028' ? LINE_SEPARATOR : PARAGRAPH_SEPARATOR;
+    }
 
-        return "\"" + sanitized + "\"";
+    private static String unicodeEscape(char c) {
+        return String.format("\\u%04X", (int) c);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,132 @@
+package br.com.ramiralvesmelo.util.security;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import br.com.ramiralvesmelo.util.core.exception.IntegrationException;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Serializa objetos (ex.: OrderDto) com Jackson direto para um literal JS seguro, em streaming.
+ *
+ * Equivale a {@code JavaScriptEncoder.escape(mapper.writeValueAsString(value))}, mas sem montar
+ * o JSON nem o literal em memória: o gerador do Jackson escreve num {@link Writer} que escapa
+ * (contexto &lt;script&gt;) e repassa trechos ao destino — memória constante, independente do tamanho.
+ *
+ * <pre>
+ * out.write("var pedido = JSON.parse(");
+ * JavaScriptJsonWriter.write(out, pedido);
+ * out.write(");");
+ * </pre>
+ */
+@Slf4j
+public final class JavaScriptJsonWriter {
+
+    /** Mapper padrão: datas java.time em ISO-8601 (mesma configuração do RestHttpClient). */
+    private static final ObjectMapper DEFAULT_MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private JavaScriptJsonWriter() {
+        // utilitário -> não instanciável
+    }
+
+    /** Escreve {@code value} como literal JS entre aspas, usando o mapper padrão. */
+    public static void write(Writer out, Object value) throws IOException {
+        write(out, DEFAULT_MAPPER, value);
+    }
+
+    /**
+     * Escreve {@code value} serializado por {@code mapper} como literal JS entre aspas.
+     * O {@code out} não é fechado.
+     */
+    public static void write(Writer out, ObjectMapper mapper, Object value) throws IOException {
+        Objects.requireNonNull(out, "Writer não pode ser null");
+        Objects.requireNonNull(mapper, "ObjectMapper não pode ser null");
+        out.write('"');
+        Writer escaping = escapingWriter(out);
+        writerOf(mapper).writeValue(escaping, value);
+        out.write('"');
+    }
+
+    /**
+     * Escreve o literal JS no corpo da resposta, sempre em UTF-8 (definido antes de
+     * {@code getWriter()}, sobrepondo o padrão do container). Content-Type não é alterado,
+     * pois o literal normalmente compõe uma página HTML/JS maior.
+     */
+    public static void writeToResponse(HttpServletResponse response, ObjectMapper mapper, Object value) {
+        try {
+            Objects.requireNonNull(response, "HttpServletResponse não pode ser null");
+            // containers devolvem ISO-8859-1 por padrão (nunca null): caracteres não ASCII
+            // não são escapados e virariam '?'
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            Writer out = response.getWriter();
+            write(out, mapper != null ? mapper : DEFAULT_MAPPER, value);
+            out.flush();
+        } catch (IOException e) {
+            log.error("Erro de I/O ao escrever JSON escapado na resposta HTTP", e);
+            throw new IntegrationException("Falha ao escrever JSON na resposta");
+        } catch (Exception e) {
+            log.error("Erro inesperado ao escrever JSON escapado na resposta HTTP", e);
+            throw new IntegrationException("Erro inesperado ao escrever JSON na resposta");
+        }
+    }
+
+    /**
+     * {@link Writer} que escapa tudo o que recebe ({@link JavaScriptEncoder}, sem aspas) antes de
+     * repassar ao {@code delegate}. {@code close()} apenas faz flush: o destino não é fechado.
+     */
+    public static Writer escapingWriter(Writer delegate) {
+        return new EscapingWriter(Objects.requireNonNull(delegate, "Writer não pode ser null"));
+    }
+
+    // ======================== internals ========================
+
+    /** O gerador não pode fechar o destino (a resposta continua após o literal). */
+    private static ObjectWriter writerOf(ObjectMapper mapper) {
+        return mapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    private static final class EscapingWriter extends Writer {
+        private final Writer delegate;
+
+        EscapingWriter(Writer delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            Objects.checkFromIndexSize(off, len, cbuf.length);
+            JavaScriptEncoder.encode(delegate, cbuf, off, len);
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            JavaScriptEncoder.encode(delegate, str.subSequence(off, off + len));
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            write(new char[] {(char) c}, 0, 1);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.flush();
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package br.com.ramiralvesmelo.util.security.oauth2;
+
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.DefaultResourceRetriever;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+
+/**
+ * {@link JwtDecoder} que evita re-verificar a assinatura do mesmo bearer token a cada requisição.
+ *
+ * - Mantém um cache LRU limitado de tokens já verificados, indexado pelo SHA-256 do token e
+ *   válido até o {@code exp} (tokens expirados são descartados e decodificados de novo).
+ * - Quando criado via {@link #withJwkSetUri(String)}, as chaves JWKS ficam em cache com TTL,
+ *   refresh antecipado e refresh imediato (com rate limit) ao encontrar um {@code kid} desconhecido.
+ *
+ * Uso típico (Spring Security):
+ * <pre>
+ * http.oauth2ResourceServer(o -&gt; o.jwt(j -&gt; j
+ *         .decoder(CachingJwtDecoder.withJwkSetUri(jwkSetUri).issuer(issuer).build())
+ *         .jwtAuthenticationConverter(...)));
+ * </pre>
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    public static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+    private final JwtDecoder delegate;
+    private final int maxEntries;
+    private final Clock clock;
+    private final Map<String, Jwt> verified;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public CachingJwtDecoder(JwtDecoder delegate) {
+        this(delegate, DEFAULT_MAX_ENTRIES, Clock.systemUTC());
+    }
+
+    public CachingJwtDecoder(JwtDecoder delegate, int maxEntries, Clock clock) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.clock = Objects.requireNonNull(clock, "clock");
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries deve ser > 0");
+        }
+        this.maxEntries = maxEntries;
+        this.verified = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Jwt> eldest) {
+                return size() > CachingJwtDecoder.this.maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        if (token == null) {
+            return delegate.decode(null);
+        }
+        String key = sha256(token);
+        Instant now = clock.instant();
+
+        synchronized (verified) {
+            Jwt cached = verified.get(key);
+            if (cached != null) {
+                if (isValidAt(cached, now)) {
+                    hits.increment();
+                    return cached;
+                }
+                verified.remove(key);
+            }
+        }
+
+        misses.increment();
+        Jwt jwt = delegate.decode(token); // verificação fora do lock
+        if (jwt.getExpiresAt() != null && isValidAt(jwt, now)) {
+            synchronized (verified) {
+                verified.put(key, jwt);
+            }
+        }
+        return jwt;
+    }
+
+    /** Remove todos os tokens verificados (ex.: após revogação de chaves). */
+    public void invalidateAll() {
+        synchronized (verified) {
+            verified.clear();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public int size() {
+        synchronized (verified) {
+            return verified.size();
+        }
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    // ======================== internals ========================
+
+    private static boolean isValidAt(Jwt jwt, Instant now) {
+        Instant exp = jwt.getExpiresAt();
+        return exp != null && now.isBefore(exp);
+    }
+
+    private static String sha256(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    // ======================== builder ========================
+
+    /** Cria um builder que busca as chaves no endpoint JWKS informado. */
+    public static Builder withJwkSetUri(String jwkSetUri) {
+        return new Builder(Objects.requireNonNull(jwkSetUri, "jwkSetUri"), null);
+    }
+
+    /** Cria um builder sobre uma fonte de chaves já montada (ex.: chaves estáticas em testes). */
+    public static Builder withJwkSource(JWKSource<SecurityContext> jwkSource) {
+        return new Builder(null, Objects.requireNonNull(jwkSource, "jwkSource"));
+    }
+
+    public static final class Builder {
+        private final String jwkSetUri;
+        private final JWKSource<SecurityContext> jwkSource;
+        private final Set<String> algorithms = new LinkedHashSet<>();
+        private Duration jwksCacheTtl = Duration.ofMinutes(15);
+        private Duration jwksRefreshTimeout = Duration.ofSeconds(15);
+        private Duration jwksMinRefreshInterval = Duration.ofSeconds(30);
+        private Duration connectTimeout = Duration.ofSeconds(3);
+        private Duration readTimeout = Duration.ofSeconds(5);
+        private String issuer;
+        private OAuth2TokenValidator<Jwt> validator;
+        private int maxEntries = DEFAULT_MAX_ENTRIES;
+        private Clock clock = Clock.systemUTC();
+
+        private Builder(String jwkSetUri, JWKSource<SecurityContext> jwkSource) {
+            this.jwkSetUri = jwkSetUri;
+            this.jwkSource = jwkSource;
+        }
+
+        /** Algoritmo JWS aceito (ex.: "RS256", "ES256"); padrão RS256. Pode ser chamado várias vezes. */
+        public Builder jwsAlgorithm(String v) { this.algorithms.add(Objects.requireNonNull(v, "jwsAlgorithm")); return this; }
+        public Builder jwksCacheTtl(Duration v) { this.jwksCacheTtl = Objects.requireNonNull(v, "jwksCacheTtl"); return this; }
+        public Builder jwksRefreshTimeout(Duration v) { this.jwksRefreshTimeout = Objects.requireNonNull(v, "jwksRefreshTimeout"); return this; }
+        /** Intervalo mínimo entre refreshes disparados por {@code kid} desconhecido. */
+        public Builder jwksMinRefreshInterval(Duration v) { this.jwksMinRefreshInterval = Objects.requireNonNull(v, "jwksMinRefreshInterval"); return this; }
+        public Builder connectTimeout(Duration v) { this.connectTimeout = Objects.requireNonNull(v, "connectTimeout"); return this; }
+        public Builder readTimeout(Duration v) { this.readTimeout = Objects.requireNonNull(v, "readTimeout"); return this; }
+        public Builder issuer(String v) { this.issuer = v; return this; }
+        /** Substitui os validadores padrão (timestamps e, se informado, issuer). */
+        public Builder validator(OAuth2TokenValidator<Jwt> v) { this.validator = v; return this; }
+        public Builder maxEntries(int v) { this.maxEntries = v; return this; }
+        public Builder clock(Clock v) { this.clock = Objects.requireNonNull(v, "clock"); return this; }
+
+        public CachingJwtDecoder build() {
+            if (jwksMinRefreshInterval.compareTo(jwksCacheTtl) >= 0) {
+                throw new IllegalArgumentException("jwksMinRefreshInterval deve ser menor que jwksCacheTtl");
+            }
+
+            DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+            processor.setJWSKeySelector(new JWSVerificationKeySelector<>(jwsAlgorithms(), source()));
+            // claims são validados pelo OAuth2TokenValidator do Spring
+            processor.setJWTClaimsSetVerifier((claims, context) -> { });
+
+            NimbusJwtDecoder nimbus = new NimbusJwtDecoder(processor);
+            nimbus.setJwtValidator(validator != null ? validator
+                    : issuer != null ? JwtValidators.createDefaultWithIssuer(issuer)
+                    : JwtValidators.createDefault());
+            return new CachingJwtDecoder(nimbus, maxEntries, clock);
+        }
+
+        private Set<JWSAlgorithm> jwsAlgorithms() {
+            List<String> names = algorithms.isEmpty() ? List.of("RS256") : new ArrayList<>(algorithms);
+            Set<JWSAlgorithm> out = new LinkedHashSet<>();
+            for (String name : names) {
+                out.add(JWSAlgorithm.parse(name));
+            }
+            return out;
+        }
+
+        private JWKSource<SecurityContext> source() {
+            if (jwkSource != null) {
+                return jwkSource;
+            }
+            try {
+                DefaultResourceRetriever retriever = new DefaultResourceRetriever(
+                        (int) connectTimeout.toMillis(), (int) readTimeout.toMillis(),
+                        JWKSourceBuilder.DEFAULT_HTTP_SIZE_LIMIT);
+                return JWKSourceBuilder.<SecurityContext>create(URI.create(jwkSetUri).toURL(), retriever)
+                        .cache(jwksCacheTtl.toMillis(), jwksRefreshTimeout.toMillis())
+                        .refreshAheadCache(true)
+                        .rateLimited(jwksMinRefreshInterval.toMillis())
+                        .retrying(true)
+                        .build();
+            } catch (MalformedURLException | IllegalArgumentException e) {
+                throw new IllegalArgumentException("jwkSetUri inválida: " + jwkSetUri, e);
+            }
+        }
+    }
+}
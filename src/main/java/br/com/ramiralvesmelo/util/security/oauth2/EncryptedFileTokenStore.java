@@ -0,0 +1,173 @@
+package br.com.ramiralvesmelo.util.security.oauth2;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cache persistente (em disco) e criptografado do access_token do {@link OAuth2TokenClient}.
+ *
+ * - AES-256/GCM com chave derivada da senha via PBKDF2 (salt aleatório gravado no arquivo).
+ *   A chave derivada fica em memória por instância: o PBKDF2 só roda de novo se o arquivo trouxer
+ *   outro salt, não a cada renovação do token. Cada gravação usa um IV novo.
+ * - A chave do cliente (endpoint/clientId/scope/audience) é usada como AAD: um arquivo gravado
+ *   por outro cliente não é aceito.
+ * - Gravação atômica (arquivo temporário + move), para não deixar arquivos pela metade.
+ * - Falhas de leitura/escrita nunca quebram a obtenção do token: apenas são registradas em log.
+ *
+ * Formato: MAGIC(4) | salt(16) | iv(12) | AES-GCM( expiresAtEpochSecond(8) | token UTF-8 )
+ */
+@Slf4j
+public class EncryptedFileTokenStore {
+
+    private static final int MAGIC = 0x4F415431; // "OAT1"
+    private static final int SALT_LEN = 16;
+    private static final int IV_LEN = 12;
+    private static final int TAG_BITS = 128;
+    private static final int KEY_BITS = 256;
+    private static final int PBKDF2_ITERATIONS = 65_536;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final Path file;
+    private final char[] passphrase;
+    private volatile DerivedKey derived;
+
+    public EncryptedFileTokenStore(Path file, char[] passphrase) {
+        this.file = Objects.requireNonNull(file, "file");
+        Objects.requireNonNull(passphrase, "passphrase");
+        if (passphrase.length == 0) {
+            throw new IllegalArgumentException("passphrase não pode ser vazia");
+        }
+        this.passphrase = passphrase.clone();
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /** Lê o token gravado para {@code cacheKey}; vazio se ausente, ilegível ou de outro cliente. */
+    public Optional<StoredToken> load(String cacheKey) {
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        try {
+            ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(file));
+            if (in.remaining() < 4 + SALT_LEN + IV_LEN || in.getInt() != MAGIC) {
+                log.warn("Cache de token em formato desconhecido: {}", file);
+                return Optional.empty();
+            }
+            byte[] salt = new byte[SALT_LEN];
+            byte[] iv = new byte[IV_LEN];
+            in.get(salt).get(iv);
+            byte[] cipherText = new byte[in.remaining()];
+            in.get(cipherText);
+
+            Cipher cipher = cipher(Cipher.DECRYPT_MODE, keyFor(salt), iv, cacheKey);
+            ByteBuffer plain = ByteBuffer.wrap(cipher.doFinal(cipherText));
+            Instant expiresAt = Instant.ofEpochSecond(plain.getLong());
+            String token = StandardCharsets.UTF_8.decode(plain).toString();
+            return Optional.of(new StoredToken(token, expiresAt));
+        } catch (IOException | GeneralSecurityException | RuntimeException e) {
+            log.warn("Não foi possível ler o cache de token '{}': {}", file, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /** Grava (substituindo) o token de {@code cacheKey}. */
+    public void save(String cacheKey, String token, Instant expiresAt) {
+        try {
+            DerivedKey current = derived;
+            byte[] salt = current != null ? current.salt() : randomBytes(SALT_LEN);
+            byte[] iv = randomBytes(IV_LEN);
+            byte[] tokenBytes = token.getBytes(StandardCharsets.UTF_8);
+
+            ByteBuffer plain = ByteBuffer.allocate(8 + tokenBytes.length);
+            plain.putLong(expiresAt.getEpochSecond()).put(tokenBytes);
+
+            byte[] cipherText = cipher(Cipher.ENCRYPT_MODE, keyFor(salt), iv, cacheKey).doFinal(plain.array());
+
+            ByteBuffer out = ByteBuffer.allocate(4 + SALT_LEN + IV_LEN + cipherText.length);
+            out.putInt(MAGIC).put(salt).put(iv).put(cipherText);
+
+            Path dir = file.toAbsolutePath().getParent();
+            if (dir != null) {
+                Files.createDirectories(dir);
+            }
+            Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+            try {
+                Files.write(tmp, out.array());
+                move(tmp, file);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException | GeneralSecurityException | RuntimeException e) {
+            log.warn("Não foi possível gravar o cache de token '{}': {}", file, e.getMessage());
+        }
+    }
+
+    // ======================== internals ========================
+
+    /** Chave do salt informado, derivando via PBKDF2 apenas quando o salt muda. */
+    private SecretKeySpec keyFor(byte[] salt) throws GeneralSecurityException {
+        DerivedKey current = derived;
+        if (current != null && Arrays.equals(current.salt(), salt)) {
+            return current.key();
+        }
+        PBEKeySpec spec = new PBEKeySpec(passphrase, salt, PBKDF2_ITERATIONS, KEY_BITS);
+        byte[] key = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(spec).getEncoded();
+        spec.clearPassword();
+        try {
+            SecretKeySpec aesKey = new SecretKeySpec(key, "AES"); // copia a chave
+            derived = new DerivedKey(salt.clone(), aesKey);
+            return aesKey;
+        } finally {
+            Arrays.fill(key, (byte) 0);
+        }
+    }
+
+    private static Cipher cipher(int mode, SecretKeySpec key, byte[] iv, String cacheKey) throws GeneralSecurityException {
+        Cipher c = Cipher.getInstance("AES/GCM/NoPadding");
+        c.init(mode, key, new GCMParameterSpec(TAG_BITS, iv));
+        c.updateAAD(String.valueOf(cacheKey).getBytes(StandardCharsets.UTF_8));
+        return c;
+    }
+
+    private static void move(Path from, Path to) throws IOException {
+        try {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static byte[] randomBytes(int len) {
+        byte[] b = new byte[len];
+        RANDOM.nextBytes(b);
+        return b;
+    }
+
+    /** Chave AES derivada e o salt de origem. */
+    private record DerivedKey(byte[] salt, SecretKeySpec key) {}
+
+    /** Token persistido e seu instante de expiração. */
+    public record StoredToken(String token, Instant expiresAt) {}
+}
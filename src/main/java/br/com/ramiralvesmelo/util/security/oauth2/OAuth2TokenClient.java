@@ -1,31 +1,56 @@
 package br.com.ramiralvesmelo.util.security.oauth2;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Base64;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.Timeout;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * Cliente mínimo e genérico para obter access_token via OAuth2 (grant: client_credentials).
  * - Suporta autenticação do client por BASIC AUTH (header) ou POST (no corpo).
  * - Faz cache do token e renova 30s antes de expirar.
+ * - Usa transporte httpclient5 com pool/keep-alive e timeouts explícitos (ou um RestTemplate injetado).
+ * - Opcionalmente persiste o token em disco criptografado ({@link EncryptedFileTokenStore}),
+ *   evitando que todos os pods busquem token no IdP ao mesmo tempo após um deploy.
+ * - A expiração usa o claim {@code exp} do JWT quando presente; senão, {@code expires_in}.
  */
+@Slf4j
 @Getter
 public class OAuth2TokenClient {
 
     public enum ClientAuthMethod { BASIC, POST }
 
-    private final RestTemplate rest = new RestTemplate();
+    /** Timeouts padrão do transporte interno (token fica no caminho crítico de requisições frias). */
+    public static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(3);
+    public static final Duration DEFAULT_READ_TIMEOUT = Duration.ofSeconds(5);
+    private static final int DEFAULT_MAX_CONNECTIONS = 10;
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final RestTemplate rest;
 
     /** Endpoint completo do token, ex.: https://idp/realms/xxx/protocol/openid-connect/token */
     private final String tokenEndpoint;
@@ -43,6 +68,9 @@ public class OAuth2TokenClient {
     private volatile String cachedToken;
     private volatile Instant expiresAt = Instant.EPOCH;
 
+    // cache persistente opcional
+    private volatile EncryptedFileTokenStore tokenStore;
+
     public OAuth2TokenClient(
             String tokenEndpoint,
             String clientId,
@@ -51,6 +79,21 @@ public class OAuth2TokenClient {
             String scope,
             String audience
     ) {
+        this(tokenEndpoint, clientId, clientSecret, authMethod, scope, audience,
+                pooledRestTemplate(DEFAULT_CONNECT_TIMEOUT, DEFAULT_READ_TIMEOUT, DEFAULT_MAX_CONNECTIONS));
+    }
+
+    /** Permite injetar o transporte (ex.: RestTemplate compartilhado da aplicação). */
+    public OAuth2TokenClient(
+            String tokenEndpoint,
+            String clientId,
+            String clientSecret,
+            ClientAuthMethod authMethod,
+            String scope,
+            String audience,
+            RestTemplate rest
+    ) {
+        this.rest = Objects.requireNonNull(rest, "rest");
         this.tokenEndpoint = Objects.requireNonNull(tokenEndpoint, "tokenEndpoint");
         this.clientId = Objects.requireNonNull(clientId, "clientId");
         this.clientSecret = clientSecret; // pode ser null
@@ -72,6 +115,25 @@ public class OAuth2TokenClient {
         }
     }
 
+    /**
+     * Ativa o cache persistente: carrega imediatamente o token gravado (se ainda válido)
+     * e passa a gravá-lo após cada renovação.
+     */
+    public OAuth2TokenClient withTokenStore(EncryptedFileTokenStore store) {
+        this.tokenStore = Objects.requireNonNull(store, "store");
+        store.load(cacheKey()).ifPresent(stored -> {
+            synchronized (this) {
+                if (Instant.now().isBefore(stored.expiresAt().minusSeconds(30))
+                        && stored.expiresAt().isAfter(expiresAt)) {
+                    this.cachedToken = stored.token();
+                    this.expiresAt = stored.expiresAt();
+                    log.debug("Token OAuth2 carregado do cache persistente (expira em {})", stored.expiresAt());
+                }
+            }
+        });
+        return this;
+    }
+
     /** Headers com Bearer pronto para chamadas HTTP. */
     public HttpHeaders authHeaders() {
         HttpHeaders h = new HttpHeaders();
@@ -90,6 +152,40 @@ public class OAuth2TokenClient {
         return new HttpEntity<>(authHeaders());
     }    
     
+    /**
+     * Cria um RestTemplate sobre httpclient5 com pool de conexões (keep-alive) e timeouts
+     * de conexão/resposta explícitos, evitando um novo handshake TLS a cada busca de token.
+     */
+    public static RestTemplate pooledRestTemplate(Duration connectTimeout, Duration readTimeout, int maxConnections) {
+        Objects.requireNonNull(connectTimeout, "connectTimeout");
+        Objects.requireNonNull(readTimeout, "readTimeout");
+        if (maxConnections <= 0) {
+            throw new IllegalArgumentException("maxConnections deve ser > 0");
+        }
+
+        ConnectionConfig connConfig = ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeout.toMillis()))
+                .build();
+
+        PoolingHttpClientConnectionManager cm = PoolingHttpClientConnectionManagerBuilder.create()
+                .setDefaultConnectionConfig(connConfig)
+                .build();
+        cm.setMaxTotal(maxConnections);
+        cm.setDefaultMaxPerRoute(maxConnections);
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setResponseTimeout(Timeout.ofMilliseconds(readTimeout.toMillis()))
+                .build();
+
+        CloseableHttpClient httpClient = HttpClientBuilder.create()
+                .setConnectionManager(cm)
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .build();
+
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+    }
+
     // ======================== internals ========================
 
     private String fetchAndCacheToken() {
@@ -131,11 +227,41 @@ public class OAuth2TokenClient {
         String token = String.valueOf(m.get("access_token"));
         Number expiresIn = toNumber(m.get("expires_in"), 300);
 
+        Instant exp = jwtExpiry(token).orElseGet(() -> Instant.now().plusSeconds(expiresIn.longValue()));
+
         this.cachedToken = token;
-        this.expiresAt = Instant.now().plusSeconds(expiresIn.longValue());
+        this.expiresAt = exp;
+
+        EncryptedFileTokenStore store = this.tokenStore;
+        if (store != null) {
+            store.save(cacheKey(), token, exp);
+        }
         return token;
     }
 
+    /** Identifica o cliente no cache persistente (um arquivo de outro cliente é rejeitado). */
+    private String cacheKey() {
+        return tokenEndpoint + '|' + clientId + '|' + (scope == null ? "" : scope) + '|' + (audience == null ? "" : audience);
+    }
+
+    /** Lê o claim {@code exp} se o token for um JWT (header.payload.signature); vazio caso contrário. */
+    static Optional<Instant> jwtExpiry(String token) {
+        int first = token.indexOf('.');
+        int second = first < 0 ? -1 : token.indexOf('.', first + 1);
+        if (first <= 0 || second < 0) {
+            return Optional.empty();
+        }
+        try {
+            byte[] payload = Base64.getUrlDecoder().decode(token.substring(first + 1, second));
+            JsonNode exp = JSON.readTree(payload).get("exp");
+            return exp != null && exp.canConvertToLong()
+                    ? Optional.of(Instant.ofEpochSecond(exp.asLong()))
+                    : Optional.empty();
+        } catch (Exception e) {
+            return Optional.empty();
+        }
+    }
+
     private static Number toNumber(Object raw, int def) {
         if (raw instanceof Number n) return n;
         try { return Integer.valueOf(String.valueOf(raw)); } catch (Exception e) { return def; }
@@ -0,0 +1,149 @@
+package br.com.ramiralvesmelo.util.security.role;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * Registro que atribui a cada role conhecida um índice de bit estável, permitindo
+ * representar as roles de um usuário como {@link RoleSet}.
+ *
+ * - Os nomes são registrados sem o prefixo "ROLE_" (ex.: "admin").
+ * - Roles novas recebem índice no primeiro uso, até {@code maxRoles}. Com o registro cheio,
+ *   {@link #of(String...)} (roles exigidas) falha em vez de devolver um RoleSet incompleto.
+ * - {@link #lookup(Collection)} apenas consulta: authorities desconhecidas não ocupam índices.
+ * - Thread-safe; normalmente há um único registro por aplicação.
+ */
+public class RoleRegistry {
+
+    public static final String ROLE_PREFIX = "ROLE_";
+    public static final int DEFAULT_MAX_ROLES = 1024;
+
+    private final int maxRoles;
+    private final Map<String, Integer> indexes = new ConcurrentHashMap<>();
+
+    public RoleRegistry() {
+        this(DEFAULT_MAX_ROLES);
+    }
+
+    public RoleRegistry(int maxRoles) {
+        if (maxRoles <= 0) {
+            throw new IllegalArgumentException("maxRoles deve ser > 0");
+        }
+        this.maxRoles = maxRoles;
+    }
+
+    /** Retorna o índice da role, registrando-a se necessário; -1 se o limite foi atingido. */
+    public int register(String role) {
+        String name = stripPrefix(role);
+        Integer idx = indexes.get(name);
+        if (idx != null) {
+            return idx;
+        }
+        synchronized (indexes) {
+            idx = indexes.get(name);
+            if (idx != null) {
+                return idx;
+            }
+            if (indexes.size() >= maxRoles) {
+                return -1;
+            }
+            int next = indexes.size();
+            indexes.put(name, next);
+            return next;
+        }
+    }
+
+    /** Índice da role já registrada, ou -1 se desconhecida. */
+    public int indexOf(String role) {
+        Integer idx = indexes.get(stripPrefix(role));
+        return idx != null ? idx : -1;
+    }
+
+    public int size() {
+        return indexes.size();
+    }
+
+    /**
+     * RoleSet com as roles informadas (registrando as que ainda não existem).
+     *
+     * @throws IllegalStateException se alguma role não puder ser registrada (limite atingido):
+     *         um RoleSet sem ela tornaria uma exigência "todas as roles" mais permissiva
+     */
+    public RoleSet of(String... roles) {
+        long[] words = new long[wordsFor(indexes.size() + roles.length)];
+        for (String role : roles) {
+            int idx = register(role);
+            if (idx < 0) {
+                throw new IllegalStateException("Limite de " + maxRoles + " roles atingido ao registrar '" + role + "'");
+            }
+            words = set(words, idx);
+        }
+        return new RoleSet(words);
+    }
+
+    /**
+     * RoleSet a partir das authorities do Spring Security. Considera apenas authorities
+     * com prefixo "ROLE_"; as demais (ex.: SCOPE_x) são ignoradas.
+     */
+    public RoleSet of(Collection<? extends GrantedAuthority> authorities) {
+        if (authorities == null || authorities.isEmpty()) {
+            return RoleSet.EMPTY;
+        }
+        long[] words = new long[wordsFor(indexes.size() + authorities.size())];
+        for (GrantedAuthority a : authorities) {
+            String authority = a.getAuthority();
+            if (authority != null && authority.startsWith(ROLE_PREFIX)) {
+                words = set(words, register(authority));
+            }
+        }
+        return new RoleSet(words);
+    }
+
+    /**
+     * Como {@link #of(Collection)}, mas sem registrar: authorities ainda desconhecidas são
+     * ignoradas (nenhuma regra as exige). Usado na verificação de acesso, onde as authorities
+     * vêm do IdP e não devem consumir índices do registro.
+     */
+    public RoleSet lookup(Collection<? extends GrantedAuthority> authorities) {
+        if (authorities == null || authorities.isEmpty()) {
+            return RoleSet.EMPTY;
+        }
+        long[] words = new long[wordsFor(indexes.size())];
+        for (GrantedAuthority a : authorities) {
+            String authority = a.getAuthority();
+            if (authority != null && authority.startsWith(ROLE_PREFIX) && authority.length() > ROLE_PREFIX.length()) {
+                words = set(words, indexOf(authority));
+            }
+        }
+        return new RoleSet(words);
+    }
+
+    // ======================== internals ========================
+
+    private static String stripPrefix(String role) {
+        if (role == null || role.isEmpty()) {
+            throw new IllegalArgumentException("role vazia/nula");
+        }
+        return role.startsWith(ROLE_PREFIX) ? role.substring(ROLE_PREFIX.length()) : role;
+    }
+
+    private int wordsFor(int bits) {
+        return (Math.min(bits, maxRoles) + 63) >>> 6;
+    }
+
+    private static long[] set(long[] words, int index) {
+        if (index < 0) {
+            return words;
+        }
+        int w = index >>> 6;
+        if (w >= words.length) {
+            words = Arrays.copyOf(words, w + 1);
+        }
+        words[w] |= 1L << index;
+        return words;
+    }
+}
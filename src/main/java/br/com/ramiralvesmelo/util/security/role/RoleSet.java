@@ -0,0 +1,83 @@
+package br.com.ramiralvesmelo.util.security.role;
+
+import java.util.Arrays;
+
+/**
+ * Conjunto imutável de roles representado como bitset, usando os índices de um {@link RoleRegistry}.
+ *
+ * As verificações não comparam strings: {@code hasRole} é um teste de bit e
+ * {@code hasAnyRole}/{@code hasAllRoles} são AND entre palavras de 64 bits.
+ */
+public final class RoleSet {
+
+    public static final RoleSet EMPTY = new RoleSet(new long[0]);
+
+    private final long[] words;
+
+    RoleSet(long[] words) {
+        this.words = trim(words);
+    }
+
+    /** true se contém a role de índice {@code index} (índices negativos = role desconhecida). */
+    public boolean hasRole(int index) {
+        if (index < 0) return false;
+        int w = index >>> 6;
+        return w < words.length && (words[w] & (1L << index)) != 0;
+    }
+
+    /** true se há interseção com {@code other}. */
+    public boolean hasAnyRole(RoleSet other) {
+        int n = Math.min(words.length, other.words.length);
+        for (int i = 0; i < n; i++) {
+            if ((words[i] & other.words[i]) != 0) return true;
+        }
+        return false;
+    }
+
+    /** true se contém todas as roles de {@code other}. */
+    public boolean hasAllRoles(RoleSet other) {
+        for (int i = 0; i < other.words.length; i++) {
+            long mine = i < words.length ? words[i] : 0L;
+            if ((mine & other.words[i]) != other.words[i]) return false;
+        }
+        return true;
+    }
+
+    public boolean isEmpty() {
+        return words.length == 0;
+    }
+
+    public int size() {
+        int count = 0;
+        for (long w : words) count += Long.bitCount(w);
+        return count;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof RoleSet other && Arrays.equals(words, other.words));
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(words);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("RoleSet[");
+        for (int i = 0; i < words.length * 64; i++) {
+            if (hasRole(i)) {
+                if (sb.charAt(sb.length() - 1) != '[') sb.append(',');
+                sb.append(i);
+            }
+        }
+        return sb.append(']').toString();
+    }
+
+    private static long[] trim(long[] words) {
+        int len = words.length;
+        while (len > 0 && words[len - 1] == 0L) len--;
+        return len == words.length ? words : Arrays.copyOf(words, len);
+    }
+}
@@ -0,0 +1,51 @@
+package br.com.ramiralvesmelo.util.security.role;
+
+import java.util.Collection;
+import java.util.Objects;
+
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+/**
+ * Authentication de um JWT já validado que carrega, além das authorities, o {@link RoleSet}
+ * correspondente, calculado uma única vez na autenticação.
+ */
+public final class RoleSetAuthenticationToken extends AbstractAuthenticationToken {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient Jwt jwt;
+    private final transient RoleSet roleSet;
+
+    public RoleSetAuthenticationToken(Jwt jwt, Collection<? extends GrantedAuthority> authorities, RoleSet roleSet) {
+        super(authorities);
+        this.jwt = Objects.requireNonNull(jwt, "jwt");
+        this.roleSet = Objects.requireNonNull(roleSet, "roleSet");
+        setAuthenticated(true);
+    }
+
+    public RoleSet getRoleSet() {
+        return roleSet;
+    }
+
+    public Jwt getToken() {
+        return jwt;
+    }
+
+    @Override
+    public Object getPrincipal() {
+        return jwt;
+    }
+
+    @Override
+    public Object getCredentials() {
+        return jwt;
+    }
+
+    @Override
+    public String getName() {
+        String sub = jwt.getSubject();
+        return sub != null ? sub : super.getName();
+    }
+}
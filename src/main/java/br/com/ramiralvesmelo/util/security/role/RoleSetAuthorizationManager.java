@@ -0,0 +1,90 @@
+package br.com.ramiralvesmelo.util.security.role;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.core.Authentication;
+
+/**
+ * {@link AuthorizationManager} que decide por {@link RoleSet} (bitset) em vez de comparar strings.
+ *
+ * As roles exigidas são compiladas uma vez na criação. Se a Authentication for um
+ * {@link RoleSetAuthenticationToken}, o RoleSet já calculado é usado diretamente; caso
+ * contrário ele é derivado das authorities, sem registrar roles desconhecidas
+ * ({@link RoleRegistry#lookup}).
+ *
+ * @throws IllegalStateException na criação, se o registro não comportar as roles exigidas
+ *
+ * Exemplo:
+ * <pre>
+ * http.authorizeHttpRequests(a -&gt; a
+ *         .requestMatchers("/admin/**").access(RoleSetAuthorizationManager.hasRole(registry, "admin"))
+ *         .requestMatchers("/orders/**").access(RoleSetAuthorizationManager.hasAnyRole(registry, "user", "admin")));
+ * </pre>
+ */
+public final class RoleSetAuthorizationManager<T> implements AuthorizationManager<T> {
+
+    private enum Mode { ANY, ALL }
+
+    private final RoleRegistry registry;
+    private final RoleSet required;
+    private final Mode mode;
+
+    private RoleSetAuthorizationManager(RoleRegistry registry, Mode mode, String... roles) {
+        this.registry = Objects.requireNonNull(registry, "registry");
+        if (roles == null || roles.length == 0) {
+            throw new IllegalArgumentException("informe ao menos uma role");
+        }
+        this.required = registry.of(roles);
+        this.mode = mode;
+    }
+
+    public static <T> RoleSetAuthorizationManager<T> hasRole(RoleRegistry registry, String role) {
+        return new RoleSetAuthorizationManager<>(registry, Mode.ANY, role);
+    }
+
+    public static <T> RoleSetAuthorizationManager<T> hasAnyRole(RoleRegistry registry, String... roles) {
+        return new RoleSetAuthorizationManager<>(registry, Mode.ANY, roles);
+    }
+
+    public static <T> RoleSetAuthorizationManager<T> hasAllRoles(RoleRegistry registry, String... roles) {
+        return new RoleSetAuthorizationManager<>(registry, Mode.ALL, roles);
+    }
+
+    @Override
+    public AuthorizationResult authorize(Supplier<Authentication> authentication, T object) {
+        return decide(authentication);
+    }
+
+    /** @deprecated use {@link #authorize(Supplier, Object)} */
+    @Deprecated
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, T object) {
+        return decide(authentication);
+    }
+
+    private AuthorizationDecision decide(Supplier<Authentication> authentication) {
+        Authentication auth = authentication.get();
+        if (auth == null || !auth.isAuthenticated()) {
+            return new AuthorizationDecision(false);
+        }
+        RoleSet granted = roleSetOf(auth);
+        boolean ok = mode == Mode.ALL ? granted.hasAllRoles(required) : granted.hasAnyRole(required);
+        return new AuthorizationDecision(ok);
+    }
+
+    private RoleSet roleSetOf(Authentication auth) {
+        if (auth instanceof RoleSetAuthenticationToken token) {
+            return token.getRoleSet();
+        }
+        return registry.lookup(auth.getAuthorities());
+    }
+
+    @Override
+    public String toString() {
+        return "RoleSetAuthorizationManager[" + mode + " " + required + "]";
+    }
+}
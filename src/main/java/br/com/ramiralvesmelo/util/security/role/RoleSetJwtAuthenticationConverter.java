@@ -0,0 +1,65 @@
+package br.com.ramiralvesmelo.util.security.role;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import br.com.ramiralvesmelo.util.config.KeycloakRoleConverter;
+
+/**
+ * Converte o JWT em {@link RoleSetAuthenticationToken}: as authorities vêm do
+ * {@link KeycloakRoleConverter} e o {@link RoleSet} é consultado no {@link RoleRegistry}
+ * ({@link RoleRegistry#lookup(Collection)}): roles enviadas pelo IdP que nenhuma regra exige
+ * não ocupam índices do registro. As roles são registradas pelos
+ * {@link RoleSetAuthorizationManager}, que devem ser criados na configuração.
+ *
+ * Como o KeycloakRoleConverter devolve a mesma coleção para a mesma combinação de roles,
+ * o RoleSet também é memoizado por coleção (cache limitado), enquanto o registro não cresce.
+ *
+ * Uso: {@code http.oauth2ResourceServer(o -> o.jwt(j -> j.jwtAuthenticationConverter(converter)))}
+ */
+public class RoleSetJwtAuthenticationConverter implements Converter<Jwt, AbstractAuthenticationToken> {
+
+    private static final int MAX_CACHED = 1024;
+
+    private final Converter<Jwt, Collection<GrantedAuthority>> authoritiesConverter;
+    private final RoleRegistry registry;
+    private final Map<Collection<GrantedAuthority>, Cached> roleSets = new ConcurrentHashMap<>();
+
+    /** RoleSet e o tamanho do registro na consulta: roles registradas depois o invalidam. */
+    private record Cached(int registrySize, RoleSet roleSet) {}
+
+    public RoleSetJwtAuthenticationConverter(String clientId, RoleRegistry registry) {
+        this(new KeycloakRoleConverter(clientId), registry);
+    }
+
+    public RoleSetJwtAuthenticationConverter(Converter<Jwt, Collection<GrantedAuthority>> authoritiesConverter,
+                                             RoleRegistry registry) {
+        this.authoritiesConverter = Objects.requireNonNull(authoritiesConverter, "authoritiesConverter");
+        this.registry = Objects.requireNonNull(registry, "registry");
+    }
+
+    @Override
+    public AbstractAuthenticationToken convert(Jwt jwt) {
+        Collection<GrantedAuthority> authorities = authoritiesConverter.convert(jwt);
+        if (authorities == null) {
+            authorities = List.of();
+        }
+        int registrySize = registry.size();
+        Cached cached = roleSets.get(authorities);
+        if (cached == null || cached.registrySize() != registrySize) {
+            cached = new Cached(registrySize, registry.lookup(authorities));
+            if (roleSets.size() < MAX_CACHED || roleSets.containsKey(authorities)) {
+                roleSets.put(authorities, cached);
+            }
+        }
+        return new RoleSetAuthenticationToken(jwt, authorities, cached.roleSet());
+    }
+}
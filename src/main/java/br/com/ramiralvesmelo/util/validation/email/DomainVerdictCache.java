@@ -0,0 +1,108 @@
+package br.com.ramiralvesmelo.util.validation.email;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+import br.com.ramiralvesmelo.util.validation.email.EmailValidator.Reason;
+
+/**
+ * Cache LRU limitado de veredictos de domínio IDN (forma ASCII + resultado da validação das labels).
+ *
+ * Com {@code allowIdn}, cada domínio não ASCII exige {@code IDN.toASCII} e a revalidação das labels;
+ * como a maioria dos endereços compartilha poucos domínios, o veredicto fica em cache e a validação
+ * do domínio vira uma consulta por hash. Domínios ASCII continuam validados em linha, sem alocação.
+ *
+ * <pre>
+ * DomainVerdictCache cache = new DomainVerdictCache(10_000);
+ * EmailUtil.verify("user@täst.de", true, cache);
+ * </pre>
+ *
+ * Thread-safe; uma instância pode ser compartilhada entre threads (ex.: bean singleton).
+ */
+public final class DomainVerdictCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+    /** Veredicto de um domínio: forma ASCII (null se a conversão IDN falhou) e resultado. */
+    public record Verdict(String asciiDomain, Reason reason) {
+        public boolean isValid() {
+            return reason == Reason.VALID;
+        }
+    }
+
+    private final int maxEntries;
+    private final Map<String, Verdict> verdicts;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public DomainVerdictCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public DomainVerdictCache(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries deve ser > 0");
+        }
+        this.maxEntries = maxEntries;
+        this.verdicts = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Verdict> eldest) {
+                return size() > DomainVerdictCache.this.maxEntries;
+            }
+        };
+    }
+
+    /** Veredicto do domínio (parte após o '@'), calculado e guardado na primeira consulta. */
+    public Verdict verdict(String domain) {
+        Objects.requireNonNull(domain, "domain");
+        synchronized (verdicts) {
+            Verdict cached = verdicts.get(domain);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+        }
+        misses.increment();
+        Verdict computed = EmailValidator.checkIdnDomain(domain); // conversão IDN fora do lock
+        synchronized (verdicts) {
+            verdicts.put(domain, computed);
+        }
+        return computed;
+    }
+
+    public void invalidateAll() {
+        synchronized (verdicts) {
+            verdicts.clear();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /** Proporção de acertos (0 quando ainda não houve consultas). */
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0d : (double) h / total;
+    }
+
+    public int size() {
+        synchronized (verdicts) {
+            return verdicts.size();
+        }
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+}
@@ -0,0 +1,327 @@
+package br.com.ramiralvesmelo.util.validation.email;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
+
+import br.com.ramiralvesmelo.util.core.text.CharScanner;
+import br.com.ramiralvesmelo.util.validation.email.EmailValidator.Reason;
+
+/**
+ * Validação de e-mails em lote, em paralelo (fork-join), sem log por linha.
+ *
+ * Retorna um {@link Result} com um {@link BitSet} (bit {@code i} = e-mail {@code i} válido) e a
+ * contagem por {@link Reason}. Entradas aceitas:
+ * - {@link List}: validada direto por índice;
+ * - {@link Stream}: consumida em blocos de {@value #CHUNK} linhas (memória limitada);
+ * - arquivo (uma linha por e-mail, UTF-8): mapeado em memória e lido sem criar String para linhas ASCII;
+ *   arquivos acima de 2 GB são lidos em streaming. Nos dois casos bytes UTF-8 inválidos viram U+FFFD
+ *   (a linha é validada, não interrompe o lote).
+ *
+ * O resultado é indexado por {@code int}: entradas com mais de {@link Integer#MAX_VALUE} e-mails
+ * falham com {@link IllegalStateException} em vez de estourar o total.
+ */
+public final class EmailBulkValidator {
+
+    /** Linhas por tarefa folha (múltiplo de 64: cada tarefa escreve palavras próprias do bitset). */
+    private static final int LEAF = 4096;
+    static final int CHUNK = 1 << 16;
+    private static final Reason[] REASONS = Reason.values();
+
+    private EmailBulkValidator() {}
+
+    /** Resultado de uma validação em lote (imutável). */
+    public static final class Result {
+        private final BitSet valid;
+        private final int total;
+        private final Map<Reason, Long> counts;
+
+        private Result(long[] words, int total, long[] counts) {
+            this.valid = BitSet.valueOf(words);
+            this.total = total;
+            Map<Reason, Long> m = new EnumMap<>(Reason.class);
+            for (Reason r : REASONS) {
+                if (counts[r.ordinal()] > 0) m.put(r, counts[r.ordinal()]);
+            }
+            this.counts = Collections.unmodifiableMap(m);
+        }
+
+        /** Cópia do bitset de válidos, indexado pela posição de entrada. */
+        public BitSet getValid() {
+            return (BitSet) valid.clone();
+        }
+
+        public boolean isValid(int index) {
+            Objects.checkIndex(index, total);
+            return valid.get(index);
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public int getValidCount() {
+            return valid.cardinality();
+        }
+
+        public int getInvalidCount() {
+            return total - getValidCount();
+        }
+
+        /** Quantidade de e-mails com o resultado informado ({@link Reason#VALID} incluso). */
+        public long count(Reason reason) {
+            return counts.getOrDefault(reason, 0L);
+        }
+
+        /** Contagens não nulas por motivo. */
+        public Map<Reason, Long> getCounts() {
+            return counts;
+        }
+
+        @Override
+        public String toString() {
+            return "Result[total=" + total + ", counts=" + counts + "]";
+        }
+    }
+
+    // =========================================================
+    // Entradas
+    // =========================================================
+
+    public static Result validate(List<String> emails, boolean allowIdn) {
+        Objects.requireNonNull(emails, "emails");
+        int n = emails.size();
+        long[] words = new long[words(n)];
+        long[] counts = run(new ListLines(emails, 0), 0, n, allowIdn, words);
+        return new Result(words, n, counts);
+    }
+
+    /**
+     * Consome o stream em blocos, validando cada bloco em paralelo (não fecha o stream).
+     *
+     * @throws IllegalStateException se o stream tiver mais de {@link Integer#MAX_VALUE} e-mails
+     */
+    public static Result validate(Stream<String> emails, boolean allowIdn) {
+        Objects.requireNonNull(emails, "emails");
+        Iterator<String> it = emails.iterator();
+        String[] chunk = new String[CHUNK];
+        long[] words = new long[words(CHUNK)];
+        long[] counts = new long[REASONS.length];
+        int total = 0;
+        while (it.hasNext()) {
+            int size = 0;
+            while (size < CHUNK && it.hasNext()) {
+                chunk[size++] = it.next();
+            }
+            total = checkedTotal(total, size);
+            int from = total - size;
+            if (words.length < words(total)) {
+                words = Arrays.copyOf(words, Math.max(words.length * 2, words(total)));
+            }
+            long[] c = run(new ListLines(Arrays.asList(chunk), from), from, total, allowIdn, words);
+            add(counts, c);
+        }
+        return new Result(words, total, counts);
+    }
+
+    /** Valida um arquivo com um e-mail por linha (UTF-8; '\r' final é ignorado pelo trim). */
+    public static Result validate(Path file, boolean allowIdn) throws IOException {
+        Objects.requireNonNull(file, "file");
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size > Integer.MAX_VALUE) {
+                return validateStreaming(file, allowIdn);
+            }
+            ByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            MappedLines lines = MappedLines.index(buf);
+            int n = lines.size();
+            long[] words = new long[words(n)];
+            long[] counts = run(lines, 0, n, allowIdn, words);
+            return new Result(words, n, counts);
+        }
+    }
+
+    // ======================== internals ========================
+
+    /** Arquivo lido em streaming, com substituição de bytes inválidos como no caminho mapeado. */
+    static Result validateStreaming(Path file, boolean allowIdn) throws IOException {
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(Files.newInputStream(file), decoder))) {
+            return validate(reader.lines(), allowIdn);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static int words(int bits) {
+        return (int) ((bits + 63L) >>> 6);
+    }
+
+    /** Soma um bloco ao total, falhando antes de passar do maior índice representável. */
+    static int checkedTotal(int total, int size) {
+        if (size > Integer.MAX_VALUE - total) {
+            throw new IllegalStateException(
+                    "Lote excede " + Integer.MAX_VALUE + " e-mails (total parcial " + total + " + bloco " + size + ")");
+        }
+        return total + size;
+    }
+
+    private static void add(long[] into, long[] from) {
+        for (int i = 0; i < into.length; i++) into[i] += from[i];
+    }
+
+    private static long[] run(Lines lines, int from, int to, boolean allowIdn, long[] words) {
+        if (to - from <= LEAF) {
+            return new Task(lines, from, to, allowIdn, words).compute();
+        }
+        return ForkJoinPool.commonPool().invoke(new Task(lines, from, to, allowIdn, words));
+    }
+
+    /** Fonte de linhas acessível por índice global. */
+    private interface Lines {
+        /** Linha {@code i}; pode reutilizar {@code view} (uma por tarefa folha). */
+        CharSequence get(int i, AsciiView view);
+    }
+
+    private record ListLines(List<String> list, int base) implements Lines {
+        @Override
+        public CharSequence get(int i, AsciiView view) {
+            return list.get(i - base);
+        }
+    }
+
+    /** Linhas de um arquivo mapeado: linha i = [starts[i], starts[i + 1] - 1). */
+    private record MappedLines(ByteBuffer buf, int[] starts, int size) implements Lines {
+
+        static MappedLines index(ByteBuffer buf) {
+            int limit = buf.limit();
+            int[] starts = new int[1024];
+            int n = 0;
+            int lineStart = 0;
+            for (int i; (i = CharScanner.indexOf(buf, lineStart, limit, (byte) '\n')) >= 0; ) {
+                if (n + 2 > starts.length) starts = Arrays.copyOf(starts, starts.length * 2);
+                starts[n++] = lineStart;
+                lineStart = i + 1;
+            }
+            if (lineStart < limit) { // última linha sem '\n'
+                if (n + 2 > starts.length) starts = Arrays.copyOf(starts, starts.length + 2);
+                starts[n++] = lineStart;
+                starts[n] = limit + 1;
+            } else {
+                starts[n] = lineStart;
+            }
+            return new MappedLines(buf, starts, n);
+        }
+
+        @Override
+        public CharSequence get(int i, AsciiView view) {
+            int start = starts[i];
+            int end = starts[i + 1] - 1;
+            if (CharScanner.indexOfNonAscii(buf, start, end) >= 0) { // decodifica UTF-8
+                byte[] bytes = new byte[end - start];
+                buf.get(start, bytes);
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+            return view.reset(buf, start, end - start);
+        }
+    }
+
+    /** View ASCII reutilizável sobre um trecho do buffer (evita uma String por linha). */
+    private static final class AsciiView implements CharSequence {
+        private ByteBuffer buf;
+        private int offset;
+        private int length;
+
+        AsciiView reset(ByteBuffer buf, int offset, int length) {
+            this.buf = buf;
+            this.offset = offset;
+            this.length = length;
+            return this;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) buf.get(offset + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().substring(start, end);
+        }
+
+        @Override
+        public String toString() {
+            byte[] bytes = new byte[length];
+            buf.get(offset, bytes);
+            return new String(bytes, StandardCharsets.US_ASCII);
+        }
+    }
+
+    /** Valida [from, to) e devolve as contagens por motivo; divide em fronteiras múltiplas de 64. */
+    private static final class Task extends RecursiveTask<long[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Lines lines;
+        private final int from;
+        private final int to;
+        private final boolean allowIdn;
+        private final long[] words;
+
+        Task(Lines lines, int from, int to, boolean allowIdn, long[] words) {
+            this.lines = lines;
+            this.from = from;
+            this.to = to;
+            this.allowIdn = allowIdn;
+            this.words = words;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from > LEAF) {
+                int mid = (from + ((to - from) >>> 1)) & ~63;
+                Task right = new Task(lines, mid, to, allowIdn, words);
+                right.fork();
+                long[] counts = new Task(lines, from, mid, allowIdn, words).compute();
+                add(counts, right.join());
+                return counts;
+            }
+            long[] counts = new long[REASONS.length];
+            AsciiView view = new AsciiView();
+            for (int i = from; i < to; i++) {
+                Reason r = EmailValidator.validate(lines.get(i, view), allowIdn);
+                counts[r.ordinal()]++;
+                if (r == Reason.VALID) {
+                    words[i >>> 6] |= 1L << i;
+                }
+            }
+            return counts;
+        }
+    }
+}
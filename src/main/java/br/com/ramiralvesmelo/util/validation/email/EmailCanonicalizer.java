@@ -0,0 +1,110 @@
+package br.com.ramiralvesmelo.util.validation.email;
+
+import java.net.IDN;
+import java.util.Locale;
+
+/**
+ * Forma canônica de e-mails para deduplicação (imutável e thread-safe).
+ *
+ * <pre>
+ * EmailCanonicalizer c = EmailCanonicalizer.builder().gmailRules(true).build();
+ * c.canonicalize(" John.Doe+news@GoogleMail.com "); // johndoe@gmail.com
+ * </pre>
+ *
+ * Regras: trim, minúsculas (local e domínio), domínio IDN convertido para ASCII e sem ponto final.
+ * Opcionalmente:
+ * - {@code gmailRules}: em gmail.com/googlemail.com remove pontos e a tag "+..." da local-part
+ *   e unifica o domínio em gmail.com;
+ * - {@code stripPlusTags}: remove a tag "+..." da local-part em qualquer domínio.
+ */
+public final class EmailCanonicalizer {
+
+    /** Regras padrão: apenas trim, minúsculas e IDN. */
+    public static final EmailCanonicalizer DEFAULT = builder().build();
+
+    private static final String GMAIL = "gmail.com";
+    private static final String GOOGLEMAIL = "googlemail.com";
+
+    private final boolean allowIdn;
+    private final boolean gmailRules;
+    private final boolean stripPlusTags;
+    private final DomainVerdictCache domainCache;
+
+    private EmailCanonicalizer(Builder b) {
+        this.allowIdn = b.allowIdn;
+        this.gmailRules = b.gmailRules;
+        this.stripPlusTags = b.stripPlusTags;
+        this.domainCache = b.domainCache;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /** Forma canônica do e-mail, ou null se ele for inválido (regras do {@link EmailValidator}). */
+    public String canonicalize(String email) {
+        if (!EmailValidator.validate(email, allowIdn, domainCache).isValid()) {
+            return null;
+        }
+        String trimmed = email.trim();
+        int at = trimmed.indexOf('@');
+        String local = trimmed.substring(0, at).toLowerCase(Locale.ROOT);
+        String domain = asciiDomain(trimmed.substring(at + 1)).toLowerCase(Locale.ROOT);
+        if (domain.endsWith(".")) {
+            domain = domain.substring(0, domain.length() - 1);
+        }
+
+        if (gmailRules && (GMAIL.equals(domain) || GOOGLEMAIL.equals(domain))) {
+            local = withoutTag(local).replace(".", "");
+            domain = GMAIL;
+        } else if (stripPlusTags) {
+            local = withoutTag(local);
+        }
+        return local + '@' + domain;
+    }
+
+    // ======================== internals ========================
+
+    private String asciiDomain(String domain) {
+        if (!allowIdn || isAscii(domain)) {
+            return domain;
+        }
+        if (domainCache != null) {
+            return domainCache.verdict(domain).asciiDomain();
+        }
+        return IDN.toASCII(domain);
+    }
+
+    /** A local-part válida nunca começa com '+', então o resultado não fica vazio. */
+    private static String withoutTag(String local) {
+        int plus = local.indexOf('+');
+        return plus < 0 ? local : local.substring(0, plus);
+    }
+
+    private static boolean isAscii(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) >= 128) return false;
+        }
+        return true;
+    }
+
+    public static final class Builder {
+        private boolean allowIdn = true;
+        private boolean gmailRules;
+        private boolean stripPlusTags;
+        private DomainVerdictCache domainCache;
+
+        private Builder() {}
+
+        /** Aceita domínios IDN, convertendo para ASCII (padrão: true). */
+        public Builder allowIdn(boolean v) { this.allowIdn = v; return this; }
+        public Builder gmailRules(boolean v) { this.gmailRules = v; return this; }
+        public Builder stripPlusTags(boolean v) { this.stripPlusTags = v; return this; }
+        /** Cache opcional para a conversão IDN dos domínios. */
+        public Builder domainCache(DomainVerdictCache v) { this.domainCache = v; return this; }
+
+        public EmailCanonicalizer build() {
+            return new EmailCanonicalizer(this);
+        }
+    }
+}
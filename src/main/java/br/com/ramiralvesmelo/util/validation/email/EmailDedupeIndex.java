@@ -0,0 +1,238 @@
+package br.com.ramiralvesmelo.util.validation.email;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Índice compacto para deduplicar e-mails: guarda apenas o hash (64 ou 128 bits) da forma canônica
+ * numa tabela de endereçamento aberto em arrays primitivos, em vez de um {@code HashSet<String>}.
+ *
+ * <pre>
+ * EmailDedupeIndex seen = EmailDedupeIndex.builder().expectedSize(10_000_000).build();
+ * if (seen.add(email)) { ... primeira ocorrência ... }
+ * </pre>
+ *
+ * - Ocupa de 12 a 23 bytes por e-mail com hash de 64 bits (23 a 46 com 128), contra centenas no HashSet.
+ * - {@code offHeap(true)} aloca a tabela fora do heap (ByteBuffer direto).
+ * - Hash igual não garante e-mail igual: com {@code exactCheck} informado (ex.: consulta no banco),
+ *   um hash já visto é confirmado por ele; se não confirmar, conta como colisão e o e-mail é tratado como novo.
+ * - E-mails inválidos (segundo o {@link EmailCanonicalizer}) não entram no índice.
+ *
+ * Não é thread-safe (como {@code HashSet}); sincronize externamente se compartilhar.
+ */
+public final class EmailDedupeIndex {
+
+    private static final float LOAD_FACTOR = 0.7f;
+    /** Limite de slots: a tabela precisa caber num único buffer (&lt; 2 GB). */
+    private static final int MAX_CAPACITY = 1 << 26;
+
+    private static final long FNV_OFFSET = 0xCBF29CE484222325L;
+
+    private final EmailCanonicalizer canonicalizer;
+    private final Predicate<String> exactCheck;
+    private final boolean wide;
+    private final boolean offHeap;
+    /** longs por slot: 1 (64 bits) ou 2 (128 bits); slot vazio = 0 no primeiro long */
+    private final int stride;
+
+    private LongBuffer table;
+    private int capacity;
+    private int size;
+    private int threshold;
+    private long collisions;
+
+    private EmailDedupeIndex(Builder b) {
+        this.canonicalizer = b.canonicalizer;
+        this.exactCheck = b.exactCheck;
+        this.wide = b.hashBits == 128;
+        this.offHeap = b.offHeap;
+        this.stride = wide ? 2 : 1;
+        allocate(tableSizeFor(b.expectedSize));
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Registra o e-mail; retorna true se for a primeira ocorrência (da forma canônica)
+     * e false se já existia ou se o e-mail for inválido.
+     */
+    public boolean add(String email) {
+        String canonical = canonicalizer.canonicalize(email);
+        if (canonical == null) {
+            return false;
+        }
+        long h1 = hash(canonical);
+        long h2 = wide ? hash2(canonical) : 0L;
+
+        int slot = find(h1, h2);
+        if (slot >= 0) {
+            if (exactCheck == null || exactCheck.test(canonical)) {
+                return false;
+            }
+            collisions++;
+            return true; // hash repetido, mas e-mail diferente: não há como registrar de novo
+        }
+        if (size >= threshold) {
+            resize();
+        }
+        insert(h1, h2);
+        size++;
+        return true;
+    }
+
+    /** true se o e-mail (forma canônica) já foi registrado; confirmado por {@code exactCheck}, se houver. */
+    public boolean contains(String email) {
+        String canonical = canonicalizer.canonicalize(email);
+        if (canonical == null) {
+            return false;
+        }
+        long h1 = hash(canonical);
+        long h2 = wide ? hash2(canonical) : 0L;
+        return find(h1, h2) >= 0 && (exactCheck == null || exactCheck.test(canonical));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Quantidade de hashes repetidos que o {@code exactCheck} não confirmou. */
+    public long getCollisionCount() {
+        return collisions;
+    }
+
+    /** Bytes ocupados pela tabela de hashes. */
+    public long memoryBytes() {
+        return (long) capacity * stride * Long.BYTES;
+    }
+
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    // ======================== internals ========================
+
+    /** Slot do hash, ou -1 se ausente. */
+    private int find(long h1, long h2) {
+        int mask = capacity - 1;
+        for (int slot = (int) mix(h1) & mask; ; slot = (slot + 1) & mask) {
+            long k = table.get(slot * stride);
+            if (k == 0L) return -1;
+            if (k == h1 && (!wide || table.get(slot * stride + 1) == h2)) return slot;
+        }
+    }
+
+    private void insert(long h1, long h2) {
+        int mask = capacity - 1;
+        int slot = (int) mix(h1) & mask;
+        while (table.get(slot * stride) != 0L) {
+            slot = (slot + 1) & mask;
+        }
+        table.put(slot * stride, h1);
+        if (wide) table.put(slot * stride + 1, h2);
+    }
+
+    private void resize() {
+        if (capacity >= MAX_CAPACITY) {
+            throw new IllegalStateException("EmailDedupeIndex cheio (" + size + " e-mails)");
+        }
+        LongBuffer old = table;
+        int oldCapacity = capacity;
+        allocate(capacity << 1);
+        for (int slot = 0; slot < oldCapacity; slot++) {
+            long h1 = old.get(slot * stride);
+            if (h1 != 0L) {
+                insert(h1, wide ? old.get(slot * stride + 1) : 0L);
+            }
+        }
+    }
+
+    private void allocate(int newCapacity) {
+        int longs = newCapacity * stride;
+        this.table = offHeap
+                ? ByteBuffer.allocateDirect(longs * Long.BYTES).asLongBuffer()
+                : LongBuffer.allocate(longs);
+        this.capacity = newCapacity;
+        this.threshold = (int) (newCapacity * LOAD_FACTOR);
+    }
+
+    private static int tableSizeFor(int expected) {
+        long needed = (long) Math.ceil(Math.max(expected, 16) / (double) LOAD_FACTOR);
+        if (needed > MAX_CAPACITY) {
+            throw new IllegalArgumentException("expectedSize acima do suportado: " + expected);
+        }
+        return Integer.highestOneBit((int) needed - 1) << 1;
+    }
+
+    /** Hash de 64 bits dos chars (FNV-1a com finalização); nunca 0, que marca slot vazio. */
+    private static long hash(String s) {
+        long h = FNV_OFFSET;
+        for (int i = 0; i < s.length(); i++) {
+            h = (h ^ s.charAt(i)) * 0x100000001B3L;
+        }
+        h = mix(h ^ s.length());
+        return h == 0L ? 1L : h;
+    }
+
+    /**
+     * Segunda metade do modo 128 bits, independente de {@link #hash}: mistura por char no estilo
+     * MurmurHash3 (multiplicação + rotação, constantes próprias) e finalizador do SplitMix64.
+     * Repetir o FNV-1a com outra semente daria metades correlacionadas, bem abaixo de 128 bits.
+     */
+    private static long hash2(String s) {
+        long h = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < s.length(); i++) {
+            long k = s.charAt(i) * 0x87C37B91114253D5L;
+            k = Long.rotateLeft(k, 31) * 0x4CF5AD432745937FL;
+            h = Long.rotateLeft(h ^ k, 27) * 5 + 0x52DCE729L;
+        }
+        h ^= s.length();
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+
+    /** Finalizador do MurmurHash3 (fmix64). */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    public static final class Builder {
+        private int expectedSize = 1024;
+        private int hashBits = 64;
+        private boolean offHeap;
+        private EmailCanonicalizer canonicalizer = EmailCanonicalizer.DEFAULT;
+        private Predicate<String> exactCheck;
+
+        private Builder() {}
+
+        public Builder expectedSize(int v) { this.expectedSize = v; return this; }
+        /**
+         * 64 (padrão) ou 128: dois hashes de 64 bits independentes (FNV-1a e Murmur3/SplitMix),
+         * tornando colisões desprezíveis mesmo em bilhões de e-mails.
+         */
+        public Builder hashBits(int v) { this.hashBits = v; return this; }
+        public Builder offHeap(boolean v) { this.offHeap = v; return this; }
+        public Builder canonicalizer(EmailCanonicalizer v) { this.canonicalizer = Objects.requireNonNull(v, "canonicalizer"); return this; }
+        /** Confirma se a forma canônica realmente já existe quando o hash coincide. */
+        public Builder exactCheck(Predicate<String> v) { this.exactCheck = v; return this; }
+
+        public EmailDedupeIndex build() {
+            if (hashBits != 64 && hashBits != 128) {
+                throw new IllegalArgumentException("hashBits deve ser 64 ou 128");
+            }
+            if (expectedSize < 0) {
+                throw new IllegalArgumentException("expectedSize deve ser >= 0");
+            }
+            return new EmailDedupeIndex(this);
+        }
+    }
+}
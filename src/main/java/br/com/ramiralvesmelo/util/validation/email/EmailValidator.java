@@ -0,0 +1,212 @@
+package br.com.ramiralvesmelo.util.validation.email;
+
+import java.net.IDN;
+
+/**
+ * Motor de validação de e-mail sem regex, em passada única sobre o {@link CharSequence}.
+ *
+ * Aceita e rejeita exatamente os mesmos e-mails que as regras históricas do {@link EmailUtil}
+ * (trim, um único '@', tamanhos, pontos consecutivos, local-part, labels e TLD), mas:
+ * - não aloca nada quando o domínio é ASCII (IDN só converte domínios com caracteres não ASCII);
+ * - não faz log: devolve um {@link Reason} indicando a primeira regra violada;
+ * - opcionalmente usa um {@link DomainVerdictCache} para não repetir a conversão IDN por domínio.
+ */
+public final class EmailValidator {
+
+    /** Resultado da validação: {@link #VALID} ou a primeira regra violada. */
+    public enum Reason {
+        VALID,
+        NULL,
+        EMPTY,
+        /** '@' ausente, repetido, no início ou no fim. */
+        AT_SIGN,
+        /** local-part &gt; 64 ou domínio fora de 3..253 caracteres. */
+        LENGTH,
+        CONSECUTIVE_DOTS,
+        /** local-part com caractere fora de [A-Za-z0-9._%+-]. */
+        LOCAL_CHARS,
+        /** local-part começando/terminando com caractere não alfanumérico. */
+        LOCAL_EDGE,
+        /** falha na conversão IDN do domínio. */
+        IDN,
+        /** domínio com menos de 2 labels. */
+        DOMAIN_LABELS,
+        /** label vazia ou com mais de 63 caracteres. */
+        LABEL_LENGTH,
+        /** label fora de [A-Za-z0-9] ou com '-' nas pontas. */
+        LABEL_CHARS,
+        /** TLD não composto só de letras (mínimo 2). */
+        TLD;
+
+        public boolean isValid() {
+            return this == VALID;
+        }
+    }
+
+    private static final int MAX_LOCAL = 64;
+    private static final int MIN_DOMAIN = 3;
+    private static final int MAX_DOMAIN = 253;
+    private static final int MAX_LABEL = 63;
+
+    private static final byte ALNUM = 1;
+    private static final byte LOCAL = 2;
+    private static final byte[] CLASS = new byte[128];
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) CLASS[c] = ALNUM | LOCAL;
+        for (char c = 'A'; c <= 'Z'; c++) CLASS[c] = ALNUM | LOCAL;
+        for (char c = '0'; c <= '9'; c++) CLASS[c] = ALNUM | LOCAL;
+        for (char c : "._%+-".toCharArray()) CLASS[c] = LOCAL;
+    }
+
+    private EmailValidator() {}
+
+    public static boolean isValid(CharSequence email) {
+        return validate(email, false) == Reason.VALID;
+    }
+
+    public static boolean isValid(CharSequence email, boolean allowIdn) {
+        return validate(email, allowIdn) == Reason.VALID;
+    }
+
+    public static Reason validate(CharSequence email) {
+        return validate(email, false);
+    }
+
+    public static Reason validate(CharSequence email, boolean allowIdn) {
+        return validate(email, allowIdn, null);
+    }
+
+    /** Como {@link #validate(CharSequence, boolean)}, consultando {@code cache} (opcional) para domínios IDN. */
+    public static Reason validate(CharSequence email, boolean allowIdn, DomainVerdictCache cache) {
+        if (email == null) {
+            return Reason.NULL;
+        }
+        // trim sem cópia (mesma regra de String.trim: caracteres <= ' ')
+        int start = 0;
+        int end = email.length();
+        while (start < end && email.charAt(start) <= ' ') start++;
+        while (end > start && email.charAt(end - 1) <= ' ') end--;
+        if (start == end) {
+            return Reason.EMPTY;
+        }
+
+        // local-part: '@', pontos consecutivos, caracteres permitidos
+        int at = -1;
+        boolean localDots = false;
+        boolean localChars = true;
+        char prev = 0;
+        int i = start;
+        for (; i < end; i++) {
+            char c = email.charAt(i);
+            if (c == '@') {
+                at = i;
+                break;
+            }
+            if (c == '.' && prev == '.') localDots = true;
+            if (c >= 128 || (CLASS[c] & LOCAL) == 0) localChars = false;
+            prev = c;
+        }
+        if (at <= start || at == end - 1) {
+            return Reason.AT_SIGN;
+        }
+
+        // domínio: '@' repetido, pontos consecutivos, não ASCII
+        boolean domainDots = false;
+        boolean ascii = true;
+        prev = 0;
+        for (i = at + 1; i < end; i++) {
+            char c = email.charAt(i);
+            if (c == '@') {
+                return Reason.AT_SIGN;
+            }
+            if (c == '.' && prev == '.') domainDots = true;
+            if (c >= 128) ascii = false;
+            prev = c;
+        }
+
+        int domainLength = end - at - 1;
+        if (at - start > MAX_LOCAL || domainLength < MIN_DOMAIN || domainLength > MAX_DOMAIN) {
+            return Reason.LENGTH;
+        }
+        if (localDots || domainDots) {
+            return Reason.CONSECUTIVE_DOTS;
+        }
+        if (!localChars) {
+            return Reason.LOCAL_CHARS;
+        }
+        if (!isAlnum(email.charAt(start)) || !isAlnum(email.charAt(at - 1))) {
+            return Reason.LOCAL_EDGE;
+        }
+
+        if (allowIdn && !ascii) {
+            String domain = email.subSequence(at + 1, end).toString();
+            return (cache != null ? cache.verdict(domain) : checkIdnDomain(domain)).reason();
+        }
+        return checkLabels(email, at + 1, end);
+    }
+
+    // ======================== internals ========================
+
+    /** Converte o domínio para ASCII (IDN) e valida as labels. */
+    static DomainVerdictCache.Verdict checkIdnDomain(String domain) {
+        String ascii;
+        try {
+            ascii = IDN.toASCII(domain);
+        } catch (IllegalArgumentException ex) {
+            return new DomainVerdictCache.Verdict(null, Reason.IDN);
+        }
+        return new DomainVerdictCache.Verdict(ascii, checkLabels(ascii, 0, ascii.length()));
+    }
+
+    /** Valida as labels de {@code s[start, end)} com a semântica de {@code split("\\.")}. */
+    private static Reason checkLabels(CharSequence s, int start, int end) {
+        // split descarta as labels vazias do final
+        while (end > start && s.charAt(end - 1) == '.') end--;
+
+        int labels = start == end ? 0 : 1;
+        for (int i = start; i < end; i++) {
+            if (s.charAt(i) == '.') labels++;
+        }
+        if (labels < 2) {
+            return Reason.DOMAIN_LABELS;
+        }
+
+        int labelStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i < end && s.charAt(i) != '.') continue;
+            Reason r = checkLabel(s, labelStart, i, i == end);
+            if (r != Reason.VALID) return r;
+            labelStart = i + 1;
+        }
+        return Reason.VALID;
+    }
+
+    private static Reason checkLabel(CharSequence s, int start, int end, boolean tld) {
+        int len = end - start;
+        if (len == 0 || len > MAX_LABEL) {
+            return Reason.LABEL_LENGTH;
+        }
+        if (!isAlnum(s.charAt(start)) || !isAlnum(s.charAt(end - 1))) {
+            return Reason.LABEL_CHARS;
+        }
+        boolean letters = true;
+        for (int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            if (!isAlnum(c)) {
+                if (c != '-') return Reason.LABEL_CHARS;
+                letters = false;
+            } else if (c <= '9') {
+                letters = false;
+            }
+        }
+        if (tld && (!letters || len < 2)) {
+            return Reason.TLD;
+        }
+        return Reason.VALID;
+    }
+
+    private static boolean isAlnum(char c) {
+        return c < 128 && (CLASS[c] & ALNUM) != 0;
+    }
+}
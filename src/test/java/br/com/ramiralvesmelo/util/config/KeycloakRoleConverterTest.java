@@ -2,9 +2,12 @@ package br.com.ramiralvesmelo.util.config;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -76,4 +79,54 @@ class KeycloakRoleConverterTest {
         assertNotNull(out);
         assertTrue(out.isEmpty());
     }
+
+    @Test
+    void deveReusarColecaoImutavelParaMesmaCombinacaoDeRoles() {
+        var converter = new KeycloakRoleConverter("app-api");
+
+        var a = converter.convert(jwtCom(Map.of("realm_access", Map.of("roles", List.of("admin", "user")))));
+        // coleção diferente, mesmo conteúdo
+        var b = converter.convert(jwtCom(Map.of("realm_access", Map.of("roles", new ArrayList<>(List.of("admin", "user"))))));
+
+        assertSame(a, b);
+        assertEquals(1, converter.cachedCombinations());
+        assertThrows(UnsupportedOperationException.class, () -> a.add(a.iterator().next()));
+    }
+
+    @Test
+    void deveCompartilharInstanciaDeAuthorityPorRole() {
+        var converter = new KeycloakRoleConverter("app-api");
+
+        var a = converter.convert(jwtCom(Map.of("realm_access", Map.of("roles", List.of("admin")))));
+        var b = converter.convert(jwtCom(Map.of("realm_access", Map.of("roles", List.of("user", "admin")))));
+
+        assertSame(a.iterator().next(), b.stream().skip(1).findFirst().orElseThrow());
+        assertEquals("ROLE_user", b.iterator().next().getAuthority());
+    }
+
+    @Test
+    void naoDeveMemoizarAcimaDoLimite() {
+        var converter = new KeycloakRoleConverter("app-api", 0);
+
+        var out = converter.convert(jwtCom(Map.of("realm_access", Map.of("roles", List.of("admin")))));
+
+        assertEquals(1, out.size());
+        assertEquals(0, converter.cachedCombinations());
+        assertThrows(IllegalArgumentException.class, () -> new KeycloakRoleConverter("x", -1));
+    }
+
+    @Test
+    void deveIgnorarRolesNulasOuEmBranco() {
+        var converter = new KeycloakRoleConverter("app-api");
+        List<String> roles = new ArrayList<>();
+        roles.add("admin");
+        roles.add(null);
+        roles.add(" ");
+
+        var out = converter.convert(jwtCom(Map.of("realm_access", Map.of("roles", roles))));
+        var again = converter.convert(jwtCom(Map.of("realm_access", Map.of("roles", roles))));
+
+        assertEquals(List.of("ROLE_admin"), out.stream().map(GrantedAuthority::getAuthority).toList());
+        assertSame(out, again);
+    }
 }
@@ -0,0 +1,35 @@
+package br.com.ramiralvesmelo.util.core.text;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CharClassTest {
+
+    @Test
+    @DisplayName("pertinência, união, complemento e igualdade")
+    void operacoes() {
+        CharClass c = CharClass.ALNUM.with("-_");
+        assertThat(c.contains('a')).isTrue();
+        assertThat(c.contains('Z')).isTrue();
+        assertThat(c.contains('5')).isTrue();
+        assertThat(c.contains('_')).isTrue();
+        assertThat(c.contains('@')).isFalse();
+        assertThat(c.contains('é')).isFalse();
+        assertThat(c.contains((byte) 0xC3)).isFalse();
+        assertThat(c.negate().contains('@')).isTrue();
+        assertThat(c.negate().contains('a')).isFalse();
+        assertThat(CharClass.ALPHA.union(CharClass.DIGIT)).isEqualTo(CharClass.ALNUM);
+        assertThat(CharClass.of("ba").toString()).isEqualTo("CharClass[ab]");
+    }
+
+    @Test
+    @DisplayName("rejeita caracteres fora do ASCII")
+    void apenasAscii() {
+        assertThrows(IllegalArgumentException.class, () -> CharClass.of("é"));
+        assertThrows(IllegalArgumentException.class, () -> CharClass.range('z', 'a'));
+        assertThrows(IllegalArgumentException.class, () -> CharClass.range('a', 'é'));
+    }
+}
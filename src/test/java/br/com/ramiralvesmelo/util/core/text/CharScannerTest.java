@@ -0,0 +1,80 @@
+package br.com.ramiralvesmelo.util.core.text;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CharScannerTest {
+
+    private static final CharClass EMAIL_LOCAL = CharClass.ALNUM.with("._%+-");
+    /** mais faixas que o limite SWAR: força o laço escalar */
+    private static final CharClass SPARSE = CharClass.of("acegikmoqsuwy02468");
+
+    @Test
+    @DisplayName("CharSequence: primeiro caractere fora/dentro da classe")
+    void charSequence_ok() {
+        assertThat(CharScanner.indexOfNot("john.doe+tag", EMAIL_LOCAL)).isEqualTo(-1);
+        assertThat(CharScanner.indexOfNot("john.doe@x", EMAIL_LOCAL)).isEqualTo(8);
+        assertThat(CharScanner.indexOfNot("abcdé", EMAIL_LOCAL)).isEqualTo(4);
+        assertThat(CharScanner.indexOfNot("", EMAIL_LOCAL)).isEqualTo(-1);
+        assertThat(CharScanner.indexOfNot("ab cd", 3, 5, EMAIL_LOCAL)).isEqualTo(-1);
+        assertThat(CharScanner.indexOfAny("abcdefgh\"", 0, 9, CharClass.of("\"\\"))).isEqualTo(8);
+        assertThat(CharScanner.indexOfAny(new StringBuilder("abc"), 0, 3, CharClass.DIGIT)).isEqualTo(-1);
+    }
+
+    @Test
+    @DisplayName("SWAR em ByteBuffer: mesmo resultado do laço escalar (aleatório, ambas as ordens de bytes)")
+    void byteBuffer_equivalenteAoEscalar() {
+        Random rnd = new Random(7);
+        byte[] alphabet = "abcXYZ019._%+-@ \n\"~".getBytes();
+        for (int n = 0; n < 20_000; n++) {
+            byte[] data = new byte[rnd.nextInt(40)];
+            for (int i = 0; i < data.length; i++) {
+                data[i] = rnd.nextInt(50) == 0 ? (byte) (0x80 | rnd.nextInt(128)) : alphabet[rnd.nextInt(alphabet.length)];
+                if (rnd.nextInt(4) != 0 && i > 0) data[i] = (byte) 'a'; // longas sequências válidas
+            }
+            ByteBuffer buf = ByteBuffer.wrap(data).order(n % 2 == 0 ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN);
+            int from = data.length == 0 ? 0 : rnd.nextInt(data.length);
+            int to = data.length;
+
+            assertThat(CharScanner.indexOfNot(buf, from, to, EMAIL_LOCAL)).isEqualTo(scalarIndexOfNot(data, from, to, EMAIL_LOCAL));
+            assertThat(CharScanner.indexOfNot(buf, from, to, SPARSE)).isEqualTo(scalarIndexOfNot(data, from, to, SPARSE));
+            assertThat(CharScanner.indexOf(buf, from, to, (byte) '\n')).isEqualTo(scalarIndexOf(data, from, to, (byte) '\n'));
+            assertThat(CharScanner.indexOfNonAscii(buf, from, to)).isEqualTo(scalarNonAscii(data, from, to));
+        }
+    }
+
+    @Test
+    @DisplayName("SWAR: classes com extremos da tabela ASCII (0x00 e 0x7F)")
+    void byteBuffer_extremos() {
+        CharClass all = CharClass.range((char) 0, (char) 127);
+        byte[] data = new byte[64];
+        for (int i = 0; i < data.length; i++) data[i] = (byte) (i * 2);
+        ByteBuffer buf = ByteBuffer.wrap(data);
+        assertThat(CharScanner.indexOfNot(buf, 0, 64, all)).isEqualTo(-1);
+        assertThat(CharScanner.indexOfNot(buf, 0, 64, all.negate())).isZero();
+        data[40] = (byte) 0xC3;
+        assertThat(CharScanner.indexOfNot(buf, 0, 64, all)).isEqualTo(40);
+        assertThat(CharScanner.indexOf(buf, 0, 64, (byte) 0xC3)).isEqualTo(40);
+    }
+
+    private static int scalarIndexOfNot(byte[] d, int from, int to, CharClass c) {
+        for (int i = from; i < to; i++) if (d[i] < 0 || !c.contains((char) d[i])) return i;
+        return -1;
+    }
+
+    private static int scalarIndexOf(byte[] d, int from, int to, byte b) {
+        for (int i = from; i < to; i++) if (d[i] == b) return i;
+        return -1;
+    }
+
+    private static int scalarNonAscii(byte[] d, int from, int to) {
+        for (int i = from; i < to; i++) if (d[i] < 0) return i;
+        return -1;
+    }
+}
@@ -0,0 +1,192 @@
+package br.com.ramiralvesmelo.util.http.file;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+class AsyncChannelWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    /** Socket simulado: aceita {@code budget} escritas e depois fica "cheio" até novo onWritePossible. */
+    static class SlowServletOutputStream extends ServletOutputStream {
+        final ByteArrayOutputStream delegate = new ByteArrayOutputStream();
+        WriteListener listener;
+        int budget;
+        int writes;
+
+        @Override
+        public boolean isReady() {
+            return budget > 0;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            this.listener = writeListener;
+        }
+
+        @Override
+        public void write(int b) {
+            delegate.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            delegate.write(b, off, len);
+            budget--;
+            writes++;
+        }
+
+        /** O container avisando que o socket voltou a aceitar escrita. */
+        void drain(int writes) throws IOException {
+            budget = writes;
+            listener.onWritePossible();
+        }
+    }
+
+    private HttpServletRequest request;
+    private AsyncContext async;
+    private HttpServletResponse response;
+    private SlowServletOutputStream out;
+
+    private void mocks(boolean asyncSupported) throws IOException {
+        request = mock(HttpServletRequest.class);
+        async = mock(AsyncContext.class);
+        response = mock(HttpServletResponse.class);
+        out = new SlowServletOutputStream();
+        when(request.getMethod()).thenReturn("GET");
+        when(request.isAsyncSupported()).thenReturn(asyncSupported);
+        when(request.startAsync()).thenReturn(async);
+        when(response.getOutputStream()).thenReturn(out);
+    }
+
+    private Path arquivo(byte[] data) throws IOException {
+        return Files.write(tempDir.resolve("video.mp4"), data);
+    }
+
+    private static byte[] aleatorio(int size) {
+        byte[] data = new byte[size];
+        new Random(3).nextBytes(data);
+        return data;
+    }
+
+    @Test
+    void deveEnviarApenasQuandoOSocketAceitaEscrita() throws Exception {
+        byte[] data = aleatorio(5 * AsyncChannelWriter.BUFFER_SIZE + 10);
+        mocks(true);
+
+        CompletableFuture<Void> done = FileResponseWriter.writeFileToResponseAsync(request, response, arquivo(data), null);
+
+        assertFalse(done.isDone()); // thread do servlet liberado antes do envio
+        verify(async).setTimeout(AsyncChannelWriter.timeoutMillis(data.length));
+        verify(response).setContentLengthLong(data.length);
+
+        out.drain(2);
+        assertEquals(2, out.writes);
+        assertFalse(done.isDone());
+
+        while (!done.isDone()) out.drain(2);
+        assertEquals(6, out.writes);
+        assertArrayEquals(data, out.delegate.toByteArray());
+        verify(async).complete();
+    }
+
+    @Test
+    void deveEnviarIntervaloUnicoDeFormaAssincrona() throws Exception {
+        byte[] data = aleatorio(100_000);
+        mocks(true);
+        when(request.getHeader("Range")).thenReturn("bytes=50000-59999");
+
+        CompletableFuture<Void> done = FileResponseWriter.writeFileToResponseAsync(request, response, arquivo(data), null);
+        while (!done.isDone()) out.drain(1);
+
+        verify(response).setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        verify(response).setHeader("Content-Range", "bytes 50000-59999/100000");
+        assertArrayEquals(Arrays.copyOfRange(data, 50_000, 60_000), out.delegate.toByteArray());
+    }
+
+    @Test
+    void deveResponderDeFormaSincronaSemSuporteAAsyncOuCom304() throws Exception {
+        byte[] data = aleatorio(1000);
+        Path file = arquivo(data);
+
+        mocks(false);
+        out.budget = Integer.MAX_VALUE;
+        CompletableFuture<Void> done = FileResponseWriter.writeFileToResponseAsync(request, response, file, null);
+        assertTrue(done.isDone());
+        verify(request, never()).startAsync();
+        assertArrayEquals(data, out.delegate.toByteArray());
+
+        mocks(true);
+        when(request.getHeader("If-None-Match")).thenReturn("*");
+        done = FileResponseWriter.writeFileToResponseAsync(request, response, file, null);
+        assertTrue(done.isDone());
+        verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        verify(request, never()).startAsync();
+    }
+
+    @Test
+    void deveCompletarComErroQuandoClienteDesconecta() throws Exception {
+        mocks(true);
+        CompletableFuture<Void> done = FileResponseWriter.writeFileToResponseAsync(
+                request, response, arquivo(aleatorio(100_000)), null);
+
+        out.drain(1);
+        out.listener.onError(new IOException("conexão encerrada"));
+
+        assertTrue(done.isCompletedExceptionally());
+        verify(async).complete();
+        out.drain(1); // chamadas tardias não fazem nada
+        verify(async, times(1)).complete();
+    }
+
+    @Test
+    void deveLiberarArquivoQuandoClienteParaDeLerAteOTimeout() throws Exception {
+        mocks(true);
+        CompletableFuture<Void> done = FileResponseWriter.writeFileToResponseAsync(
+                request, response, arquivo(aleatorio(100_000)), null);
+        ArgumentCaptor<AsyncListener> listener = ArgumentCaptor.forClass(AsyncListener.class);
+        verify(async).addListener(listener.capture());
+        verify(async).setTimeout(longThat(t -> t > 0));
+
+        out.drain(1); // cliente para de ler: o socket nunca mais fica pronto
+        listener.getValue().onTimeout(new AsyncEvent(async));
+
+        ExecutionException e = assertThrows(ExecutionException.class, done::get);
+        assertInstanceOf(TimeoutException.class, e.getCause());
+        verify(async).complete();
+        listener.getValue().onComplete(new AsyncEvent(async)); // complete() do timeout
+        out.drain(1);
+        verify(async, times(1)).complete();
+        assertEquals(1, out.writes);
+    }
+
+    @Test
+    void timeout_deveCrescerComOTamanhoDoEnvio() {
+        assertEquals(AsyncChannelWriter.MIN_TIMEOUT_MS, AsyncChannelWriter.timeoutMillis(0));
+        assertEquals(AsyncChannelWriter.MIN_TIMEOUT_MS + 10_000,
+                AsyncChannelWriter.timeoutMillis(10 * AsyncChannelWriter.MIN_BYTES_PER_SECOND));
+    }
+}
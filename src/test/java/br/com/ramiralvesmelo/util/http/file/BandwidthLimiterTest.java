@@ -0,0 +1,113 @@
+package br.com.ramiralvesmelo.util.http.file;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class BandwidthLimiterTest {
+
+    private static final long MB = 1024 * 1024;
+
+    @Test
+    void construtor_deveRejeitarValoresNaoPositivos() {
+        assertThrows(IllegalArgumentException.class, () -> new BandwidthLimiter(0));
+        assertThrows(IllegalArgumentException.class, () -> new BandwidthLimiter(MB, 0));
+        assertEquals(MB, new BandwidthLimiter(MB).getBurstBytes());
+    }
+
+    @Test
+    void acquire_naoDeveEsperarDentroDaRajada() throws Exception {
+        BandwidthLimiter limiter = new BandwidthLimiter(MB, 64 * 1024);
+        assertEquals(0, limiter.acquire(64 * 1024));
+        assertEquals(64 * 1024, limiter.getBytesSent());
+        assertEquals(Duration.ZERO, limiter.getThrottledTime());
+    }
+
+    @Test
+    void acquire_deveEsperarProporcionalmenteAoExcesso() throws Exception {
+        BandwidthLimiter limiter = new BandwidthLimiter(MB, 64 * 1024);
+        limiter.acquire(64 * 1024);
+
+        long inicio = System.nanoTime();
+        long espera = limiter.acquire(100 * 1024); // ~100 ms a 1 MB/s
+        long decorrido = System.nanoTime() - inicio;
+
+        assertTrue(espera > Duration.ofMillis(80).toNanos(), "espera=" + espera);
+        assertTrue(decorrido >= espera);
+        assertEquals(espera, limiter.getThrottledTime().toNanos());
+        assertEquals(164 * 1024, limiter.getBytesSent());
+    }
+
+    @Test
+    void record_deveContabilizarSemEsperarEDeixarDebito() throws Exception {
+        BandwidthLimiter limiter = new BandwidthLimiter(MB, 64 * 1024);
+        limiter.record(200 * 1024);
+        assertEquals(200 * 1024, limiter.getBytesSent());
+        assertEquals(Duration.ZERO, limiter.getThrottledTime());
+
+        assertTrue(limiter.acquire(1) > Duration.ofMillis(100).toNanos()); // paga o débito
+    }
+
+    @Test
+    void acquire_deveLancarInterruptedIOExceptionEPreservarInterrupcao() {
+        BandwidthLimiter limiter = new BandwidthLimiter(1024, 1024);
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(InterruptedIOException.class, () -> limiter.acquire(MB));
+            assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    void throttledOutputStream_deveLiberarBytesIniciaisSemEsperaEContabilizarNoGlobal() throws Exception {
+        byte[] data = new byte[3 * ThrottledOutputStream.CHUNK + 7];
+        new Random(1).nextBytes(data);
+        BandwidthLimiter global = new BandwidthLimiter(1024, 1024); // esperaria segundos se aplicado
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+
+        try (ThrottledOutputStream out = new ThrottledOutputStream(sink, null, global, data.length)) {
+            out.write(data, 0, 10);
+            out.write(data[10]);
+            out.write(data, 11, data.length - 11);
+            assertEquals(data.length, out.getBytesWritten());
+            assertEquals(Duration.ZERO, out.getThrottledTime());
+        }
+        assertArrayEquals(data, sink.toByteArray());
+        assertEquals(data.length, global.getBytesSent());
+    }
+
+    @Test
+    void throttledOutputStream_deveLimitarApenasOExcedenteDaCotaLivre() throws Exception {
+        byte[] data = new byte[ThrottledOutputStream.CHUNK];
+        BandwidthLimiter porResposta = new BandwidthLimiter(1024, 1024); // o bloco inteiro esperaria ~15 s
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+
+        try (ThrottledOutputStream out = new ThrottledOutputStream(sink, porResposta, null, data.length - 100)) {
+            out.write(data);
+            assertEquals(Duration.ZERO, out.getThrottledTime());
+        }
+        assertEquals(data.length, sink.size());
+        assertEquals(100, porResposta.getBytesSent());
+    }
+
+    @Test
+    void throttledOutputStream_deveAplicarLimitePorResposta() throws Exception {
+        byte[] data = new byte[8 * ThrottledOutputStream.CHUNK]; // 128 KB a 1 MB/s ≈ 110 ms
+        BandwidthLimiter porResposta = new BandwidthLimiter(MB, ThrottledOutputStream.CHUNK);
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+
+        try (ThrottledOutputStream out = new ThrottledOutputStream(sink, porResposta, null, 0)) {
+            out.write(data);
+            assertTrue(out.getThrottledTime().toMillis() >= 80, "aguardou " + out.getThrottledTime());
+        }
+        assertEquals(data.length, sink.size());
+        assertEquals(data.length, porResposta.getBytesSent());
+    }
+}
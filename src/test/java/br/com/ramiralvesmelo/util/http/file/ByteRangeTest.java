@@ -0,0 +1,57 @@
+package br.com.ramiralvesmelo.util.http.file;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class ByteRangeTest {
+
+    @Test
+    void parse_deveInterpretarIntervalosSimples() {
+        assertEquals(List.of(new ByteRange(0, 99)), ByteRange.parse("bytes=0-99", 1000));
+        assertEquals(List.of(new ByteRange(500, 999)), ByteRange.parse("bytes=500-", 1000));
+        assertEquals(List.of(new ByteRange(900, 999)), ByteRange.parse("bytes=-100", 1000));
+        assertEquals(List.of(new ByteRange(0, 999)), ByteRange.parse(" Bytes=0-5000 ", 1000));
+    }
+
+    @Test
+    void parse_deveLimitarAoTamanhoDoRecurso() {
+        assertEquals(List.of(new ByteRange(10, 19)), ByteRange.parse("bytes=10-50", 20));
+        assertEquals(List.of(new ByteRange(0, 19)), ByteRange.parse("bytes=-50", 20));
+    }
+
+    @Test
+    void parse_deveOrdenarEUnirSobrepostosEAdjacentes() {
+        assertEquals(List.of(new ByteRange(0, 20), new ByteRange(50, 59)),
+                ByteRange.parse("bytes=50-59, 0-9 ,10-15,12-20", 100));
+    }
+
+    @Test
+    void parse_deveRetornarNullQuandoCabecalhoInvalidoOuAusente() {
+        assertNull(ByteRange.parse(null, 100));
+        assertNull(ByteRange.parse("items=0-1", 100));
+        assertNull(ByteRange.parse("bytes=abc", 100));
+        assertNull(ByteRange.parse("bytes=5-1", 100));
+        assertNull(ByteRange.parse("bytes=-", 100));
+        assertNull(ByteRange.parse("bytes=0-1,", 100));
+        assertNull(ByteRange.parse("bytes=0-1" + ",2-3".repeat(ByteRange.MAX_RANGES), 100));
+    }
+
+    @Test
+    void parse_deveRetornarListaVaziaQuandoNaoSatisfatorio() {
+        assertEquals(List.of(), ByteRange.parse("bytes=100-200", 100));
+        assertEquals(List.of(), ByteRange.parse("bytes=-0", 100));
+        assertEquals(List.of(), ByteRange.parse("bytes=-10", 0));
+    }
+
+    @Test
+    void deveCalcularTamanhoEContentRange() {
+        ByteRange range = new ByteRange(10, 19);
+        assertEquals(10, range.length());
+        assertEquals("bytes 10-19/100", range.contentRange(100));
+        assertThrows(IllegalArgumentException.class, () -> new ByteRange(5, 4));
+        assertThrows(IllegalArgumentException.class, () -> new ByteRange(-1, 4));
+    }
+}
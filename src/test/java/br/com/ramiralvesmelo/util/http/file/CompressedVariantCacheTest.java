@@ -0,0 +1,66 @@
+package br.com.ramiralvesmelo.util.http.file;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+class CompressedVariantCacheTest {
+
+    private static byte[] csv(String prefixo) {
+        return (prefixo + "\n" + "1;Ana;ana@x.com\n".repeat(500)).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void gzip_deveReaproveitarVariantePeloConteudo() {
+        CompressedVariantCache cache = new CompressedVariantCache();
+
+        byte[] primeiro = cache.gzip(csv("a"));
+        byte[] segundo = cache.gzip(csv("a")); // outro array, mesmo conteúdo
+
+        assertSame(primeiro, segundo);
+        assertArrayEquals(Compression.gzip(csv("a")), primeiro);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0.5, cache.getHitRate());
+        assertEquals(primeiro.length, cache.getResidentBytes());
+    }
+
+    @Test
+    void gzip_deveRemoverMenosUsadosAoPassarDoLimiteDeBytes() {
+        long variante = Compression.gzip(csv("a")).length;
+        CompressedVariantCache cache = new CompressedVariantCache(variante * 2 + variante / 2);
+
+        cache.gzip(csv("a"));
+        cache.gzip(csv("b"));
+        cache.gzip(csv("a")); // "a" passa a ser o mais recente
+        cache.gzip(csv("c")); // remove "b"
+
+        assertEquals(2, cache.size());
+        assertTrue(cache.getResidentBytes() <= cache.getMaxBytes());
+        long misses = cache.getMissCount();
+        cache.gzip(csv("a"));
+        assertEquals(misses, cache.getMissCount());
+        cache.gzip(csv("b"));
+        assertEquals(misses + 1, cache.getMissCount());
+    }
+
+    @Test
+    void gzip_naoDeveGuardarVarianteMaiorQueOLimite() {
+        CompressedVariantCache cache = new CompressedVariantCache(10);
+        assertNotNull(cache.gzip(csv("a")));
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getResidentBytes());
+    }
+
+    @Test
+    void deveValidarLimiteEInvalidarTudo() {
+        assertThrows(IllegalArgumentException.class, () -> new CompressedVariantCache(0));
+        CompressedVariantCache cache = new CompressedVariantCache();
+        cache.gzip(csv("a"));
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getResidentBytes());
+    }
+}
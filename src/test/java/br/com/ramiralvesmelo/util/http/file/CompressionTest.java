@@ -0,0 +1,61 @@
+package br.com.ramiralvesmelo.util.http.file;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class CompressionTest {
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', nullValues = "NULL", value = {
+            "gzip                      | true",
+            "deflate, gzip;q=0.5       | true",
+            "GZIP;Q=1                  | true",
+            "x-gzip                    | true",
+            "*                         | true",
+            "gzip;q=0                  | false",
+            "*, gzip;q=0               | false",
+            "*;q=0                     | false",
+            "deflate, br               | false",
+            "gzip;q=abc                | false",
+            "NULL                      | false"
+    })
+    void acceptsGzip_deveRespeitarQualidade(String header, boolean esperado) {
+        assertEquals(esperado, Compression.acceptsGzip(header));
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', nullValues = "NULL", value = {
+            "text/csv                      | true",
+            "text/plain; charset=UTF-8     | true",
+            "application/json              | true",
+            "application/problem+json      | true",
+            "image/svg+xml                 | true",
+            "APPLICATION/XML               | true",
+            "application/pdf               | false",
+            "application/zip               | false",
+            "image/png                     | false",
+            "application/octet-stream      | false",
+            "NULL                          | false"
+    })
+    void isCompressible_deveAceitarApenasTiposTextuais(String type, boolean esperado) {
+        assertEquals(esperado, Compression.isCompressible(type));
+    }
+
+    @Test
+    void gzip_deveGerarConteudoDescomprimivel() throws Exception {
+        byte[] data = "id;nome\n1;Ana\n".repeat(1000).getBytes(StandardCharsets.UTF_8);
+        byte[] gz = Compression.gzip(data);
+
+        assertTrue(gz.length < data.length / 10);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gz))) {
+            assertArrayEquals(data, in.readAllBytes());
+        }
+    }
+}
@@ -0,0 +1,393 @@
+package br.com.ramiralvesmelo.util.http.file;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import br.com.ramiralvesmelo.util.commons.dto.DocumentDto;
+import br.com.ramiralvesmelo.util.http.file.FileResponseWriterTest.TestServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+class DocumentContentCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static byte[] aleatorio(int size) {
+        byte[] data = new byte[size];
+        new Random(size).nextBytes(data);
+        return data;
+    }
+
+    private static DocumentDto documento(long id) {
+        return DocumentDto.builder().id(id).filename("doc-" + id + ".pdf").contentType("application/pdf").build();
+    }
+
+    private static HttpServletRequest get(String range, String ifNoneMatch) {
+        HttpServletRequest req = mock(HttpServletRequest.class);
+        when(req.getMethod()).thenReturn("GET");
+        when(req.getHeader("Range")).thenReturn(range);
+        when(req.getHeader("If-None-Match")).thenReturn(ifNoneMatch);
+        return req;
+    }
+
+    /** Envia o documento do arquivo e retorna o corpo escrito. */
+    private static byte[] baixar(DocumentContentCache cache, DocumentDto doc, Path file) throws Exception {
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+        TestServletOutputStream out = new TestServletOutputStream();
+        when(resp.getOutputStream()).thenReturn(out);
+        cache.writeToResponse(null, resp, doc, file, null);
+        return out.toByteArray();
+    }
+
+    @Test
+    void construtor_deveRejeitarLimiteNaoPositivo() {
+        assertThrows(IllegalArgumentException.class, () -> new DocumentContentCache(0));
+        assertEquals(DocumentContentCache.DEFAULT_MAX_BYTES, new DocumentContentCache().getMaxBytes());
+    }
+
+    @Test
+    void keyOf_deveUsarIdOuUrl() {
+        assertEquals("id:7", DocumentContentCache.keyOf(DocumentDto.builder().id(7L).url("u").build()));
+        assertEquals("url:s3://b/a.pdf", DocumentContentCache.keyOf(DocumentDto.builder().url("s3://b/a.pdf").build()));
+        assertThrows(IllegalArgumentException.class,
+                () -> DocumentContentCache.keyOf(DocumentDto.builder().url(" ").build()));
+        assertThrows(NullPointerException.class, () -> DocumentContentCache.keyOf(null));
+    }
+
+    @Test
+    void deveMapearArquivoNaPrimeiraVezEServirDoCacheNasSeguintes() throws Exception {
+        byte[] data = aleatorio(100_000);
+        Path file = Files.write(tempDir.resolve("a.bin"), data);
+        DocumentContentCache cache = new DocumentContentCache();
+
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+        TestServletOutputStream out = new TestServletOutputStream();
+        when(resp.getOutputStream()).thenReturn(out);
+        cache.writeToResponse(null, resp, documento(1), file, null);
+
+        verify(resp).setContentType("application/pdf");
+        verify(resp).setHeader(eq("Content-Disposition"), contains("filename=\"doc-1.pdf\""));
+        verify(resp).setContentLengthLong(data.length);
+        assertArrayEquals(data, out.toByteArray());
+        assertArrayEquals(data, baixar(cache, documento(1), file));
+
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(0.5, cache.getHitRate());
+        assertEquals(1, cache.size());
+        assertEquals(data.length, cache.getResidentBytes());
+    }
+
+    @Test
+    void deveRecarregarQuandoArquivoMuda() throws Exception {
+        Path file = Files.write(tempDir.resolve("a.bin"), aleatorio(1000));
+        DocumentContentCache cache = new DocumentContentCache();
+        baixar(cache, documento(1), file);
+
+        byte[] novo = aleatorio(2000);
+        Files.write(tempDir.resolve("b.bin"), novo);
+        Files.move(tempDir.resolve("b.bin"), file, StandardCopyOption.REPLACE_EXISTING);
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(60)));
+
+        assertArrayEquals(novo, baixar(cache, documento(1), file));
+        assertEquals(2, cache.getMissCount());
+        assertEquals(2000, cache.getResidentBytes());
+    }
+
+    @Test
+    void deveLerDoStorageApenasUmaVezPorVersao() throws Exception {
+        byte[] data = aleatorio(5000);
+        AtomicInteger leituras = new AtomicInteger();
+        DocumentContentCache.Loader loader = d -> {
+            leituras.incrementAndGet();
+            return new ByteArrayInputStream(data);
+        };
+        DocumentDto doc = documento(3);
+        doc.setUpdatedAt(LocalDateTime.of(2024, 5, 1, 10, 0));
+        DocumentContentCache cache = new DocumentContentCache();
+
+        for (int i = 0; i < 3; i++) {
+            HttpServletResponse resp = mock(HttpServletResponse.class);
+            TestServletOutputStream out = new TestServletOutputStream();
+            when(resp.getOutputStream()).thenReturn(out);
+            cache.writeToResponse(null, resp, doc, loader, null);
+            assertArrayEquals(data, out.toByteArray());
+        }
+        assertEquals(1, leituras.get());
+
+        doc.setUpdatedAt(LocalDateTime.of(2024, 5, 2, 10, 0));
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+        when(resp.getOutputStream()).thenReturn(new TestServletOutputStream());
+        cache.writeToResponse(null, resp, doc, loader, null);
+        assertEquals(2, leituras.get());
+
+        cache.invalidate(doc);
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getResidentBytes());
+    }
+
+    @Test
+    void deveDescartarMenosRecentementeUsadoAoExcederLimite() throws Exception {
+        DocumentContentCache cache = new DocumentContentCache(2500);
+        Path a = Files.write(tempDir.resolve("a"), aleatorio(1000));
+        Path b = Files.write(tempDir.resolve("b"), aleatorio(1001));
+        Path c = Files.write(tempDir.resolve("c"), aleatorio(1002));
+
+        baixar(cache, documento(1), a);
+        baixar(cache, documento(2), b);
+        baixar(cache, documento(1), a); // "a" passa a ser o mais recente
+        baixar(cache, documento(3), c); // descarta "b"
+
+        assertEquals(2, cache.size());
+        assertEquals(2002, cache.getResidentBytes());
+        long misses = cache.getMissCount();
+        baixar(cache, documento(1), a);
+        assertEquals(misses, cache.getMissCount());
+        baixar(cache, documento(2), b);
+        assertEquals(misses + 1, cache.getMissCount());
+    }
+
+    @Test
+    void naoDeveGuardarConteudoMaiorQueOLimite() throws Exception {
+        byte[] data = aleatorio(1000);
+        Path file = Files.write(tempDir.resolve("grande"), data);
+        DocumentContentCache cache = new DocumentContentCache(100);
+
+        assertArrayEquals(data, baixar(cache, documento(1), file));
+
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+        TestServletOutputStream out = new TestServletOutputStream();
+        when(resp.getOutputStream()).thenReturn(out);
+        cache.writeToResponse(null, resp, documento(2), d -> new ByteArrayInputStream(data), null);
+        assertArrayEquals(data, out.toByteArray());
+
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getResidentBytes());
+    }
+
+    /** Envia o documento do storage e retorna o corpo escrito. */
+    private static byte[] baixar(DocumentContentCache cache, DocumentDto doc, byte[] data,
+                                 HttpServletResponse resp) throws Exception {
+        TestServletOutputStream out = new TestServletOutputStream();
+        when(resp.getOutputStream()).thenReturn(out);
+        cache.writeToResponse(null, resp, doc, d -> new ByteArrayInputStream(data), null);
+        return out.toByteArray();
+    }
+
+    @Test
+    void deveEnviarEmStreamingConteudoDoStorageDeclaradoMaiorQueOLimite() throws Exception {
+        byte[] data = aleatorio(10_000);
+        DocumentDto doc = documento(1);
+        doc.setSizeBytes((long) data.length);
+        DocumentContentCache cache = new DocumentContentCache(1000);
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+
+        assertArrayEquals(data, baixar(cache, doc, data, resp));
+
+        verify(resp).setContentLengthLong(data.length);
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getResidentBytes());
+    }
+
+    @Test
+    void deveEnviarEmStreamingQuandoConteudoSemTamanhoUltrapassaOLimite() throws Exception {
+        byte[] data = aleatorio(3 * DocumentContentCache.INITIAL_BUFFER + 5);
+        DocumentContentCache cache = new DocumentContentCache(2L * DocumentContentCache.INITIAL_BUFFER);
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+
+        assertArrayEquals(data, baixar(cache, documento(1), data, resp));
+
+        verify(resp, never()).setContentLengthLong(anyLong());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void deveCrescerBufferQuandoStorageNaoInformaTamanho() throws Exception {
+        byte[] data = aleatorio(2 * DocumentContentCache.INITIAL_BUFFER + 1);
+        DocumentDto doc = documento(1);
+        doc.setUpdatedAt(LocalDateTime.of(2024, 5, 1, 10, 0));
+        DocumentContentCache cache = new DocumentContentCache();
+
+        assertArrayEquals(data, baixar(cache, doc, data, mock(HttpServletResponse.class)));
+        assertArrayEquals(data, baixar(cache, doc, new byte[0], mock(HttpServletResponse.class)));
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(data.length, cache.getResidentBytes());
+    }
+
+    @Test
+    void naoDeveReservarMemoriaPeloSizeBytesDeclarado() throws Exception {
+        byte[] data = aleatorio(100);
+        DocumentDto doc = documento(1);
+        doc.setSizeBytes(100L * 1024 * 1024); // errado: o conteúdo tem 100 bytes
+        DocumentContentCache cache = new DocumentContentCache();
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+
+        assertArrayEquals(data, baixar(cache, doc, data, resp));
+
+        verify(resp).setContentLengthLong(data.length);
+        assertEquals(data.length, cache.getResidentBytes());
+    }
+
+    @Test
+    void naoDeveGuardarDocumentoSemTamanhoNemData() throws Exception {
+        byte[] data = aleatorio(100);
+        AtomicInteger leituras = new AtomicInteger();
+        DocumentContentCache cache = new DocumentContentCache();
+
+        for (int i = 0; i < 2; i++) {
+            HttpServletResponse resp = mock(HttpServletResponse.class);
+            TestServletOutputStream out = new TestServletOutputStream();
+            when(resp.getOutputStream()).thenReturn(out);
+            cache.writeToResponse(null, resp, documento(1), d -> {
+                leituras.incrementAndGet();
+                return new ByteArrayInputStream(data);
+            }, null);
+            assertArrayEquals(data, out.toByteArray());
+        }
+
+        assertEquals(2, leituras.get()); // sem versão não há como revalidar
+        assertEquals(0, cache.size());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    void deveAplicarLimiteDeBandaEValidadoresAoDocumentoMaiorQueOLimite() throws Exception {
+        byte[] data = aleatorio(10_000);
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 5, 1, 10, 0);
+        long lastModified = updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        DocumentDto doc = documento(1);
+        doc.setSizeBytes((long) data.length);
+        doc.setUpdatedAt(updatedAt);
+        BandwidthLimiter global = new BandwidthLimiter(1024L * 1024 * 1024);
+        DownloadOptions opts = DownloadOptions.builder().egressLimiter(global).unthrottledBytes(0).build();
+        DocumentContentCache.Loader loader = d -> new ByteArrayInputStream(data);
+        DocumentContentCache cache = new DocumentContentCache(1000);
+
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+        TestServletOutputStream out = new TestServletOutputStream();
+        when(resp.getOutputStream()).thenReturn(out);
+        cache.writeToResponse(get(null, null), resp, doc, loader, opts);
+
+        assertArrayEquals(data, out.toByteArray());
+        assertEquals(data.length, global.getBytesSent());
+        String etag = ETags.fromAttributes(data.length, lastModified);
+        verify(resp).setHeader("ETag", etag);
+        verify(resp).setDateHeader("Last-Modified", lastModified);
+        verify(resp).setHeader("Cache-Control", DownloadOptions.DEFAULT_CACHE_CONTROL);
+
+        HttpServletResponse naoModificado = mock(HttpServletResponse.class);
+        cache.writeToResponse(get(null, etag), naoModificado, doc, loader, opts);
+        verify(naoModificado).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        verify(naoModificado, never()).getOutputStream();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void deveAplicarLimiteDeBandaQuandoConteudoSemTamanhoUltrapassaOLimite() throws Exception {
+        byte[] data = aleatorio(3 * DocumentContentCache.INITIAL_BUFFER + 5);
+        BandwidthLimiter global = new BandwidthLimiter(1024L * 1024 * 1024);
+        DownloadOptions opts = DownloadOptions.builder().egressLimiter(global).unthrottledBytes(0).build();
+        DocumentContentCache cache = new DocumentContentCache(2L * DocumentContentCache.INITIAL_BUFFER);
+
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+        TestServletOutputStream out = new TestServletOutputStream();
+        when(resp.getOutputStream()).thenReturn(out);
+        cache.writeToResponse(null, resp, documento(1), d -> new ByteArrayInputStream(data), opts);
+
+        assertArrayEquals(data, out.toByteArray());
+        assertEquals(data.length, global.getBytesSent());
+        verify(resp).setHeader("Cache-Control", DownloadOptions.DEFAULT_CACHE_CONTROL);
+        verify(resp, never()).setDateHeader(eq("Last-Modified"), anyLong());
+    }
+
+    @Test
+    void deveGuardarConteudoComTamanhoExatoNoLimite() throws Exception {
+        byte[] data = aleatorio(1000);
+        DocumentDto doc = documento(1);
+        doc.setSizeBytes(1000L);
+        DocumentContentCache cache = new DocumentContentCache(1000);
+
+        assertArrayEquals(data, baixar(cache, doc, data, mock(HttpServletResponse.class)));
+        assertEquals(1000, cache.getResidentBytes());
+    }
+
+    @Test
+    void deveAtenderRangeE304APartirDoCache() throws Exception {
+        byte[] data = aleatorio(1000);
+        Path file = Files.write(tempDir.resolve("a.bin"), data);
+        DocumentContentCache cache = new DocumentContentCache();
+        DownloadOptions opts = DownloadOptions.builder().etag(DownloadOptions.ETagStrategy.CONTENT_HASH).build();
+        baixar(cache, documento(1), file);
+
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+        TestServletOutputStream out = new TestServletOutputStream();
+        when(resp.getOutputStream()).thenReturn(out);
+        cache.writeToResponse(get("bytes=10-19", null), resp, documento(1), file, opts);
+
+        verify(resp).setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        verify(resp).setHeader("Content-Range", "bytes 10-19/1000");
+        verify(resp).setHeader("ETag", ETags.fromContent(data));
+        assertArrayEquals(Arrays.copyOfRange(data, 10, 20), out.toByteArray());
+
+        HttpServletResponse naoModificado = mock(HttpServletResponse.class);
+        cache.writeToResponse(get(null, ETags.fromContent(data)), naoModificado, documento(1), file, opts);
+        verify(naoModificado).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        verify(naoModificado, never()).getOutputStream();
+        assertEquals(2, cache.getHitCount());
+    }
+
+    @Test
+    void deveNegociarGzipTambemNoAcertoDoCache() throws Exception {
+        byte[] data = "linha de texto repetida\n".repeat(200).getBytes(StandardCharsets.UTF_8);
+        Path file = Files.write(tempDir.resolve("a.txt"), data);
+        DocumentContentCache cache = new DocumentContentCache();
+        DownloadOptions opts = DownloadOptions.builder().contentType("text/plain").compress(true).build();
+        baixar(cache, documento(1), file);
+
+        HttpServletRequest req = get(null, null);
+        when(req.getHeader("Accept-Encoding")).thenReturn("gzip");
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+        TestServletOutputStream out = new TestServletOutputStream();
+        when(resp.getOutputStream()).thenReturn(out);
+        cache.writeToResponse(req, resp, documento(1), file, opts);
+
+        assertEquals(1, cache.getHitCount());
+        verify(resp).addHeader("Vary", "Accept-Encoding");
+        verify(resp).setHeader("Content-Encoding", "gzip");
+        verify(resp).setHeader(eq("ETag"), startsWith("W/"));
+        verify(resp, never()).setContentLengthLong(anyLong());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            assertArrayEquals(data, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void deveResponder404QuandoArquivoNaoExiste() throws Exception {
+        DocumentContentCache cache = new DocumentContentCache();
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+
+        cache.writeToResponse(null, resp, documento(1), tempDir.resolve("inexistente"), null);
+
+        verify(resp).sendError(eq(HttpServletResponse.SC_NOT_FOUND), anyString());
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,84 @@
+package br.com.ramiralvesmelo.util.http.file;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ETagsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void limparCache() {
+        ETags.invalidateAll();
+    }
+
+    @Test
+    void fromAttributes_deveCombinarTamanhoEDataEmHexadecimal() {
+        assertEquals("\"1f4-ff\"", ETags.fromAttributes(500, 255));
+        assertNotEquals(ETags.fromAttributes(500, 255), ETags.fromAttributes(500, 256));
+    }
+
+    @Test
+    void fromContent_deveSerIgualParaArquivoEBytesComMesmoConteudo() throws Exception {
+        byte[] data = "conteúdo do documento".getBytes(StandardCharsets.UTF_8);
+        Path file = Files.write(tempDir.resolve("doc.txt"), data);
+
+        String etag = ETags.fromContent(file);
+        assertEquals(ETags.fromContent(data), etag);
+        assertTrue(etag.matches("\"[A-Za-z0-9_-]{22}\""));
+        assertNotEquals(etag, ETags.fromContent("outro".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void fromContent_deveHashearBytesRestantesDoBufferSemAlterarPosicao() {
+        byte[] data = "xxconteudo".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(data.length).put(data).flip().position(2);
+
+        assertEquals(ETags.fromContent("conteudo".getBytes(StandardCharsets.UTF_8)), ETags.fromContent(buffer));
+        assertEquals(2, buffer.position());
+    }
+
+    @Test
+    void fromContent_deveRecalcularQuandoArquivoMuda() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("doc.txt"), "v1");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.parse("2024-01-01T00:00:00Z")));
+        String v1 = ETags.fromContent(file);
+        assertEquals(v1, ETags.fromContent(file)); // cache
+
+        Files.writeString(file, "v2");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.parse("2024-01-02T00:00:00Z")));
+        String v2 = ETags.fromContent(file);
+        assertNotEquals(v1, v2);
+        assertEquals(ETags.fromContent("v2".getBytes(StandardCharsets.UTF_8)), v2);
+    }
+
+    @Test
+    void matches_deveUsarComparacaoFracaEAceitarListaEAsterisco() {
+        String etag = "\"abc\"";
+        assertTrue(ETags.matches("\"abc\"", etag));
+        assertTrue(ETags.matches("\"x\", W/\"abc\"", etag));
+        assertTrue(ETags.matches("*", etag));
+        assertTrue(ETags.matches("*", null));
+        assertFalse(ETags.matches("\"x\"", etag));
+        assertFalse(ETags.matches("\"abc\"", null));
+        assertFalse(ETags.matches(null, etag));
+    }
+
+    @Test
+    void strongMatches_naoDeveAceitarEtagFraca() {
+        assertTrue(ETags.strongMatches("\"abc\"", "\"abc\""));
+        assertFalse(ETags.strongMatches("W/\"abc\"", "\"abc\""));
+        assertFalse(ETags.strongMatches("\"abc\"", null));
+    }
+}
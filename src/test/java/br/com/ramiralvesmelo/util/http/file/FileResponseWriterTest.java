@@ -3,15 +3,34 @@ package br.com.ramiralvesmelo.util.http.file;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.lang.reflect.Constructor;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
 
 import br.com.ramiralvesmelo.util.core.exception.IntegrationException;
 import jakarta.servlet.ServletOutputStream;
 import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 class FileResponseWriterTest {
@@ -124,4 +143,590 @@ class FileResponseWriterTest {
         assertThrows(IntegrationException.class, () ->
                 FileResponseWriter.writeBytesToResponse(resp, "abc".getBytes(), "f.txt", "text/plain"));
     }
+
+    // ===== Path / canal (streaming) =====
+
+    @TempDir
+    Path tempDir;
+
+    private static byte[] aleatorio(int size) {
+        byte[] data = new byte[size];
+        new Random(42).nextBytes(data);
+        return data;
+    }
+
+    @Test
+    void deveEnviarArquivoDoDiscoEmStreaming() throws Exception {
+        byte[] data = aleatorio(3 * FileResponseWriter.BUFFER_SIZE + 123);
+        Path file = Files.write(tempDir.resolve("relatorio.pdf"), data);
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+        TestServletOutputStream out = new TestServletOutputStream();
+        when(resp.getOutputStream()).thenReturn(out);
+
+        FileResponseWriter.writeFileToResponse(resp, file);
+
+        verify(resp).setContentType("application/octet-stream");
+        verify(resp).setHeader(eq("Content-Disposition"), contains("filename=\"relatorio.pdf\""));
+        verify(resp).setContentLengthLong(data.length);
+        assertArrayEquals(data, out.toByteArray());
+    }
+
+    @Test
+    void deveSanitizarNomeAoEnviarArquivoDoDisco() throws Exception {
+        Path file = Files.write(tempDir.resolve("a.txt"), "ola".getBytes());
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+        when(resp.getOutputStream()).thenReturn(new TestServletOutputStream());
+
+        FileResponseWriter.writeFileToResponse(resp, file, "nome\r\n\"mal\".txt", "text/plain");
+
+        verify(resp).setContentType("text/plain");
+        verify(resp).setHeader(eq("Content-Disposition"), contains("filename=\"nome 'mal'.txt\""));
+    }
+
+    @Test
+    void deveRetornarNotFoundQuandoArquivoNaoExiste() throws Exception {
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+
+        FileResponseWriter.writeFileToResponse(resp, tempDir.resolve("nao-existe.txt"));
+
+        verify(resp).sendError(HttpServletResponse.SC_NOT_FOUND, "Arquivo não encontrado");
+        verify(resp, never()).getOutputStream();
+    }
+
+    @Test
+    void deveRetornarNoContentQuandoArquivoDoDiscoVazio() throws Exception {
+        Path file = Files.createFile(tempDir.resolve("vazio.txt"));
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+
+        FileResponseWriter.writeFileToResponse(resp, file);
+
+        verify(resp).sendError(HttpServletResponse.SC_NO_CONTENT, "Arquivo vazio");
+        verify(resp, never()).getOutputStream();
+    }
+
+    @Test
+    void deveLancarIntegrationExceptionQuandoArquivoOuResponseNull() {
+        assertThrows(IntegrationException.class,
+                () -> FileResponseWriter.writeFileToResponse(null, tempDir.resolve("x.txt")));
+        assertThrows(IntegrationException.class,
+                () -> FileResponseWriter.writeFileToResponse(mock(HttpServletResponse.class), null));
+    }
+
+    @Test
+    void deveEnviarCanalComTamanhoDesconhecido() throws Exception {
+        byte[] data = aleatorio(2 * FileResponseWriter.BUFFER_SIZE + 7);
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+        TestServletOutputStream out = new TestServletOutputStream();
+        when(resp.getOutputStream()).thenReturn(out);
+
+        FileResponseWriter.writeChannelToResponse(resp,
+                Channels.newChannel(new ByteArrayInputStream(data)), -1, "dados.bin", null);
+
+        verify(resp, never()).setContentLengthLong(anyLong());
+        assertArrayEquals(data, out.toByteArray());
+    }
+
+    @Test
+    void deveEnviarApenasOTamanhoInformadoDoCanal() throws Exception {
+        byte[] data = aleatorio(1000);
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+        TestServletOutputStream out = new TestServletOutputStream();
+        when(resp.getOutputStream()).thenReturn(out);
+
+        FileResponseWriter.writeChannelToResponse(resp,
+                Channels.newChannel(new ByteArrayInputStream(data)), 600, "dados.bin", null);
+
+        verify(resp).setContentLengthLong(600);
+        assertArrayEquals(Arrays.copyOf(data, 600), out.toByteArray());
+    }
+
+    @Test
+    void deveUsarTransferToAPartirDaPosicaoDoFileChannel() throws Exception {
+        byte[] data = aleatorio(5000);
+        Path file = Files.write(tempDir.resolve("dados.bin"), data);
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+        TestServletOutputStream out = new TestServletOutputStream();
+        when(resp.getOutputStream()).thenReturn(out);
+
+        try (FileChannel ch = FileChannel.open(file)) {
+            ch.position(1000);
+            FileResponseWriter.writeChannelToResponse(resp, ch, 4000, "dados.bin", null);
+            assertTrue(ch.isOpen()); // o canal pertence ao chamador
+        }
+        assertArrayEquals(Arrays.copyOfRange(data, 1000, 5000), out.toByteArray());
+    }
+
+    @Test
+    void deveLancarIntegrationExceptionQuandoCanalTerminaAntesDoTamanho() throws Exception {
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+        when(resp.getOutputStream()).thenReturn(new TestServletOutputStream());
+
+        assertThrows(IntegrationException.class, () -> FileResponseWriter.writeChannelToResponse(resp,
+                Channels.newChannel(new ByteArrayInputStream(new byte[10])), 20, "dados.bin", null));
+    }
+
+    // ===== Range (206) =====
+
+    private static HttpServletRequest get(String range, String ifRange) {
+        HttpServletRequest req = mock(HttpServletRequest.class);
+        when(req.getMethod()).thenReturn("GET");
+        when(req.getHeader("Range")).thenReturn(range);
+        when(req.getHeader("If-Range")).thenReturn(ifRange);
+        return req;
+    }
+
+    @Test
+    void deveEnviarIntervaloUnicoComPartialContent() throws Exception {
+        byte[] data = aleatorio(10_000);
+        Path file = Files.write(tempDir.resolve("video.mp4"), data);
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+        TestServletOutputStream out = new TestServletOutputStream();
+        when(resp.getOutputStream()).thenReturn(out);
+
+        FileResponseWriter.writeFileToResponse(get("bytes=1000-1999", null), resp, file, null, "video/mp4");
+
+        verify(resp).setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        verify(resp).setHeader("Accept-Ranges", "bytes");
+        verify(resp).setHeader("Content-Range", "bytes 1000-1999/10000");
+        verify(resp).setContentLengthLong(1000);
+        assertArrayEquals(Arrays.copyOfRange(data, 1000, 2000), out.toByteArray());
+    }
+
+    @Test
+    void deveEnviarVariosIntervalosComoMultipartByteranges() throws Exception {
+        byte[] data = "0123456789abcdefghij".getBytes(StandardCharsets.US_ASCII);
+        Path file = Files.write(tempDir.resolve("doc.txt"), data);
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+        TestServletOutputStream out = new TestServletOutputStream();
+        when(resp.getOutputStream()).thenReturn(out);
+
+        FileResponseWriter.writeFileToResponse(get("bytes=0-1,-3", null), resp, file, null, "text/plain");
+
+        ArgumentCaptor<String> type = ArgumentCaptor.forClass(String.class);
+        verify(resp, times(2)).setContentType(type.capture());
+        String multipart = type.getValue();
+        assertTrue(multipart.startsWith("multipart/byteranges; boundary="));
+        String boundary = multipart.substring(multipart.indexOf('=') + 1);
+
+        String body = new String(out.toByteArray(), StandardCharsets.US_ASCII);
+        String esperado = "--" + boundary + "\r\nContent-Type: text/plain\r\nContent-Range: bytes 0-1/20\r\n\r\n01"
+                + "\r\n--" + boundary + "\r\nContent-Type: text/plain\r\nContent-Range: bytes 17-19/20\r\n\r\nhij"
+                + "\r\n--" + boundary + "--\r\n";
+        assertEquals(esperado, body);
+        verify(resp).setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        verify(resp).setContentLengthLong(esperado.length());
+    }
+
+    @Test
+    void deveResponder416QuandoIntervaloNaoSatisfatorio() throws Exception {
+        Path file = Files.write(tempDir.resolve("doc.txt"), new byte[100]);
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+
+        FileResponseWriter.writeFileToResponse(get("bytes=500-600", null), resp, file, null, null);
+
+        verify(resp).setHeader("Content-Range", "bytes */100");
+        verify(resp).sendError(eq(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE), anyString());
+        verify(resp, never()).getOutputStream();
+    }
+
+    @Test
+    void deveEnviarArquivoInteiroQuandoRangeInvalidoOuMetodoNaoGet() throws Exception {
+        byte[] data = aleatorio(300);
+        Path file = Files.write(tempDir.resolve("doc.bin"), data);
+
+        for (HttpServletRequest req : new HttpServletRequest[] {get("bytes=x-y", null), get(null, null)}) {
+            HttpServletResponse resp = mock(HttpServletResponse.class);
+            TestServletOutputStream out = new TestServletOutputStream();
+            when(resp.getOutputStream()).thenReturn(out);
+            FileResponseWriter.writeFileToResponse(req, resp, file, null, null);
+            verify(resp, never()).setStatus(anyInt());
+            assertArrayEquals(data, out.toByteArray());
+        }
+
+        HttpServletRequest post = get("bytes=0-9", null);
+        when(post.getMethod()).thenReturn("POST");
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+        TestServletOutputStream out = new TestServletOutputStream();
+        when(resp.getOutputStream()).thenReturn(out);
+        FileResponseWriter.writeFileToResponse(post, resp, file, null, null);
+        assertArrayEquals(data, out.toByteArray());
+    }
+
+    @Test
+    void deveRespeitarIfRangeComDataDeModificacao() throws Exception {
+        byte[] data = aleatorio(100);
+        Path file = Files.write(tempDir.resolve("doc.bin"), data);
+        Instant mtime = Instant.parse("2024-05-01T10:00:00Z");
+        Files.setLastModifiedTime(file, FileTime.from(mtime));
+        String igual = DateTimeFormatter.RFC_1123_DATE_TIME.format(mtime.atZone(ZoneOffset.UTC));
+        String antiga = DateTimeFormatter.RFC_1123_DATE_TIME.format(mtime.minusSeconds(60).atZone(ZoneOffset.UTC));
+
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+        TestServletOutputStream out = new TestServletOutputStream();
+        when(resp.getOutputStream()).thenReturn(out);
+        FileResponseWriter.writeFileToResponse(get("bytes=0-9", igual), resp, file, null, null);
+        assertArrayEquals(Arrays.copyOf(data, 10), out.toByteArray());
+
+        resp = mock(HttpServletResponse.class);
+        out = new TestServletOutputStream();
+        when(resp.getOutputStream()).thenReturn(out);
+        FileResponseWriter.writeFileToResponse(get("bytes=0-9", antiga), resp, file, null, null);
+        verify(resp, never()).setStatus(anyInt());
+        assertArrayEquals(data, out.toByteArray());
+    }
+
+    @Test
+    void deveEnviarIntervaloDeCanalPosicionavelSemLerBytesIgnorados() throws Exception {
+        byte[] data = aleatorio(1000);
+        SeekableByteChannel ch = spy(new InMemoryChannel(data));
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+        TestServletOutputStream out = new TestServletOutputStream();
+        when(resp.getOutputStream()).thenReturn(out);
+
+        FileResponseWriter.writeChannelToResponse(get("bytes=900-", null), resp, ch, "dados.bin", null);
+
+        verify(ch).position(900);
+        verify(resp).setHeader("Content-Range", "bytes 900-999/1000");
+        assertArrayEquals(Arrays.copyOfRange(data, 900, 1000), out.toByteArray());
+    }
+
+    // ===== Requisições condicionais (304) =====
+
+    @Test
+    void deveLimitarBandaDoDownloadEContabilizarNoLimitadorGlobal() throws Exception {
+        byte[] data = aleatorio(5 * FileResponseWriter.BUFFER_SIZE); // 320 KB a 2 MB/s ≈ 150 ms
+        Path file = Files.write(tempDir.resolve("grande.bin"), data);
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+        TestServletOutputStream out = new TestServletOutputStream();
+        when(resp.getOutputStream()).thenReturn(out);
+        BandwidthLimiter global = new BandwidthLimiter(1024L * 1024 * 1024);
+
+        long inicio = System.nanoTime();
+        FileResponseWriter.writeFileToResponse(null, resp, file, DownloadOptions.builder()
+                .maxBytesPerSecond(2L * 1024 * 1024)
+                .egressLimiter(global)
+                .unthrottledBytes(0)
+                .build());
+
+        assertTrue(System.nanoTime() - inicio >= 100_000_000L);
+        assertArrayEquals(data, out.toByteArray());
+        assertEquals(data.length, global.getBytesSent());
+    }
+
+    @Test
+    void deveEnviarRespostaPequenaSemEsperaPorBanda() throws Exception {
+        Path file = Files.write(tempDir.resolve("pequeno.txt"), aleatorio(10_000));
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+        when(resp.getOutputStream()).thenReturn(new TestServletOutputStream());
+        BandwidthLimiter global = new BandwidthLimiter(1024, 1024); // 10 KB esperariam ~9 s
+
+        FileResponseWriter.writeFileToResponse(null, resp, file,
+                DownloadOptions.builder().egressLimiter(global).build());
+
+        assertEquals(10_000, global.getBytesSent());
+        assertEquals(Duration.ZERO, global.getThrottledTime());
+    }
+
+    @Test
+    void downloadAssincronoComLimiteDeBanda_deveSerSincrono() throws Exception {
+        byte[] data = aleatorio(1000);
+        Path file = Files.write(tempDir.resolve("limitado.bin"), data);
+        HttpServletRequest req = mock(HttpServletRequest.class);
+        when(req.getMethod()).thenReturn("GET");
+        when(req.isAsyncSupported()).thenReturn(true);
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+        TestServletOutputStream out = new TestServletOutputStream();
+        when(resp.getOutputStream()).thenReturn(out);
+
+        assertTrue(FileResponseWriter.writeFileToResponseAsync(req, resp, file,
+                DownloadOptions.builder().maxBytesPerSecond(1024 * 1024).build()).isDone());
+
+        verify(req, never()).startAsync();
+        assertArrayEquals(data, out.toByteArray());
+    }
+
+    private static HttpServletRequest condicional(String ifNoneMatch, String ifModifiedSince) {
+        HttpServletRequest req = get(null, null);
+        when(req.getHeader("If-None-Match")).thenReturn(ifNoneMatch);
+        when(req.getHeader("If-Modified-Since")).thenReturn(ifModifiedSince);
+        return req;
+    }
+
+    private static String httpDate(Instant instant) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(instant.atZone(ZoneOffset.UTC));
+    }
+
+    @Test
+    void deveEnviarValidadoresECacheControl() throws Exception {
+        Path file = Files.write(tempDir.resolve("doc.pdf"), aleatorio(100));
+        Instant mtime = Instant.parse("2024-05-01T10:00:00Z");
+        Files.setLastModifiedTime(file, FileTime.from(mtime));
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+        when(resp.getOutputStream()).thenReturn(new TestServletOutputStream());
+
+        FileResponseWriter.writeFileToResponse(condicional(null, null), resp, file, DownloadOptions.DEFAULT);
+
+        verify(resp).setHeader("ETag", ETags.fromAttributes(100, mtime.toEpochMilli()));
+        verify(resp).setDateHeader("Last-Modified", mtime.toEpochMilli());
+        verify(resp).setHeader("Cache-Control", DownloadOptions.DEFAULT_CACHE_CONTROL);
+    }
+
+    @Test
+    void deveResponder304QuandoIfNoneMatchCasa() throws Exception {
+        Path file = Files.write(tempDir.resolve("doc.pdf"), aleatorio(100));
+        long mtime = Files.getLastModifiedTime(file).toMillis();
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+
+        FileResponseWriter.writeFileToResponse(condicional("\"x\", " + ETags.fromAttributes(100, mtime), null),
+                resp, file, DownloadOptions.DEFAULT);
+
+        verify(resp).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        verify(resp).setHeader("ETag", ETags.fromAttributes(100, mtime));
+        verify(resp, never()).getOutputStream();
+        verify(resp, never()).setHeader(eq("Content-Disposition"), anyString());
+    }
+
+    @Test
+    void deveUsarHashDoConteudoQuandoConfigurado() throws Exception {
+        byte[] data = aleatorio(100);
+        Path file = Files.write(tempDir.resolve("doc.pdf"), data);
+        DownloadOptions opts = DownloadOptions.builder()
+                .etag(DownloadOptions.ETagStrategy.CONTENT_HASH)
+                .cacheControl(null)
+                .build();
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+
+        FileResponseWriter.writeFileToResponse(condicional(ETags.fromContent(data), null), resp, file, opts);
+
+        verify(resp).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        verify(resp, never()).setHeader(eq("Cache-Control"), anyString());
+        ETags.invalidateAll();
+    }
+
+    @Test
+    void deveEnviarCorpoQuandoIfNoneMatchNaoCasaMesmoComIfModifiedSince() throws Exception {
+        byte[] data = aleatorio(100);
+        Path file = Files.write(tempDir.resolve("doc.pdf"), data);
+        Instant futuro = Instant.now().plusSeconds(3600);
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+        TestServletOutputStream out = new TestServletOutputStream();
+        when(resp.getOutputStream()).thenReturn(out);
+
+        FileResponseWriter.writeFileToResponse(condicional("\"antiga\"", httpDate(futuro)), resp, file, null);
+
+        verify(resp, never()).setStatus(anyInt());
+        assertArrayEquals(data, out.toByteArray());
+    }
+
+    @Test
+    void deveAvaliarIfModifiedSince() throws Exception {
+        byte[] data = aleatorio(100);
+        Path file = Files.write(tempDir.resolve("doc.pdf"), data);
+        Instant mtime = Instant.parse("2024-05-01T10:00:00Z");
+        Files.setLastModifiedTime(file, FileTime.from(mtime.plusMillis(500)));
+
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+        FileResponseWriter.writeFileToResponse(condicional(null, httpDate(mtime)), resp, file, null);
+        verify(resp).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+
+        resp = mock(HttpServletResponse.class);
+        TestServletOutputStream out = new TestServletOutputStream();
+        when(resp.getOutputStream()).thenReturn(out);
+        FileResponseWriter.writeFileToResponse(condicional(null, httpDate(mtime.minusSeconds(1))), resp, file, null);
+        verify(resp, never()).setStatus(anyInt());
+        assertArrayEquals(data, out.toByteArray());
+    }
+
+    @Test
+    void deveRespeitarIfRangeComEtag() throws Exception {
+        byte[] data = aleatorio(100);
+        Path file = Files.write(tempDir.resolve("doc.bin"), data);
+        String etag = ETags.fromAttributes(100, Files.getLastModifiedTime(file).toMillis());
+
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+        TestServletOutputStream out = new TestServletOutputStream();
+        when(resp.getOutputStream()).thenReturn(out);
+        FileResponseWriter.writeFileToResponse(get("bytes=0-9", etag), resp, file, null, null);
+        assertArrayEquals(Arrays.copyOf(data, 10), out.toByteArray());
+
+        resp = mock(HttpServletResponse.class);
+        out = new TestServletOutputStream();
+        when(resp.getOutputStream()).thenReturn(out);
+        FileResponseWriter.writeFileToResponse(get("bytes=0-9", "W/" + etag), resp, file, null, null);
+        assertArrayEquals(data, out.toByteArray());
+    }
+
+    // ===== Compressão (gzip) =====
+
+    private static final DownloadOptions CSV_GZIP = DownloadOptions.builder()
+            .contentType("text/csv")
+            .compress(true)
+            .build();
+
+    private static byte[] csv() {
+        return "id;nome;email\n1;Ana;ana@x.com\n".repeat(200).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static HttpServletRequest aceitaGzip() {
+        HttpServletRequest req = get(null, null);
+        when(req.getHeader("Accept-Encoding")).thenReturn("gzip, deflate");
+        return req;
+    }
+
+    private static byte[] gunzip(byte[] gz) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gz))) {
+            return in.readAllBytes();
+        }
+    }
+
+    @Test
+    void deveComprimirEmStreamingQuandoClienteAceitaGzip() throws Exception {
+        byte[] data = csv();
+        Path file = Files.write(tempDir.resolve("pedidos.csv"), data);
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+        TestServletOutputStream out = new TestServletOutputStream();
+        when(resp.getOutputStream()).thenReturn(out);
+
+        FileResponseWriter.writeFileToResponse(aceitaGzip(), resp, file, CSV_GZIP);
+
+        verify(resp).setHeader("Content-Encoding", "gzip");
+        verify(resp).addHeader("Vary", "Accept-Encoding");
+        verify(resp).setHeader(eq("ETag"), startsWith("W/"));
+        verify(resp, never()).setContentLengthLong(anyLong());
+        assertArrayEquals(data, gunzip(out.toByteArray()));
+    }
+
+    @Test
+    void deveServirSidecarGzQuandoAtualizado() throws Exception {
+        byte[] data = csv();
+        Path file = Files.write(tempDir.resolve("pedidos.csv"), data);
+        byte[] gz = Compression.gzip(data);
+        Path sidecar = Files.write(tempDir.resolve("pedidos.csv.gz"), gz);
+        Files.setLastModifiedTime(sidecar, FileTime.from(Files.getLastModifiedTime(file).toInstant().plusSeconds(1)));
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+        TestServletOutputStream out = new TestServletOutputStream();
+        when(resp.getOutputStream()).thenReturn(out);
+
+        FileResponseWriter.writeFileToResponse(aceitaGzip(), resp, file, CSV_GZIP);
+
+        verify(resp).setHeader("Content-Encoding", "gzip");
+        verify(resp).setContentType("text/csv");
+        verify(resp).setHeader(eq("Content-Disposition"), contains("pedidos.csv\""));
+        verify(resp).setContentLengthLong(gz.length);
+        verify(resp).setHeader(eq("ETag"), endsWith("-gzip\""));
+        assertArrayEquals(gz, out.toByteArray());
+    }
+
+    @Test
+    void deveIgnorarSidecarDesatualizado() throws Exception {
+        byte[] data = csv();
+        Path file = Files.write(tempDir.resolve("pedidos.csv"), data);
+        Path sidecar = Files.write(tempDir.resolve("pedidos.csv.gz"), Compression.gzip("antigo".getBytes()));
+        Files.setLastModifiedTime(sidecar, FileTime.from(Files.getLastModifiedTime(file).toInstant().minusSeconds(60)));
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+        TestServletOutputStream out = new TestServletOutputStream();
+        when(resp.getOutputStream()).thenReturn(out);
+
+        FileResponseWriter.writeFileToResponse(aceitaGzip(), resp, file, CSV_GZIP);
+
+        assertArrayEquals(data, gunzip(out.toByteArray()));
+    }
+
+    @Test
+    void naoDeveComprimirSemAcceptEncodingOuTipoJaComprimido() throws Exception {
+        byte[] data = csv();
+        Path csvFile = Files.write(tempDir.resolve("pedidos.csv"), data);
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+        TestServletOutputStream out = new TestServletOutputStream();
+        when(resp.getOutputStream()).thenReturn(out);
+
+        FileResponseWriter.writeFileToResponse(get(null, null), resp, csvFile, CSV_GZIP);
+        verify(resp).addHeader("Vary", "Accept-Encoding");
+        verify(resp, never()).setHeader(eq("Content-Encoding"), anyString());
+        assertArrayEquals(data, out.toByteArray());
+
+        Path pdf = Files.write(tempDir.resolve("doc.pdf"), data);
+        resp = mock(HttpServletResponse.class);
+        out = new TestServletOutputStream();
+        when(resp.getOutputStream()).thenReturn(out);
+        FileResponseWriter.writeFileToResponse(aceitaGzip(), resp, pdf,
+                DownloadOptions.builder().contentType("application/pdf").compress(true).build());
+        verify(resp, never()).setHeader(eq("Content-Encoding"), anyString());
+        verify(resp, never()).addHeader(eq("Vary"), anyString());
+        assertArrayEquals(data, out.toByteArray());
+    }
+
+    @Test
+    void deveComprimirBytesReaproveitandoCache() throws Exception {
+        CompressedVariantCache cache = new CompressedVariantCache();
+        DownloadOptions opts = DownloadOptions.builder()
+                .downloadName("pedidos.csv").contentType("text/csv").compress(true).compressionCache(cache).build();
+        byte[] data = csv();
+
+        for (int i = 0; i < 2; i++) {
+            HttpServletResponse resp = mock(HttpServletResponse.class);
+            TestServletOutputStream out = new TestServletOutputStream();
+            when(resp.getOutputStream()).thenReturn(out);
+            FileResponseWriter.writeBytesToResponse(aceitaGzip(), resp, data, opts);
+            verify(resp).setHeader("Content-Encoding", "gzip");
+            verify(resp).setContentLengthLong(out.toByteArray().length);
+            assertArrayEquals(data, gunzip(out.toByteArray()));
+        }
+        assertEquals(1, cache.getHitCount());
+    }
+
+    /** Canal posicionável em memória, somente leitura. */
+    static class InMemoryChannel implements SeekableByteChannel {
+        private final byte[] data;
+        private int position;
+
+        InMemoryChannel(byte[] data) {
+            this.data = data;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) {
+            if (position >= data.length) return -1;
+            int n = Math.min(dst.remaining(), data.length - position);
+            dst.put(data, position, n);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public int write(ByteBuffer src) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long position() {
+            return position;
+        }
+
+        @Override
+        public SeekableByteChannel position(long newPosition) {
+            position = (int) newPosition;
+            return this;
+        }
+
+        @Override
+        public long size() {
+            return data.length;
+        }
+
+        @Override
+        public SeekableByteChannel truncate(long size) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+            // nada a liberar
+        }
+    }
 }
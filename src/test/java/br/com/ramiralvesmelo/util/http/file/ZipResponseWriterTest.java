@@ -0,0 +1,158 @@
+package br.com.ramiralvesmelo.util.http.file;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import br.com.ramiralvesmelo.util.core.exception.IntegrationException;
+import br.com.ramiralvesmelo.util.http.file.FileResponseWriterTest.TestServletOutputStream;
+import br.com.ramiralvesmelo.util.http.file.ZipResponseWriter.Entry;
+import jakarta.servlet.http.HttpServletResponse;
+
+class ZipResponseWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private record Lida(byte[] data, int method) {}
+
+    private static Map<String, Lida> ler(byte[] zip) throws IOException {
+        Map<String, Lida> entries = new LinkedHashMap<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            for (ZipEntry e; (e = in.getNextEntry()) != null; ) {
+                entries.put(e.getName(), new Lida(in.readAllBytes(), e.getMethod()));
+            }
+        }
+        return entries;
+    }
+
+    private static byte[] aleatorio(int size) {
+        byte[] data = new byte[size];
+        new Random(7).nextBytes(data);
+        return data;
+    }
+
+    @Test
+    void writeZip_deveEscreverArquivosESuppliersNaOrdem() throws Exception {
+        byte[] pdf = aleatorio(200_000);
+        Path nota = Files.write(tempDir.resolve("nota.pdf"), pdf);
+        byte[] csv = "id;nome\n1;Ana\n".repeat(1000).getBytes(StandardCharsets.UTF_8);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long total = ZipResponseWriter.writeZip(out, List.of(
+                Entry.of("docs/nota.pdf", nota),
+                Entry.of("itens.csv", () -> new ByteArrayInputStream(csv))), false);
+
+        Map<String, Lida> zip = ler(out.toByteArray());
+        assertEquals(List.of("docs/nota.pdf", "itens.csv"), List.copyOf(zip.keySet()));
+        assertArrayEquals(pdf, zip.get("docs/nota.pdf").data());
+        assertArrayEquals(csv, zip.get("itens.csv").data());
+        assertEquals(ZipEntry.DEFLATED, zip.get("docs/nota.pdf").method());
+        assertEquals(pdf.length + csv.length, total);
+    }
+
+    @Test
+    void writeZip_deveArmazenarSemRecomprimirFormatosJaComprimidos() throws Exception {
+        byte[] pdf = aleatorio(50_000);
+        Path nota = Files.write(tempDir.resolve("nota.pdf"), pdf);
+        byte[] foto = aleatorio(30_000);
+        byte[] csv = "a;b\n".repeat(5000).getBytes(StandardCharsets.UTF_8);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ZipResponseWriter.writeZip(out, List.of(
+                Entry.of("nota.pdf", nota),
+                Entry.of("foto.JPG", () -> new ByteArrayInputStream(foto)),
+                Entry.of("itens.csv", () -> new ByteArrayInputStream(csv))), true);
+
+        Map<String, Lida> zip = ler(out.toByteArray());
+        assertEquals(ZipEntry.STORED, zip.get("nota.pdf").method());
+        assertArrayEquals(pdf, zip.get("nota.pdf").data());
+        assertArrayEquals(foto, zip.get("foto.JPG").data());
+        assertArrayEquals(csv, zip.get("itens.csv").data());
+        assertTrue(out.size() < pdf.length + foto.length + csv.length / 10 + 2_000);
+    }
+
+    @Test
+    void writeZip_deveSanitizarEDesduplicarNomes() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ZipResponseWriter.writeZip(out, List.of(
+                Entry.of("../../etc/passwd", () -> new ByteArrayInputStream(new byte[] {1})),
+                Entry.of("/abs\\pasta\\a.txt", () -> new ByteArrayInputStream(new byte[] {2})),
+                Entry.of("a.txt", () -> new ByteArrayInputStream(new byte[] {3})),
+                Entry.of("a.txt", () -> new ByteArrayInputStream(new byte[] {4})),
+                Entry.of("a.txt", () -> new ByteArrayInputStream(new byte[] {5}))), false);
+
+        assertEquals(List.of("etc/passwd", "abs/pasta/a.txt", "a.txt", "a (2).txt", "a (3).txt"),
+                List.copyOf(ler(out.toByteArray()).keySet()));
+    }
+
+    @Test
+    void writeZip_deveAbrirCadaSupplierUmaVezENaoFecharODestino() throws Exception {
+        AtomicInteger aberturas = new AtomicInteger();
+        ByteArrayOutputStream out = spy(new ByteArrayOutputStream());
+        ZipResponseWriter.ContentSupplier supplier = () -> {
+            aberturas.incrementAndGet();
+            return InputStream.nullInputStream();
+        };
+
+        ZipResponseWriter.writeZip(out, List.of(Entry.of("a", supplier), Entry.of("b", supplier)), false);
+
+        assertEquals(2, aberturas.get());
+        verify(out, never()).close();
+    }
+
+    @Test
+    void entry_deveValidarNomeEOrigem() {
+        assertThrows(IllegalArgumentException.class, () -> Entry.of(" ", tempDir));
+        assertThrows(IllegalArgumentException.class, () -> new Entry("a", null, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> new Entry("a", tempDir, InputStream::nullInputStream));
+    }
+
+    @Test
+    void writeZipToResponse_deveDefinirCabecalhosEEscreverZip() throws Exception {
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+        TestServletOutputStream out = new TestServletOutputStream();
+        when(resp.getOutputStream()).thenReturn(out);
+
+        ZipResponseWriter.writeZipToResponse(resp,
+                List.of(Entry.of("x.txt", () -> new ByteArrayInputStream("ola".getBytes()))), "pedido-1.zip");
+
+        verify(resp).setContentType("application/zip");
+        verify(resp).setHeader(eq("Content-Disposition"), contains("pedido-1.zip"));
+        verify(resp, never()).setContentLengthLong(anyLong());
+        assertArrayEquals("ola".getBytes(), ler(out.toByteArray()).get("x.txt").data());
+    }
+
+    @Test
+    void writeZipToResponse_deveTratarNomeInvalidoEErros() throws Exception {
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+        ZipResponseWriter.writeZipToResponse(resp, List.of(), " ");
+        verify(resp).sendError(HttpServletResponse.SC_BAD_REQUEST, "Nome do arquivo inválido");
+
+        HttpServletResponse falha = mock(HttpServletResponse.class);
+        when(falha.getOutputStream()).thenReturn(new TestServletOutputStream());
+        List<Entry> entries = List.of(Entry.of("x", () -> {
+            throw new IOException("storage fora");
+        }));
+        assertThrows(IntegrationException.class, () -> ZipResponseWriter.writeZipToResponse(falha, entries, "a.zip"));
+        assertThrows(IntegrationException.class, () -> ZipResponseWriter.writeZipToResponse(null, entries, "a.zip"));
+    }
+}
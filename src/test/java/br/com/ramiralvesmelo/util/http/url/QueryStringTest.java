@@ -0,0 +1,96 @@
+package br.com.ramiralvesmelo.util.http.url;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import br.com.ramiralvesmelo.util.core.exception.UrlException;
+
+class QueryStringTest {
+
+    private static final int LIMIT = 40;
+
+    @Test
+    @DisplayName("parse de URL: usa só o trecho entre '?' e '#', decodifica sob demanda")
+    void parse_url() {
+        QueryString q = QueryString.parse("https://host/cb?code=abc&state=x%2Fy+z&tag=a&tag=b#tag=frag");
+
+        assertThat(q.size()).isEqualTo(4);
+        assertThat(q.getFirst("code")).isEqualTo("abc");
+        assertThat(q.getFirst("state")).isEqualTo("x/y z");
+        assertThat(q.getAll("tag")).containsExactly("a", "b");
+        assertThat(q.getFirst("ausente")).isNull();
+        assertThat(q.getAll("ausente")).isEmpty();
+        assertThat(q.toString()).isEqualTo("code=abc&state=x%2Fy+z&tag=a&tag=b");
+    }
+
+    @Test
+    @DisplayName("views cruas sem decodificar; parâmetro sem '=' e pares vazios")
+    void parse_rawViews() {
+        QueryString q = QueryString.parse("a%20b=1%2B1&&flag&=v&");
+
+        assertThat(q.size()).isEqualTo(3);
+        assertThat(q.rawName(0).toString()).isEqualTo("a%20b");
+        assertThat(q.rawValue(0).toString()).isEqualTo("1%2B1");
+        assertThat(q.name(0)).isEqualTo("a b");
+        assertThat(q.value(0)).isEqualTo("1+1");
+        assertThat(q.getFirst("a b")).isEqualTo("1+1");
+
+        assertThat(q.rawValue(1)).isNull();
+        assertThat(q.value(1)).isNull();
+        assertThat(q.contains("flag")).isTrue();
+        assertThat(q.getFirst("flag")).isEmpty();
+
+        assertThat(q.name(2)).isEmpty();
+        assertThat(q.value(2)).isEqualTo("v");
+    }
+
+    @Test
+    @DisplayName("entrada sem query ou vazia resulta em QueryString vazia")
+    void parse_semQuery() {
+        assertThat(QueryString.parse("https://host/path").isEmpty()).isTrue();
+        assertThat(QueryString.parse("/path#a=1").isEmpty()).isTrue();
+        assertThat(QueryString.parse("").isEmpty()).isTrue();
+        assertThat(QueryString.parse(null).isEmpty()).isTrue();
+        assertThat(QueryString.parse("https://host/p?").isEmpty()).isTrue();
+    }
+
+    @Test
+    @DisplayName("toMap preserva ordem e valores repetidos")
+    void toMap_ok() {
+        Map<String, List<String>> map = QueryString.parse("?b=2&a=1&b=3&c").toMap();
+        assertThat(map).containsExactly(
+                Map.entry("b", List.of("2", "3")),
+                Map.entry("a", List.of("1")),
+                Map.entry("c", List.of("")));
+    }
+
+    @Test
+    @DisplayName("limite de parâmetros protege contra query gigante")
+    void parse_limiteDeParametros() {
+        String query = "p=1&".repeat(LIMIT + 1);
+        assertThat(QueryString.parse(query, LIMIT + 1).size()).isEqualTo(LIMIT + 1);
+        assertThrows(UrlException.class, () -> QueryString.parse(query, LIMIT));
+        assertThrows(UrlException.class,
+                () -> QueryString.parse("x=1&".repeat(QueryString.DEFAULT_MAX_PARAMS + 1)));
+        assertThrows(IllegalArgumentException.class, () -> QueryString.parse("a=1", 0));
+    }
+
+    @Test
+    @DisplayName("valor mal codificado lança UrlException apenas ao decodificar")
+    void value_malCodificado() {
+        QueryString q = QueryString.parse("a=%zz&b=ok");
+        assertThat(q.getFirst("b")).isEqualTo("ok");
+        assertThat(q.rawValue(0).toString()).isEqualTo("%zz");
+        assertThrows(UrlException.class, () -> q.value(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> q.value(5));
+
+        QueryString utf8 = QueryString.parse("c=%C3%28");
+        assertThrows(UrlException.class, () -> utf8.value(0)); // UTF-8 inválido não vira U+FFFD
+    }
+}
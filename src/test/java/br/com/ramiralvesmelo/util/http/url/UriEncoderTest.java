@@ -0,0 +1,99 @@
+package br.com.ramiralvesmelo.util.http.url;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.StringWriter;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import br.com.ramiralvesmelo.util.core.exception.UrlException;
+import br.com.ramiralvesmelo.util.http.url.UriEncoder.Component;
+
+class UriEncoderTest {
+
+    private static final String MIX = "a/b c&d=e+f?g#h@:;é😀";
+
+    @Test
+    @DisplayName("ASCII seguro: retorna a mesma instância, sem alocar")
+    void encode_semEscape_retornaMesmaInstancia() {
+        String s = "pedido-123_ABC.pdf~";
+        assertThat(UriEncoder.encodePathSegment(s)).isSameAs(s);
+        assertThat(UriEncoder.encodeQueryParam(s)).isSameAs(s);
+        assertThat(UriEncoder.encodeFragment(s)).isSameAs(s);
+        assertThat(UriEncoder.decode(s)).isSameAs(s);
+        assertThat(UriEncoder.encodePathSegment(null)).isNull();
+        assertThat(UriEncoder.decode(null)).isNull();
+    }
+
+    @Test
+    @DisplayName("cada componente escapa apenas os seus delimitadores")
+    void encode_porComponente() {
+        assertThat(UriEncoder.encodePathSegment(MIX))
+                .isEqualTo("a%2Fb%20c&d=e+f%3Fg%23h@:;%C3%A9%F0%9F%98%80");
+        assertThat(UriEncoder.encodePath(MIX))
+                .isEqualTo("a/b%20c&d=e+f%3Fg%23h@:;%C3%A9%F0%9F%98%80");
+        assertThat(UriEncoder.encodeQueryParam(MIX))
+                .isEqualTo("a/b%20c%26d%3De%2Bf?g%23h@:;%C3%A9%F0%9F%98%80");
+        assertThat(UriEncoder.encodeFragment(MIX))
+                .isEqualTo("a/b%20c&d=e+f?g%23h@:;%C3%A9%F0%9F%98%80");
+        assertThat(UriEncoder.encode(MIX, Component.UNRESERVED))
+                .isEqualTo("a%2Fb%20c%26d%3De%2Bf%3Fg%23h%40%3A%3B%C3%A9%F0%9F%98%80");
+    }
+
+    @Test
+    @DisplayName("surrogate isolado vira %3F, como o encoder UTF-8 do JDK")
+    void encode_surrogateIsolado() {
+        assertThat(UriEncoder.encodePathSegment("x\uD83Dy")).isEqualTo("x%3Fy");
+    }
+
+    @Test
+    @DisplayName("variantes StringBuilder (com intervalo) e Appendable")
+    void encode_appendVariants() throws Exception {
+        StringBuilder sb = new StringBuilder("/p/");
+        UriEncoder.encode(sb, "[a b]", 1, 4, Component.PATH_SEGMENT);
+        assertThat(sb).hasToString("/p/a%20b");
+
+        StringWriter w = new StringWriter();
+        UriEncoder.encode(w, MIX, Component.QUERY_PARAM);
+        assertThat(w).hasToString(UriEncoder.encodeQueryParam(MIX));
+    }
+
+    @Test
+    @DisplayName("decode: ida e volta, '+' opcional como espaço, hex minúsculo")
+    void decode_ok() throws Exception {
+        for (Component c : Component.values()) {
+            assertThat(UriEncoder.decode(UriEncoder.encode(MIX, c))).isEqualTo(MIX);
+        }
+        assertThat(UriEncoder.decode("a+b%2b%c3%a9")).isEqualTo("a+b+é");
+        assertThat(UriEncoder.decode("a+b%2B", true)).isEqualTo("a b+");
+        assertThat(UriEncoder.decode("x=1&y=%E2%82%AC", true))
+                .isEqualTo(URLDecoder.decode("x=1&y=%E2%82%AC", StandardCharsets.UTF_8));
+
+        StringWriter w = new StringWriter();
+        UriEncoder.decode(w, "a%20b", false);
+        assertThat(w).hasToString("a b");
+    }
+
+    @Test
+    @DisplayName("decode: sequência % incompleta ou inválida lança IllegalArgumentException")
+    void decode_invalido() {
+        assertThrows(IllegalArgumentException.class, () -> UriEncoder.decode("abc%2"));
+        assertThrows(IllegalArgumentException.class, () -> UriEncoder.decode("abc%"));
+        assertThrows(IllegalArgumentException.class, () -> UriEncoder.decode("abc%zz"));
+    }
+
+    @Test
+    @DisplayName("decode: UTF-8 mal formado lança UrlException em vez de virar U+FFFD")
+    void decode_utf8Invalido() {
+        assertThrows(UrlException.class, () -> UriEncoder.decode("a%C3"));       // sequência truncada
+        assertThrows(UrlException.class, () -> UriEncoder.decode("a%FFb"));      // byte inválido
+        assertThrows(UrlException.class, () -> UriEncoder.decode("%C3%28"));     // continuação inválida
+        assertThrows(UrlException.class, () -> UriEncoder.decode("%C0%AF"));     // overlong
+        assertThrows(UrlException.class, () -> UriEncoder.decode("%ED%A0%80"));  // surrogate
+        assertThat(UriEncoder.decode("%41%42-%C3%A9-%F0%9F%98%80")).isEqualTo("AB-é-\uD83D\uDE00");
+    }
+}
@@ -0,0 +1,110 @@
+package br.com.ramiralvesmelo.util.http.url;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import br.com.ramiralvesmelo.util.core.exception.UrlException;
+
+class UrlTemplateTest {
+
+    private static final UrlTemplate DOCS =
+            UrlTemplate.compile("https://host/api/orders/{orderNumber}/documents/{id}?v={v}");
+
+    @Test
+    @DisplayName("expand por nome e por posição")
+    void expand_ok() {
+        assertThat(DOCS.getVariables()).containsExactly("orderNumber", "id", "v");
+        assertThat(DOCS.expand(Map.of("orderNumber", "ORD-1", "id", 10, "v", 2)))
+                .isEqualTo("https://host/api/orders/ORD-1/documents/10?v=2");
+        assertThat(DOCS.expand("ORD-1", 10L, "2"))
+                .isEqualTo("https://host/api/orders/ORD-1/documents/10?v=2");
+    }
+
+    @Test
+    @DisplayName("codificação conforme posição: path-segment vs query vs fragmento")
+    void expand_codificaPorContexto() {
+        UrlTemplate t = UrlTemplate.compile("http://h/{p}?q={q}#{f}");
+        String v = "a/b c&d=e+f?g#h@:;é";
+        assertThat(t.expand(v, v, v))
+                .isEqualTo("http://h/a%2Fb%20c&d=e+f%3Fg%23h@:;%C3%A9"
+                        + "?q=a/b%20c%26d%3De%2Bf?g%23h@:;%C3%A9"
+                        + "#a/b%20c&d=e+f?g%23h@:;%C3%A9");
+    }
+
+    @Test
+    @DisplayName("variável repetida e templates relativos")
+    void expand_repetidaERelativa() {
+        UrlTemplate t = UrlTemplate.compile("/x/{id}/y/{id}");
+        assertThat(t.getVariables()).containsExactly("id");
+        assertThat(t.expand(7)).isEqualTo("/x/7/y/7");
+        assertThat(t.expandTo(new StringBuilder(">"), Map.of("id", "z"))).hasToString(">/x/z/y/z");
+        assertThat(t).hasToString("/x/{id}/y/{id}");
+    }
+
+    @Test
+    @DisplayName("primeiro segmento de template relativo não vira esquema")
+    void expand_primeiroSegmentoRelativoCodificaDoisPontos() {
+        UrlTemplate t = UrlTemplate.compile("{x}/docs/{y}");
+        String url = t.expand("javascript:alert(1)", "a:b");
+        assertThat(url).isEqualTo("javascript%3Aalert(1)/docs/a:b");
+        assertThat(URI.create(url).getScheme()).isNull();
+
+        assertThat(UrlTemplate.compile("pre{x}?q={x}").expand("a:b")).isEqualTo("prea%3Ab?q=a:b");
+        assertThat(UrlTemplate.compile("/{x}").expand("a:b")).isEqualTo("/a:b");
+        assertThat(UrlTemplate.compile("mailto:{x}").expand("a:b")).isEqualTo("mailto:a:b");
+        assertThat(UrlTemplate.compile("https://h/{x}").expand("a:b")).isEqualTo("https://h/a:b");
+    }
+
+    @Test
+    @DisplayName("compilação rejeita templates inválidos")
+    void compile_invalido() {
+        assertThrows(UrlException.class, () -> UrlTemplate.compile("https://{host}/x"));
+        assertThrows(UrlException.class, () -> UrlTemplate.compile("{scheme}://host/x"));
+        assertThrows(UrlException.class, () -> UrlTemplate.compile("http{s}://host/x"));
+        assertThrows(UrlException.class, () -> UrlTemplate.compile("https://h{port}/x"));
+        assertThrows(UrlException.class, () -> UrlTemplate.compile("http://h/{id"));
+        assertThrows(UrlException.class, () -> UrlTemplate.compile("http://h/id}"));
+        assertThrows(UrlException.class, () -> UrlTemplate.compile("http://h/{1x}"));
+        assertThrows(UrlException.class, () -> UrlTemplate.compile("http://h/{}"));
+        assertThrows(UrlException.class, () -> UrlTemplate.compile("http://h/a b/{x}"));
+    }
+
+    @Test
+    @DisplayName("expansão rejeita valores ausentes ou quantidade errada")
+    void expand_valoresInvalidos() {
+        assertThrows(UrlException.class, () -> DOCS.expand(Map.of("orderNumber", "x", "id", 1)));
+        assertThrows(UrlException.class, () -> DOCS.expand("x", 1));
+        assertThrows(UrlException.class, () -> DOCS.expand("x", null, 1));
+    }
+
+    @Test
+    @DisplayName("um template compilado atende várias threads")
+    void expand_threadSafe() {
+        Map<Integer, String> out = new ConcurrentHashMap<>();
+        IntStream.range(0, 2_000).parallel().forEach(i -> out.put(i, DOCS.expand("ORD-" + i, i, 1)));
+
+        assertThat(out).hasSize(2_000);
+        List.of(0, 999, 1_999).forEach(i ->
+                assertThat(out.get(i)).isEqualTo("https://host/api/orders/ORD-" + i + "/documents/" + i + "?v=1"));
+    }
+
+    @Test
+    @DisplayName("compile(BaseUrl, template relativo) junta base e template normalizando a barra")
+    void compile_comBaseUrl() {
+        assertThat(UrlTemplate.compile(BaseUrl.of("https://h/api/"), "/orders/{n}").expand("A B"))
+                .isEqualTo("https://h/api/orders/A%20B");
+        assertThat(UrlTemplate.compile(BaseUrl.of("https://h"), "orders/{n}").expand("1"))
+                .isEqualTo("https://h/orders/1");
+        assertThrows(UrlException.class, () -> UrlTemplate.compile(BaseUrl.of("https://h/api?x=1"), "{n}"));
+        assertThrows(UrlException.class, () -> UrlTemplate.compile(BaseUrl.of("relativo/path"), "{n}"));
+    }
+}
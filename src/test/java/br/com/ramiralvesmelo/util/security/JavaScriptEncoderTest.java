@@ -2,6 +2,7 @@ package br.com.ramiralvesmelo.util.security;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.StringWriter;
 import java.lang.reflect.Constructor;
 
 import org.junit.jupiter.api.Test;
@@ -49,4 +50,41 @@ class JavaScriptEncoderTest {
         String encoded = JavaScriptEncoder.escape(original);
         assertEquals("\"abc123\"", encoded);
     }
+
+    @Test
+    void escape_deveNeutralizarFechamentoDeScriptEHtml() {
+        String encoded = JavaScriptEncoder.escape("</script><b>a & b's</b>");
+        assertEquals("\"\\u003C/script\\u003E\\u003Cb\\u003Ea \\u0026 b\\u0027s\\u003C/b\\u003E\"", encoded);
+        assertFalse(encoded.contains("</"));
+    }
+
+    @Test
+    void escape_deveEscaparSeparadoresUnicodeEControles() {
+        String encoded = JavaScriptEncoder.escape("a\u2028b\u2029c\u0000d\u001Fe\u007Fé");
+        assertEquals("\"a\\u2028b\\u2029c\\u0000d\\u001Fe\\u007Fé\"", encoded);
+    }
+
+    @Test
+    void encode_deveRetornarMesmaInstanciaQuandoNadaPrecisaDeEscape() {
+        String original = "Pedido nº 123 - ação concluída";
+        assertSame(original, JavaScriptEncoder.encode(original));
+        assertNull(JavaScriptEncoder.encode(null));
+        assertEquals("x\\ny", JavaScriptEncoder.encode("x\ny"));
+    }
+
+    @Test
+    void escape_deveEscreverEmAppendableSemStringIntermediaria() throws Exception {
+        String original = "linha1\nlinha2\r\"fim\"";
+        StringWriter writer = new StringWriter();
+        JavaScriptEncoder.escape(writer, original);
+        assertEquals(JavaScriptEncoder.escape(original), writer.toString());
+
+        StringBuilder sb = new StringBuilder("var x = ");
+        JavaScriptEncoder.escape(sb, null);
+        assertEquals("var x = null", sb.toString());
+
+        StringWriter body = new StringWriter();
+        JavaScriptEncoder.encode(body, "a\tb");
+        assertEquals("a\\tb", body.toString());
+    }
 }
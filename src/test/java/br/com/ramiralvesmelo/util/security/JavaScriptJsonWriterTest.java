@@ -0,0 +1,137 @@
+package br.com.ramiralvesmelo.util.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.reflect.Constructor;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import br.com.ramiralvesmelo.util.commons.dto.OrderDto;
+import br.com.ramiralvesmelo.util.commons.dto.OrderItemDto;
+import br.com.ramiralvesmelo.util.core.exception.IntegrationException;
+import jakarta.servlet.http.HttpServletResponse;
+
+class JavaScriptJsonWriterTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private static OrderDto pedido(int itens) {
+        List<OrderItemDto> items = new ArrayList<>();
+        for (int i = 0; i < itens; i++) {
+            items.add(OrderItemDto.builder()
+                    .id((long) i)
+                    .productName("Produto <b>" + i + "</b> & 'cia' \u2028 \"fim\"")
+                    .quantity(i)
+                    .unitPrice(BigDecimal.valueOf(i, 2))
+                    .build());
+        }
+        return OrderDto.builder()
+                .id(1L)
+                .orderNumber("PED-1")
+                .orderDate(LocalDateTime.of(2024, 1, 2, 3, 4, 5))
+                .message("</script><script>alert(1)</script>\nlinha")
+                .items(items)
+                .build();
+    }
+
+    @Test
+    void construtorPrivado_deveSerInacessivelMasInstanciavelPorReflexao() throws Exception {
+        Constructor<JavaScriptJsonWriter> ctor = JavaScriptJsonWriter.class.getDeclaredConstructor();
+        assertFalse(ctor.canAccess(null));
+        ctor.setAccessible(true);
+        assertNotNull(ctor.newInstance());
+    }
+
+    @Test
+    void write_deveSerEquivalenteASerializarEEscapar() throws Exception {
+        OrderDto dto = pedido(3_000); // JSON maior que o buffer do gerador
+        String esperado = JavaScriptEncoder.escape(MAPPER.writeValueAsString(dto));
+
+        StringWriter out = new StringWriter();
+        JavaScriptJsonWriter.write(out, dto);
+
+        assertEquals(esperado, out.toString());
+        assertFalse(out.toString().contains("</script>"));
+        assertFalse(out.toString().contains("\u2028"));
+    }
+
+    @Test
+    void write_deveEscreverNullComoLiteralJson() throws Exception {
+        StringWriter out = new StringWriter();
+        JavaScriptJsonWriter.write(out, MAPPER, null);
+        assertEquals(JavaScriptEncoder.escape(MAPPER.writeValueAsString(null)), out.toString());
+    }
+
+    @Test
+    void write_naoDeveFecharOWriterDeDestino() throws Exception {
+        Writer out = spy(new StringWriter());
+        JavaScriptJsonWriter.write(out, pedido(1));
+        verify(out, never()).close();
+        out.write("!"); // continua utilizável
+    }
+
+    @Test
+    void escapingWriter_deveEscaparEscritasFragmentadas() throws IOException {
+        StringWriter out = new StringWriter();
+        try (Writer w = JavaScriptJsonWriter.escapingWriter(out)) {
+            w.write("a<");
+            w.write('/');
+            w.write("xx>b\"c".toCharArray(), 2, 4);
+            w.write("pre\u2029pos", 3, 1);
+        }
+        assertEquals(JavaScriptEncoder.encode("a</>b\"c\u2029"), out.toString());
+    }
+
+    @Test
+    void writeToResponse_deveEscreverNoWriterDaResposta() throws Exception {
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        StringWriter body = new StringWriter();
+        when(response.getWriter()).thenReturn(new PrintWriter(body));
+
+        OrderDto dto = pedido(2);
+        JavaScriptJsonWriter.writeToResponse(response, null, dto);
+
+        verify(response).setCharacterEncoding("UTF-8");
+        assertEquals(JavaScriptEncoder.escape(MAPPER.writeValueAsString(dto)), body.toString());
+    }
+
+    @Test
+    void writeToResponse_deveForcarUtf8MesmoComCharsetPadraoDoContainer() throws Exception {
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        when(response.getCharacterEncoding()).thenReturn("ISO-8859-1");
+        StringWriter body = new StringWriter();
+        when(response.getWriter()).thenReturn(new PrintWriter(body));
+
+        JavaScriptJsonWriter.writeToResponse(response, MAPPER, "ação é 😀");
+
+        var ordem = inOrder(response);
+        ordem.verify(response).setCharacterEncoding("UTF-8");
+        ordem.verify(response).getWriter();
+        assertTrue(body.toString().contains("ação é 😀")); // não ASCII segue literal, sem escape
+    }
+
+    @Test
+    void writeToResponse_deveLancarIntegrationExceptionEmFalhaDeIO() throws Exception {
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        when(response.getCharacterEncoding()).thenReturn("UTF-8");
+        when(response.getWriter()).thenThrow(new IOException("fechado"));
+
+        assertThrows(IntegrationException.class, () -> JavaScriptJsonWriter.writeToResponse(response, MAPPER, pedido(1)));
+        assertThrows(IntegrationException.class, () -> JavaScriptJsonWriter.writeToResponse(null, MAPPER, pedido(1)));
+    }
+}
@@ -0,0 +1,158 @@
+package br.com.ramiralvesmelo.util.security.oauth2;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+class CachingJwtDecoderTest {
+
+    private static final Instant NOW = Instant.parse("2030-01-01T00:00:00Z");
+
+    private static Jwt jwt(String value, Instant exp) {
+        return Jwt.withTokenValue(value)
+                .header("alg", "none")
+                .subject("u")
+                .issuedAt(exp.minusSeconds(300))
+                .expiresAt(exp)
+                .build();
+    }
+
+    private static Clock clockAt(Instant t) {
+        return Clock.fixed(t, ZoneOffset.UTC);
+    }
+
+    @Test
+    void decode_deveReusarTokenJaVerificado() {
+        JwtDecoder delegate = mock(JwtDecoder.class);
+        when(delegate.decode("T1")).thenReturn(jwt("T1", NOW.plusSeconds(60)));
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 10, clockAt(NOW));
+
+        Jwt a = decoder.decode("T1");
+        Jwt b = decoder.decode("T1");
+
+        assertSame(a, b);
+        verify(delegate, times(1)).decode("T1");
+        assertEquals(1, decoder.getHitCount());
+        assertEquals(1, decoder.getMissCount());
+    }
+
+    @Test
+    void decode_deveRedecodificarAposExp() {
+        JwtDecoder delegate = mock(JwtDecoder.class);
+        when(delegate.decode("T1")).thenReturn(jwt("T1", NOW.plusSeconds(60)));
+
+        new CachingJwtDecoder(delegate, 10, clockAt(NOW)).decode("T1");
+        CachingJwtDecoder later = new CachingJwtDecoder(delegate, 10, clockAt(NOW.plusSeconds(61)));
+        later.decode("T1");
+
+        assertEquals(0, later.size()); // expirado não entra no cache
+        verify(delegate, times(2)).decode("T1");
+    }
+
+    @Test
+    void decode_naoDeveConfundirTokensComCaracteresNaoAscii() {
+        // em US-ASCII "Tá" e "Té" virariam "T?" e compartilhariam a mesma chave
+        JwtDecoder delegate = mock(JwtDecoder.class);
+        when(delegate.decode("Tá")).thenReturn(jwt("Tá", NOW.plusSeconds(60)));
+        when(delegate.decode("Té")).thenThrow(new JwtException("assinatura inválida"));
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 10, clockAt(NOW));
+
+        decoder.decode("Tá");
+
+        assertThrows(JwtException.class, () -> decoder.decode("Té"));
+        verify(delegate).decode("Té");
+    }
+
+    @Test
+    void decode_deveRespeitarLimiteLru() {
+        JwtDecoder delegate = mock(JwtDecoder.class);
+        for (String t : new String[] {"A", "B", "C"}) {
+            when(delegate.decode(t)).thenReturn(jwt(t, NOW.plusSeconds(60)));
+        }
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 2, clockAt(NOW));
+
+        decoder.decode("A");
+        decoder.decode("B");
+        decoder.decode("A"); // A mais recente
+        decoder.decode("C"); // remove B
+
+        assertEquals(2, decoder.size());
+        decoder.decode("A");
+        decoder.decode("B");
+        verify(delegate, times(1)).decode("A");
+        verify(delegate, times(2)).decode("B");
+    }
+
+    @Test
+    void decode_naoDeveCachearFalhas() {
+        JwtDecoder delegate = mock(JwtDecoder.class);
+        when(delegate.decode("BAD")).thenThrow(new JwtException("assinatura inválida"));
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 10, clockAt(NOW));
+
+        assertThrows(JwtException.class, () -> decoder.decode("BAD"));
+        assertThrows(JwtException.class, () -> decoder.decode("BAD"));
+        verify(delegate, times(2)).decode("BAD");
+        assertEquals(0, decoder.size());
+    }
+
+    @Test
+    void construtor_deveValidarMaxEntries() {
+        JwtDecoder delegate = mock(JwtDecoder.class);
+        Clock clock = Clock.systemUTC();
+        assertThrows(IllegalArgumentException.class, () -> new CachingJwtDecoder(delegate, 0, clock));
+    }
+
+    @Test
+    void withJwkSource_deveVerificarAssinaturaRsa() throws Exception {
+        RSAKey key = new RSAKeyGenerator(2048).keyID("k1").generate();
+        RSAKey other = new RSAKeyGenerator(2048).keyID("k1").generate();
+
+        CachingJwtDecoder decoder = CachingJwtDecoder
+                .withJwkSource(new ImmutableJWKSet<>(new JWKSet(key.toPublicJWK())))
+                .build();
+
+        String token = sign(key, Instant.now().plusSeconds(120));
+        Jwt jwt = decoder.decode(token);
+        assertEquals("user-1", jwt.getSubject());
+        assertSame(jwt, decoder.decode(token));
+
+        String forged = sign(other, Instant.now().plusSeconds(120));
+        assertThrows(JwtException.class, () -> decoder.decode(forged));
+    }
+
+    @Test
+    void withJwkSetUri_deveRejeitarUriInvalida() {
+        var builder = CachingJwtDecoder.withJwkSetUri("nao uma uri");
+        assertThrows(IllegalArgumentException.class, builder::build);
+    }
+
+    private static String sign(RSAKey key, Instant exp) throws Exception {
+        SignedJWT jwt = new SignedJWT(
+                new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(),
+                new JWTClaimsSet.Builder().subject("user-1")
+                        .issueTime(new Date())
+                        .expirationTime(Date.from(exp))
+                        .build());
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+}
@@ -0,0 +1,82 @@
+package br.com.ramiralvesmelo.util.security.oauth2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import br.com.ramiralvesmelo.util.security.oauth2.EncryptedFileTokenStore.StoredToken;
+
+class EncryptedFileTokenStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void saveELoad_deveFazerRoundTripSemGravarTokenEmClaro() throws Exception {
+        Path file = dir.resolve("sub/token.bin");
+        EncryptedFileTokenStore store = new EncryptedFileTokenStore(file, "senha".toCharArray());
+        Instant exp = Instant.ofEpochSecond(Instant.now().getEpochSecond() + 600);
+
+        store.save("k1", "TOKEN-SECRETO", exp);
+
+        assertTrue(Files.isRegularFile(file));
+        String raw = new String(Files.readAllBytes(file), StandardCharsets.ISO_8859_1);
+        assertFalse(raw.contains("TOKEN-SECRETO"));
+
+        Optional<StoredToken> loaded = store.load("k1");
+        assertTrue(loaded.isPresent());
+        assertEquals("TOKEN-SECRETO", loaded.get().token());
+        assertEquals(exp, loaded.get().expiresAt());
+    }
+
+    @Test
+    void save_deveReusarChaveDerivadaComIvNovoACadaGravacao() throws Exception {
+        Path file = dir.resolve("token.bin");
+        EncryptedFileTokenStore store = new EncryptedFileTokenStore(file, "senha".toCharArray());
+        Instant exp = Instant.ofEpochSecond(Instant.now().getEpochSecond() + 600);
+
+        store.save("k1", "T1", exp);
+        byte[] first = Files.readAllBytes(file);
+        store.save("k1", "T1", exp);
+        byte[] second = Files.readAllBytes(file);
+
+        // MAGIC(4) | salt(16) | iv(12): mesmo salt (mesma chave, sem novo PBKDF2), IV diferente
+        assertArrayEquals(Arrays.copyOfRange(first, 4, 20), Arrays.copyOfRange(second, 4, 20));
+        assertFalse(Arrays.equals(Arrays.copyOfRange(first, 20, 32), Arrays.copyOfRange(second, 20, 32)));
+        assertEquals("T1", new EncryptedFileTokenStore(file, "senha".toCharArray()).load("k1").orElseThrow().token());
+    }
+
+    @Test
+    void load_deveRejeitarOutroClienteOuSenhaErrada() {
+        Path file = dir.resolve("token.bin");
+        new EncryptedFileTokenStore(file, "senha".toCharArray()).save("k1", "T", Instant.now().plusSeconds(60));
+
+        assertTrue(new EncryptedFileTokenStore(file, "senha".toCharArray()).load("outro").isEmpty());
+        assertTrue(new EncryptedFileTokenStore(file, "errada".toCharArray()).load("k1").isEmpty());
+    }
+
+    @Test
+    void load_deveRetornarVazioQuandoArquivoAusenteOuCorrompido() throws Exception {
+        Path file = dir.resolve("token.bin");
+        EncryptedFileTokenStore store = new EncryptedFileTokenStore(file, "senha".toCharArray());
+        assertTrue(store.load("k1").isEmpty());
+
+        Files.write(file, new byte[] {1, 2, 3});
+        assertTrue(store.load("k1").isEmpty());
+    }
+
+    @Test
+    void construtor_deveValidarSenha() {
+        Path file = dir.resolve("token.bin");
+        assertThrows(IllegalArgumentException.class, () -> new EncryptedFileTokenStore(file, new char[0]));
+        assertThrows(NullPointerException.class, () -> new EncryptedFileTokenStore(file, null));
+    }
+}
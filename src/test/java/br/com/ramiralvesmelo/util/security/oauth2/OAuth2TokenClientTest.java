@@ -6,6 +6,8 @@ import static org.mockito.Mockito.*;
 
 import java.lang.reflect.Field;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Base64;
 import java.util.LinkedHashMap;
@@ -13,6 +15,7 @@ import java.util.Map;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.ArgumentCaptor;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
@@ -20,6 +23,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 import br.com.ramiralvesmelo.util.security.oauth2.OAuth2TokenClient.ClientAuthMethod;
@@ -230,4 +234,101 @@ class OAuth2TokenClientTest {
         // como usou cache, não chamou o servidor
         verifyNoInteractions(rt);
     }
+
+    // ============================================================
+    // Transporte: pool httpclient5 por padrão ou RestTemplate injetado
+    // ============================================================
+    @Test
+    void construtorPadrao_deveUsarTransporteHttpClient5ComPool() {
+        OAuth2TokenClient client = new OAuth2TokenClient(
+                "https://idp/token", "cid", "sec", ClientAuthMethod.BASIC, null, null);
+
+        assertInstanceOf(HttpComponentsClientHttpRequestFactory.class, client.getRest().getRequestFactory());
+    }
+
+    @Test
+    void construtorComTransporte_deveUsarRestTemplateInjetado() {
+        RestTemplate rt = mock(RestTemplate.class);
+        OAuth2TokenClient client = new OAuth2TokenClient(
+                "https://idp/token", "cid", "sec", ClientAuthMethod.BASIC, null, null, rt);
+
+        assertSame(rt, client.getRest());
+        assertThrows(NullPointerException.class, () -> new OAuth2TokenClient(
+                "https://idp/token", "cid", "sec", ClientAuthMethod.BASIC, null, null, null));
+    }
+
+    @Test
+    void pooledRestTemplate_deveValidarMaxConnections() {
+        assertThrows(IllegalArgumentException.class, () ->
+                OAuth2TokenClient.pooledRestTemplate(Duration.ofSeconds(1), Duration.ofSeconds(1), 0));
+    }
+
+    // ============================================================
+    // Expiração pelo claim exp do JWT e cache persistente
+    // ============================================================
+    private static String jwtComExp(long exp) {
+        Base64.Encoder enc = Base64.getUrlEncoder().withoutPadding();
+        return enc.encodeToString("{\"alg\":\"none\"}".getBytes(StandardCharsets.UTF_8)) + "."
+                + enc.encodeToString(("{\"sub\":\"x\",\"exp\":" + exp + "}").getBytes(StandardCharsets.UTF_8)) + ".sig";
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RestTemplate restRespondendo(String token, Object expiresIn) {
+        RestTemplate rt = mock(RestTemplate.class);
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("access_token", token);
+        body.put("expires_in", expiresIn);
+        when(rt.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), any(ParameterizedTypeReference.class)))
+                .thenReturn(ResponseEntity.ok(body));
+        return rt;
+    }
+
+    @Test
+    void getAccessToken_devePreferirClaimExpDoJwt() throws Exception {
+        long exp = Instant.now().getEpochSecond() + 900;
+        String jwt = jwtComExp(exp);
+        OAuth2TokenClient client = new OAuth2TokenClient(
+                "https://idp/token", "cid", "sec", ClientAuthMethod.BASIC, null, null, restRespondendo(jwt, 60));
+
+        assertEquals(jwt, client.getAccessToken());
+        assertEquals(Instant.ofEpochSecond(exp), getField(client, "expiresAt"));
+    }
+
+    @Test
+    void jwtExpiry_deveRetornarVazioParaTokenOpaco() {
+        assertTrue(OAuth2TokenClient.jwtExpiry("opaque-token").isEmpty());
+        assertTrue(OAuth2TokenClient.jwtExpiry("a.!!!.c").isEmpty());
+    }
+
+    @Test
+    void tokenStore_deveGravarAposRenovarECarregarNoStartup(@TempDir Path dir) {
+        EncryptedFileTokenStore store = new EncryptedFileTokenStore(dir.resolve("tok.bin"), "pw".toCharArray());
+
+        OAuth2TokenClient first = new OAuth2TokenClient(
+                "https://idp/token", "cid", "sec", ClientAuthMethod.BASIC, "s", null, restRespondendo("PERSIST", 600))
+                .withTokenStore(store);
+        assertEquals("PERSIST", first.getAccessToken());
+
+        // "novo pod": carrega do disco sem chamar o IdP
+        RestTemplate rt2 = mock(RestTemplate.class);
+        OAuth2TokenClient second = new OAuth2TokenClient(
+                "https://idp/token", "cid", "sec", ClientAuthMethod.BASIC, "s", null, rt2)
+                .withTokenStore(store);
+        assertEquals("PERSIST", second.getAccessToken());
+        verifyNoInteractions(rt2);
+    }
+
+    @Test
+    void tokenStore_deveIgnorarTokenPersistidoQuaseExpirado(@TempDir Path dir) {
+        EncryptedFileTokenStore store = new EncryptedFileTokenStore(dir.resolve("tok.bin"), "pw".toCharArray());
+        String key = "https://idp/token|cid||";
+        store.save(key, "VELHO", Instant.now().plusSeconds(10));
+
+        OAuth2TokenClient client = new OAuth2TokenClient(
+                "https://idp/token", "cid", "sec", ClientAuthMethod.BASIC, null, null, restRespondendo("NOVO", 600))
+                .withTokenStore(store);
+
+        assertEquals("NOVO", client.getAccessToken());
+        assertEquals("NOVO", store.load(key).orElseThrow().token());
+    }
 }
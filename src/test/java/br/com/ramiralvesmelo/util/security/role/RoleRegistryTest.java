@@ -0,0 +1,80 @@
+package br.com.ramiralvesmelo.util.security.role;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+class RoleRegistryTest {
+
+    @Test
+    void register_deveAtribuirIndicesEstaveisSemPrefixo() {
+        RoleRegistry registry = new RoleRegistry();
+
+        int admin = registry.register("admin");
+        assertEquals(admin, registry.register("ROLE_admin"));
+        assertEquals(admin, registry.indexOf("admin"));
+        assertNotEquals(admin, registry.register("user"));
+        assertEquals(-1, registry.indexOf("desconhecida"));
+        assertEquals(2, registry.size());
+    }
+
+    @Test
+    void register_deveRespeitarLimite() {
+        RoleRegistry registry = new RoleRegistry(1);
+        assertEquals(0, registry.register("a"));
+        assertEquals(-1, registry.register("b"));
+        assertThrows(IllegalStateException.class, () -> registry.of("b"));
+        assertEquals(1, registry.size());
+        assertThrows(IllegalArgumentException.class, () -> new RoleRegistry(0));
+        assertThrows(IllegalArgumentException.class, () -> registry.register(""));
+    }
+
+    @Test
+    void of_deveConsiderarSomenteAuthoritiesComPrefixoRole() {
+        RoleRegistry registry = new RoleRegistry();
+        RoleSet set = registry.of(List.of(
+                new SimpleGrantedAuthority("ROLE_admin"),
+                new SimpleGrantedAuthority("SCOPE_read")));
+
+        assertEquals(1, set.size());
+        assertTrue(set.hasRole(registry.indexOf("admin")));
+        assertEquals(-1, registry.indexOf("SCOPE_read"));
+        assertSame(RoleSet.EMPTY, registry.of(List.of()));
+    }
+
+    @Test
+    void lookup_naoDeveRegistrarAuthoritiesDesconhecidas() {
+        RoleRegistry registry = new RoleRegistry();
+        registry.register("admin");
+        RoleSet set = registry.lookup(List.of(
+                new SimpleGrantedAuthority("ROLE_admin"),
+                new SimpleGrantedAuthority("ROLE_intrusa"),
+                new SimpleGrantedAuthority("SCOPE_read")));
+
+        assertEquals(registry.of("admin"), set);
+        assertEquals(1, registry.size());
+        assertSame(RoleSet.EMPTY, registry.lookup(null));
+    }
+
+    @Test
+    void roleSet_deveSuportarAnyEAllAlemDe64Roles() {
+        RoleRegistry registry = new RoleRegistry();
+        for (int i = 0; i < 100; i++) {
+            registry.register("r" + i);
+        }
+        RoleSet user = registry.of("r1", "r70", "r99");
+
+        assertTrue(user.hasRole(registry.indexOf("r70")));
+        assertFalse(user.hasRole(registry.indexOf("r2")));
+        assertTrue(user.hasAnyRole(registry.of("r2", "r99")));
+        assertFalse(user.hasAnyRole(registry.of("r2", "r3")));
+        assertTrue(user.hasAllRoles(registry.of("r1", "r70")));
+        assertFalse(user.hasAllRoles(registry.of("r1", "r71")));
+        assertTrue(user.hasAllRoles(RoleSet.EMPTY));
+        assertEquals(registry.of("r99", "r1", "r70"), user);
+        assertEquals("RoleSet[1,70,99]", user.toString());
+    }
+}
@@ -0,0 +1,112 @@
+package br.com.ramiralvesmelo.util.security.role;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+class RoleSetAuthorizationManagerTest {
+
+    private static Jwt jwtComRoles(String... roles) {
+        return Jwt.withTokenValue("token")
+                .header("alg", "none")
+                .subject("user-1")
+                .claim("realm_access", Map.of("roles", List.of(roles)))
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(60))
+                .build();
+    }
+
+    @Test
+    void converter_deveGerarTokenComRoleSetMemoizado() {
+        RoleRegistry registry = new RoleRegistry();
+        RoleSetAuthorizationManager.hasAnyRole(registry, "admin", "user");
+        var converter = new RoleSetJwtAuthenticationConverter("app-api", registry);
+
+        var a = (RoleSetAuthenticationToken) converter.convert(jwtComRoles("admin", "user"));
+        var b = (RoleSetAuthenticationToken) converter.convert(jwtComRoles("admin", "user"));
+
+        assertTrue(a.isAuthenticated());
+        assertEquals("user-1", a.getName());
+        assertEquals(2, a.getAuthorities().size());
+        assertSame(a.getRoleSet(), b.getRoleSet());
+        assertTrue(a.getRoleSet().hasRole(registry.indexOf("admin")));
+    }
+
+    @Test
+    void check_deveDecidirPorHasRoleAnyEAll() {
+        RoleRegistry registry = new RoleRegistry();
+        var hasUser = RoleSetAuthorizationManager.hasRole(registry, "user");
+        var hasAdmin = RoleSetAuthorizationManager.hasRole(registry, "admin");
+        var anyAdminWriter = RoleSetAuthorizationManager.hasAnyRole(registry, "admin", "writer");
+        var allUserWriter = RoleSetAuthorizationManager.hasAllRoles(registry, "user", "writer");
+        var allUserAdmin = RoleSetAuthorizationManager.hasAllRoles(registry, "user", "admin");
+        var converter = new RoleSetJwtAuthenticationConverter("app-api", registry);
+        Authentication auth = converter.convert(jwtComRoles("user", "writer"));
+
+        assertTrue(hasUser.authorize(() -> auth, null).isGranted());
+        assertFalse(hasAdmin.authorize(() -> auth, null).isGranted());
+        assertTrue(anyAdminWriter.authorize(() -> auth, null).isGranted());
+        assertTrue(allUserWriter.authorize(() -> auth, null).isGranted());
+        assertFalse(allUserAdmin.authorize(() -> auth, null).isGranted());
+    }
+
+    @Test
+    void check_deveFuncionarComAuthenticationComum() {
+        RoleRegistry registry = new RoleRegistry();
+        var manager = RoleSetAuthorizationManager.<Object>hasRole(registry, "admin");
+
+        Authentication admin = new TestingAuthenticationToken("u", "p", "ROLE_admin");
+        Authentication naoAutenticado = new TestingAuthenticationToken("u", "p", "ROLE_admin");
+        naoAutenticado.setAuthenticated(false);
+
+        assertTrue(manager.authorize(() -> admin, null).isGranted());
+        assertFalse(manager.authorize(() -> naoAutenticado, null).isGranted());
+        assertFalse(manager.authorize(() -> null, null).isGranted());
+    }
+
+    @Test
+    void authorize_naoDeveConcederAcessoComRegistroSaturadoPeloIdp() {
+        RoleRegistry registry = new RoleRegistry(2);
+        var user = RoleSetAuthorizationManager.<Object>hasAllRoles(registry, "user");
+
+        // authorities desconhecidas na verificação não ocupam índices
+        Authentication ruidoso = new TestingAuthenticationToken("u", "p", "ROLE_x1", "ROLE_x2", "ROLE_x3");
+        assertFalse(user.authorize(() -> ruidoso, null).isGranted());
+        assertEquals(1, registry.size());
+
+        // registro cheio: a regra não pode ser criada sem a role (antes virava "nenhuma role exigida")
+        registry.register("outra");
+        assertThrows(IllegalStateException.class, () -> RoleSetAuthorizationManager.hasAllRoles(registry, "admin"));
+        assertThrows(IllegalStateException.class, () -> RoleSetAuthorizationManager.hasAnyRole(registry, "user", "admin"));
+        assertTrue(user.authorize(() -> new TestingAuthenticationToken("u", "p", "ROLE_user"), null).isGranted());
+    }
+
+    @Test
+    void converter_naoDeveRegistrarRolesDesconhecidasDoToken() {
+        RoleRegistry registry = new RoleRegistry(2);
+        var admin = RoleSetAuthorizationManager.<Object>hasRole(registry, "admin");
+        var converter = new RoleSetJwtAuthenticationConverter("app-api", registry);
+
+        Authentication auth = converter.convert(jwtComRoles("admin", "nova-1", "nova-2", "nova-3"));
+
+        assertEquals(1, registry.size());
+        assertTrue(admin.authorize(() -> auth, null).isGranted());
+        // o registro continua com espaço para regras criadas depois; o cache é refeito
+        var nova = RoleSetAuthorizationManager.<Object>hasRole(registry, "nova-1");
+        Authentication again = converter.convert(jwtComRoles("admin", "nova-1", "nova-2", "nova-3"));
+        assertTrue(nova.authorize(() -> again, null).isGranted());
+    }
+
+    @Test
+    void factories_devemExigirAoMenosUmaRole() {
+        RoleRegistry registry = new RoleRegistry();
+        assertThrows(IllegalArgumentException.class, () -> RoleSetAuthorizationManager.hasAnyRole(registry));
+    }
+}
@@ -0,0 +1,73 @@
+package br.com.ramiralvesmelo.util.validation.email;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import br.com.ramiralvesmelo.util.validation.email.EmailValidator.Reason;
+
+class DomainVerdictCacheTest {
+
+    @Test
+    @DisplayName("guarda a forma ASCII e o veredicto; segunda consulta é hit")
+    void verdict_hitMiss() {
+        DomainVerdictCache cache = new DomainVerdictCache(100);
+
+        DomainVerdictCache.Verdict v = cache.verdict("täst.de");
+        assertThat(v.asciiDomain()).isEqualTo("xn--tst-qla.de");
+        assertThat(v.isValid()).isTrue();
+        assertThat(cache.verdict("täst.de")).isSameAs(v);
+
+        assertThat(cache.getMissCount()).isEqualTo(1);
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.getHitRate()).isEqualTo(0.5);
+    }
+
+    @Test
+    @DisplayName("veredictos inválidos também ficam em cache")
+    void verdict_invalido() {
+        DomainVerdictCache cache = new DomainVerdictCache();
+        assertThat(cache.verdict("täst.c1").reason()).isEqualTo(Reason.TLD);
+        assertThat(cache.verdict("täst").reason()).isEqualTo(Reason.DOMAIN_LABELS);
+        assertThat(cache.verdict("ä".repeat(70) + ".de").reason()).isEqualTo(Reason.IDN);
+        assertThat(cache.size()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("EmailUtil/EmailValidator com cache: mesmo resultado e só domínios IDN entram no cache")
+    void verify_comCache() {
+        DomainVerdictCache cache = new DomainVerdictCache();
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(EmailUtil.verify("user" + i + "@täst.de", true, cache)).isTrue();
+            assertThat(EmailUtil.verify("user" + i + "@example.com", true, cache)).isTrue();
+            assertThat(EmailValidator.validate("user" + i + "@täst.c1", true, cache)).isEqualTo(Reason.TLD);
+        }
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.getMissCount()).isEqualTo(2);
+        assertThat(cache.getHitCount()).isEqualTo(1_998);
+        assertThat(EmailUtil.verify("user@täst.de", false, cache)).isFalse();
+    }
+
+    @Test
+    @DisplayName("limite de entradas descarta o menos usado (LRU)")
+    void verdict_lru() {
+        DomainVerdictCache cache = new DomainVerdictCache(10);
+        cache.verdict("dömain0.com");
+        IntStream.range(1, 20).forEach(i -> {
+            cache.verdict("dömain0.com"); // mantém o primeiro quente
+            cache.verdict("dömain" + i + ".com");
+        });
+        assertThat(cache.size()).isEqualTo(10);
+        long misses = cache.getMissCount();
+        cache.verdict("dömain0.com");
+        assertThat(cache.getMissCount()).isEqualTo(misses);
+
+        cache.invalidateAll();
+        assertThat(cache.size()).isZero();
+        assertThrows(IllegalArgumentException.class, () -> new DomainVerdictCache(0));
+    }
+}
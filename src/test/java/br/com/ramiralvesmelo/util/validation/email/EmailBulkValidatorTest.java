@@ -0,0 +1,121 @@
+package br.com.ramiralvesmelo.util.validation.email;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import br.com.ramiralvesmelo.util.validation.email.EmailValidator.Reason;
+
+class EmailBulkValidatorTest {
+
+    private static final String[] SAMPLES = {
+        "john.doe@example.com", "a@@b.com", "x@localhost", "x@example.c1", "a..b@example.com",
+        "user@täst.de", "  ok+tag@sub.example.org  ", "", "-ab@example.com", "x@bad-.com"
+    };
+
+    private static List<String> mailingList(int n) {
+        return IntStream.range(0, n).mapToObj(i -> SAMPLES[i % SAMPLES.length]).toList();
+    }
+
+    private static void assertMatchesSingle(EmailBulkValidator.Result result, List<String> emails, boolean idn) {
+        assertThat(result.getTotal()).isEqualTo(emails.size());
+        BitSet valid = result.getValid();
+        long invalid = 0;
+        for (int i = 0; i < emails.size(); i++) {
+            boolean expected = EmailValidator.isValid(emails.get(i), idn);
+            assertThat(valid.get(i)).as("linha %d: %s", i, emails.get(i)).isEqualTo(expected);
+            if (!expected) invalid++;
+        }
+        assertThat(result.getInvalidCount()).isEqualTo(invalid);
+        assertThat(result.getCounts().values().stream().mapToLong(Long::longValue).sum()).isEqualTo(emails.size());
+    }
+
+    @Test
+    @DisplayName("lista: bitset e contagens por motivo iguais à validação unitária")
+    void validate_lista() {
+        List<String> emails = mailingList(50_000);
+        EmailBulkValidator.Result r = EmailBulkValidator.validate(emails, false);
+
+        assertMatchesSingle(r, emails, false);
+        assertThat(r.count(Reason.AT_SIGN)).isEqualTo(5_000);
+        assertThat(r.count(Reason.TLD)).isEqualTo(5_000);
+        assertThat(r.count(Reason.VALID)).isEqualTo(r.getValidCount());
+    }
+
+    @Test
+    @DisplayName("stream: consumido em blocos, com resultado na ordem de entrada")
+    void validate_stream() {
+        List<String> emails = mailingList(2 * EmailBulkValidator.CHUNK + 777);
+        EmailBulkValidator.Result r = EmailBulkValidator.validate(emails.stream(), true);
+
+        assertMatchesSingle(r, emails, true);
+        assertThat(r.isValid(5)).isTrue(); // IDN permitido
+    }
+
+    @Test
+    @DisplayName("arquivo mapeado: CRLF, UTF-8, linha vazia e última linha sem quebra")
+    void validate_arquivo(@TempDir Path dir) throws Exception {
+        List<String> emails = new ArrayList<>(mailingList(20_000));
+        emails.add("ultimo@example.com");
+        Path file = dir.resolve("lista.txt");
+        Files.writeString(file, String.join("\r\n", emails), StandardCharsets.UTF_8);
+
+        EmailBulkValidator.Result r = EmailBulkValidator.validate(file, true);
+
+        assertMatchesSingle(r, emails, true);
+        assertThat(r.isValid(emails.size() - 1)).isTrue();
+        assertThat(r.count(Reason.EMPTY)).isEqualTo(2_000);
+    }
+
+    @Test
+    @DisplayName("UTF-8 inválido: arquivo mapeado e streaming dão o mesmo resultado")
+    void validate_utf8InvalidoMesmoResultadoNosDoisCaminhos(@TempDir Path dir) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.writeBytes("ana@example.com\n".getBytes(StandardCharsets.UTF_8));
+        bytes.writeBytes(new byte[] {'j', 'o', (byte) 0xFF, 'a', 'o', '@', 'e', 'x', '.', 'c', 'o', 'm', '\n'});
+        bytes.writeBytes(new byte[] {'z', (byte) 0xC3, '@', 'e', 'x', '.', 'c', 'o', 'm', '\r', '\n'});
+        bytes.writeBytes("josé@exemplo.com.br\n".getBytes(StandardCharsets.UTF_8));
+        bytes.writeBytes("bia@example.com".getBytes(StandardCharsets.UTF_8));
+        Path file = Files.write(dir.resolve("invalido.txt"), bytes.toByteArray());
+
+        EmailBulkValidator.Result mapped = EmailBulkValidator.validate(file, true);
+        EmailBulkValidator.Result streamed = EmailBulkValidator.validateStreaming(file, true);
+
+        assertThat(streamed.getTotal()).isEqualTo(5).isEqualTo(mapped.getTotal());
+        assertThat(streamed.getValid()).isEqualTo(mapped.getValid());
+        assertThat(streamed.getCounts()).isEqualTo(mapped.getCounts());
+        assertThat(mapped.isValid(0)).isTrue();
+        assertThat(mapped.isValid(1)).isFalse();
+        assertThat(mapped.isValid(4)).isTrue();
+    }
+
+    @Test
+    @DisplayName("entradas vazias")
+    void validate_vazio(@TempDir Path dir) throws Exception {
+        Path empty = Files.createFile(dir.resolve("vazio.txt"));
+        assertThat(EmailBulkValidator.validate(empty, false).getTotal()).isZero();
+        assertThat(EmailBulkValidator.validate(List.of(), false).getCounts()).isEmpty();
+        assertThat(EmailBulkValidator.validate(List.<String>of().stream(), false).getTotal()).isZero();
+    }
+
+    @Test
+    @DisplayName("total do streaming falha antes de estourar int")
+    void checkedTotal_overflow() {
+        assertThat(EmailBulkValidator.checkedTotal(Integer.MAX_VALUE - EmailBulkValidator.CHUNK, EmailBulkValidator.CHUNK))
+                .isEqualTo(Integer.MAX_VALUE);
+        assertThatThrownBy(() -> EmailBulkValidator.checkedTotal(Integer.MAX_VALUE - 10, EmailBulkValidator.CHUNK))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,49 @@
+package br.com.ramiralvesmelo.util.validation.email;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class EmailCanonicalizerTest {
+
+    @Test
+    @DisplayName("padrão: trim, minúsculas, IDN para ASCII e sem ponto final no domínio")
+    void canonicalize_padrao() {
+        EmailCanonicalizer c = EmailCanonicalizer.DEFAULT;
+        assertThat(c.canonicalize("  John.Doe+News@Example.COM. ")).isEqualTo("john.doe+news@example.com");
+        assertThat(c.canonicalize("User@Täst.DE")).isEqualTo("user@xn--tst-qla.de");
+        assertThat(c.canonicalize("invalido@@x.com")).isNull();
+        assertThat(c.canonicalize(null)).isNull();
+    }
+
+    @Test
+    @DisplayName("regras do Gmail: remove pontos e tag, unifica googlemail.com")
+    void canonicalize_gmail() {
+        EmailCanonicalizer c = EmailCanonicalizer.builder().gmailRules(true).build();
+        assertThat(c.canonicalize("J.o.h.n+promo@GoogleMail.com")).isEqualTo("john@gmail.com");
+        assertThat(c.canonicalize("john@gmail.com")).isEqualTo("john@gmail.com");
+        assertThat(c.canonicalize("j.ohn+x@example.com")).isEqualTo("j.ohn+x@example.com");
+    }
+
+    @Test
+    @DisplayName("stripPlusTags remove a tag em qualquer domínio; IDN desligado rejeita domínio não ASCII")
+    void canonicalize_opcoes() {
+        EmailCanonicalizer c = EmailCanonicalizer.builder()
+                .stripPlusTags(true)
+                .allowIdn(false)
+                .build();
+        assertThat(c.canonicalize("ana+loja@example.com")).isEqualTo("ana@example.com");
+        assertThat(c.canonicalize("ana@täst.de")).isNull();
+    }
+
+    @Test
+    @DisplayName("usa o DomainVerdictCache na conversão IDN")
+    void canonicalize_comCache() {
+        DomainVerdictCache cache = new DomainVerdictCache();
+        EmailCanonicalizer c = EmailCanonicalizer.builder().domainCache(cache).build();
+        assertThat(c.canonicalize("a@täst.de")).isEqualTo("a@xn--tst-qla.de");
+        assertThat(c.canonicalize("b@täst.de")).isEqualTo("b@xn--tst-qla.de");
+        assertThat(cache.getMissCount()).isEqualTo(1);
+    }
+}
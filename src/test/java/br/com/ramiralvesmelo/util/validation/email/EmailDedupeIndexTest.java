@@ -0,0 +1,76 @@
+package br.com.ramiralvesmelo.util.validation.email;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class EmailDedupeIndexTest {
+
+    @ParameterizedTest(name = "hashBits={0}, offHeap={1}")
+    @CsvSource({"64,false", "64,true", "128,false", "128,true"})
+    @DisplayName("deduplica pela forma canônica, crescendo além do tamanho esperado")
+    void add_deduplica(int bits, boolean offHeap) {
+        EmailDedupeIndex index = EmailDedupeIndex.builder()
+                .expectedSize(100)
+                .hashBits(bits)
+                .offHeap(offHeap)
+                .build();
+
+        for (int i = 0; i < 50_000; i++) {
+            assertThat(index.add("user" + i + "@example.com")).isTrue();
+        }
+        for (int i = 0; i < 50_000; i++) {
+            assertThat(index.add(" USER" + i + "@Example.com ")).isFalse();
+        }
+        assertThat(index.size()).isEqualTo(50_000);
+        assertThat(index.contains("user49999@example.com")).isTrue();
+        assertThat(index.contains("user50000@example.com")).isFalse();
+        assertThat(index.isOffHeap()).isEqualTo(offHeap);
+        assertThat(index.memoryBytes()).isLessThanOrEqualTo(50_000L * (bits == 64 ? 23 : 46));
+    }
+
+    @Test
+    @DisplayName("e-mail inválido não entra no índice; canonicalizador configurável")
+    void add_invalidoECanonicalizador() {
+        EmailDedupeIndex index = EmailDedupeIndex.builder()
+                .canonicalizer(EmailCanonicalizer.builder().gmailRules(true).build())
+                .build();
+        assertThat(index.add("sem-arroba")).isFalse();
+        assertThat(index.add("j.doe+a@gmail.com")).isTrue();
+        assertThat(index.add("jdoe@googlemail.com")).isFalse();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("exactCheck confirma hashes repetidos; sem confirmação conta colisão")
+    void add_exactCheck() {
+        Set<String> persisted = new HashSet<>();
+        EmailDedupeIndex index = EmailDedupeIndex.builder().exactCheck(persisted::contains).build();
+
+        assertThat(index.add("a@example.com")).isTrue();
+        // ainda não persistido: o índice não confirma e trata como novo (colisão)
+        assertThat(index.add("a@example.com")).isTrue();
+        assertThat(index.getCollisionCount()).isEqualTo(1);
+        assertThat(index.contains("a@example.com")).isFalse();
+
+        persisted.add("a@example.com");
+        assertThat(index.add("A@example.com")).isFalse();
+        assertThat(index.contains("a@example.com")).isTrue();
+    }
+
+    @Test
+    @DisplayName("parâmetros inválidos")
+    void builder_invalido() {
+        assertThrows(IllegalArgumentException.class, () -> EmailDedupeIndex.builder().hashBits(32).build());
+        assertThrows(IllegalArgumentException.class, () -> EmailDedupeIndex.builder().expectedSize(-1).build());
+        assertThrows(IllegalArgumentException.class,
+                () -> EmailDedupeIndex.builder().expectedSize(Integer.MAX_VALUE).build());
+    }
+}
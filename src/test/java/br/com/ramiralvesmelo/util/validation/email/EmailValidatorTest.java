@@ -0,0 +1,113 @@
+package br.com.ramiralvesmelo.util.validation.email;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.IDN;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import br.com.ramiralvesmelo.util.validation.email.EmailValidator.Reason;
+
+class EmailValidatorTest {
+
+    @Test
+    @DisplayName("retorna o motivo da primeira regra violada")
+    void validate_motivos() {
+        assertThat(EmailValidator.validate("  john.doe+tag@example-domain.com \t")).isEqualTo(Reason.VALID);
+        assertThat(EmailValidator.validate(null)).isEqualTo(Reason.NULL);
+        assertThat(EmailValidator.validate("   ")).isEqualTo(Reason.EMPTY);
+        assertThat(EmailValidator.validate("a@@b.com")).isEqualTo(Reason.AT_SIGN);
+        assertThat(EmailValidator.validate("@b.com")).isEqualTo(Reason.AT_SIGN);
+        assertThat(EmailValidator.validate("a@")).isEqualTo(Reason.AT_SIGN);
+        assertThat(EmailValidator.validate("a@b")).isEqualTo(Reason.LENGTH);
+        assertThat(EmailValidator.validate("a".repeat(65) + "@example.com")).isEqualTo(Reason.LENGTH);
+        assertThat(EmailValidator.validate("a..b@example.com")).isEqualTo(Reason.CONSECUTIVE_DOTS);
+        assertThat(EmailValidator.validate("a,b@example.com")).isEqualTo(Reason.LOCAL_CHARS);
+        assertThat(EmailValidator.validate("-ab@example.com")).isEqualTo(Reason.LOCAL_EDGE);
+        assertThat(EmailValidator.validate("x@localhost")).isEqualTo(Reason.DOMAIN_LABELS);
+        assertThat(EmailValidator.validate("x@.example.com")).isEqualTo(Reason.LABEL_LENGTH);
+        assertThat(EmailValidator.validate("x@" + "a".repeat(64) + ".com")).isEqualTo(Reason.LABEL_LENGTH);
+        assertThat(EmailValidator.validate("x@bad-.com")).isEqualTo(Reason.LABEL_CHARS);
+        assertThat(EmailValidator.validate("x@example.c1")).isEqualTo(Reason.TLD);
+        assertThat(EmailValidator.validate("x@täst.de")).isEqualTo(Reason.LABEL_CHARS);
+        assertThat(EmailValidator.validate("x@täst.de", true)).isEqualTo(Reason.VALID);
+    }
+
+    @Test
+    @DisplayName("ponto final no domínio é ignorado, como no split das regras históricas")
+    void validate_pontoFinal() {
+        assertThat(EmailValidator.isValid("x@example.com.")).isTrue();
+        assertThat(EmailValidator.isValid("x@ab.")).isFalse();
+    }
+
+    @Test
+    @DisplayName("aceita CharSequence sem conversão para String")
+    void validate_charSequence() {
+        assertThat(EmailValidator.isValid(new StringBuilder("user@example.org"))).isTrue();
+    }
+
+    @Test
+    @DisplayName("mesmo resultado das regras históricas (regex) em entradas aleatórias")
+    void validate_equivalenteAoLegado() {
+        String alphabet = "aZ09._%+-@ ,éä。_x.-@";
+        Random rnd = new Random(42);
+        String[] domains = {"example.com", "a.b.cd", "täst.de", "x-y.org.", "1.23", "c", "ex..am.pl", ".com"};
+        for (int n = 0; n < 200_000; n++) {
+            StringBuilder sb = new StringBuilder();
+            int len = rnd.nextInt(14);
+            for (int i = 0; i < len; i++) {
+                sb.append(alphabet.charAt(rnd.nextInt(alphabet.length())));
+            }
+            if (rnd.nextBoolean()) {
+                sb.append('@').append(domains[rnd.nextInt(domains.length)]);
+            }
+            String email = sb.toString();
+            for (boolean idn : new boolean[] {false, true}) {
+                assertThat(EmailValidator.isValid(email, idn))
+                        .as("%s (idn=%s)", email, idn)
+                        .isEqualTo(Legacy.verify(email, idn));
+            }
+        }
+    }
+
+    /** Cópia das regras históricas do EmailUtil (regex), usada como referência. */
+    private static final class Legacy {
+        private static final Pattern LOCAL_ALLOWED = Pattern.compile("^[A-Za-z0-9._%+-]+$");
+        private static final Pattern LABEL_PATTERN = Pattern.compile("^[A-Za-z0-9](?:[A-Za-z0-9-]{0,61}[A-Za-z0-9])?$");
+        private static final Pattern TLD_PATTERN = Pattern.compile("^[A-Za-z]{2,}$");
+
+        static boolean verify(String email, boolean allowIdn) {
+            if (email == null) return false;
+            email = email.trim();
+            if (email.isEmpty()) return false;
+            int at = email.indexOf('@');
+            if (at <= 0 || at != email.lastIndexOf('@') || at == email.length() - 1) return false;
+            String local = email.substring(0, at);
+            String domain = email.substring(at + 1);
+            if (local.length() > 64 || domain.length() < 3 || domain.length() > 253) return false;
+            if (local.contains("..") || domain.contains("..")) return false;
+            if (!LOCAL_ALLOWED.matcher(local).matches()) return false;
+            if (!EmailUtil.isAsciiLetterOrDigit(local.charAt(0))
+                    || !EmailUtil.isAsciiLetterOrDigit(local.charAt(local.length() - 1))) return false;
+            if (allowIdn) {
+                try {
+                    domain = IDN.toASCII(domain);
+                } catch (IllegalArgumentException ex) {
+                    return false;
+                }
+            }
+            String[] labels = domain.split("\\.");
+            if (labels.length < 2) return false;
+            for (int i = 0; i < labels.length; i++) {
+                String lbl = labels[i];
+                if (lbl.isEmpty() || lbl.length() > 63) return false;
+                if (!LABEL_PATTERN.matcher(lbl).matches()) return false;
+                if (i == labels.length - 1 && !TLD_PATTERN.matcher(lbl).matches()) return false;
+            }
+            return true;
+        }
+    }
+}